@@ -50,6 +50,9 @@ OF SUCH DAMAGE.
 */
 
 import org.mariadb.jdbc.internal.util.Utils;
+import org.mariadb.jdbc.internal.util.Options;
+import org.mariadb.jdbc.internal.query.ClientPrepareResult;
+import org.mariadb.jdbc.internal.query.ClientPrepareResultCache;
 import org.mariadb.jdbc.internal.query.MariaDbClientParameterizeQuery;
 import org.mariadb.jdbc.internal.packet.dao.parameters.ParameterHolder;
 
@@ -85,8 +88,15 @@ public class MariaDbClientPreparedStatement extends AbstractMariaDbPrepareStatem
         /*if(log.isDebugEnabled()) {
             log.debug("Creating prepared statement for " + sql);
         }*/
-        query = new MariaDbClientParameterizeQuery(Utils.nativeSql(sqlQuery, connection.noBackslashEscapes),
-                connection.noBackslashEscapes, (isRewriteable && firstRewrite != null) ? firstRewrite.length() : -1);
+        String nativeSql = Utils.nativeSql(sqlQuery, connection.noBackslashEscapes);
+        int rewriteOffset = (isRewriteable && firstRewrite != null) ? firstRewrite.length() : -1;
+        Options options = protocol.getOptions();
+        if (options.clientPrepStmtCacheSize > 0) {
+            query = new MariaDbClientParameterizeQuery(ClientPrepareResultCache.getInstance(options.clientPrepStmtCacheSize,
+                    options.clientPrepStmtCacheSqlLimit).get(nativeSql, connection.noBackslashEscapes, rewriteOffset));
+        } else {
+            query = new MariaDbClientParameterizeQuery(ClientPrepareResult.parse(nativeSql, connection.noBackslashEscapes, rewriteOffset));
+        }
         parametersCleared = true;
     }
 
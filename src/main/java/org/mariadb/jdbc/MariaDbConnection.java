@@ -237,9 +237,10 @@ public final class MariaDbConnection implements Connection {
      */
     public PreparedStatement prepareStatement(final String sql, final int resultSetType, final int resultSetConcurrency)
             throws SQLException {
-        // for now resultSetType and resultSetConcurrency are ignored
+        // for now resultSetConcurrency is ignored, and resultSetType only decide if a server cursor can be used
         // TODO: fix
-        return prepareStatement(sql);
+        return internalPrepareStatement(sql, options.alwaysAutoGeneratedKeys ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS,
+                resultSetType);
     }
 
     /**
@@ -272,8 +273,7 @@ public final class MariaDbConnection implements Connection {
             throw ExceptionMapper.getFeatureNotSupportedException("Only read-only result sets allowed");
         }
         //TODO : implement parameters
-        // resultSetType is ignored since we always are scroll insensitive
-        return prepareStatement(sql);
+        return prepareStatement(sql, resultSetType, resultSetConcurrency);
     }
 
     /**
@@ -368,10 +368,24 @@ public final class MariaDbConnection implements Connection {
      * @throws SQLException if a connection error occur during the server preparation.
      */
     public PreparedStatement internalPrepareStatement(final String sql, final int autoGeneratedKeys) throws SQLException {
+        return internalPrepareStatement(sql, autoGeneratedKeys, ResultSet.TYPE_SCROLL_INSENSITIVE);
+    }
+
+    /**
+     * Send ServerPrepareStatement or ClientPrepareStatement depending on SQL query and options.
+     *
+     * @param sql sql query
+     * @param autoGeneratedKeys autoGeneratedKey option
+     * @param resultSetType result set type. Server cursors are only used by TYPE_FORWARD_ONLY statements.
+     * @return PrepareStatement
+     * @throws SQLException if a connection error occur during the server preparation.
+     */
+    public PreparedStatement internalPrepareStatement(final String sql, final int autoGeneratedKeys, final int resultSetType)
+            throws SQLException {
         checkConnection();
         if (!options.allowMultiQueries && !options.rewriteBatchedStatements && options.useServerPrepStmts && checkIfPreparable(sql)) {
             try {
-                return new MariaDbServerPreparedStatement(this, sql, autoGeneratedKeys);
+                return new MariaDbServerPreparedStatement(this, sql, autoGeneratedKeys, resultSetType);
             } catch (SQLException e) {
                 //on some specific case, server cannot prepared data (CONJ-238)
                 return new MariaDbClientPreparedStatement(this, sql, autoGeneratedKeys);
@@ -97,8 +97,7 @@ public class MariaDbResultSet implements ResultSet {
 
     private static MariaDbResultSet createEmptyResultSet() {
         ColumnInformation[] colList = new ColumnInformation[0];
-        List<ValueObject[]> voList = Collections.emptyList();
-        AbstractQueryResult qr = new CachedSelectResult(colList, voList, (short) 0);
+        AbstractQueryResult qr = new CachedSelectResult(colList, new ArenaRowStore(0), (short) 0, false, null);
         return new MariaDbResultSet(qr, null, null);
     }
 
@@ -124,9 +123,9 @@ public class MariaDbResultSet implements ResultSet {
 
         final byte[] boolTrue = {1};
         final byte[] boolFalse = {0};
-        List<ValueObject[]> rows = new ArrayList<>();
+        ArenaRowStore rows = new ArenaRowStore(columnNameLength);
         for (String[] rowData : data) {
-            ValueObject[] row = new ValueObject[columnNameLength];
+            byte[][] row = new byte[columnNameLength][];
 
             if (rowData.length != columnNameLength) {
                 throw new RuntimeException("Number of elements in the row != number of columns :" + rowData.length + " vs " + columnNameLength);
@@ -145,19 +144,19 @@ public class MariaDbResultSet implements ResultSet {
                         bytes = new byte[0];
                     }
                 }
-                row[i] = new MariaDbValueObject(bytes, columns[i], protocol.getOptions());
+                row[i] = bytes;
             }
             rows.add(row);
         }
         if (findColumnReturnsOne) {
-            return new MariaDbResultSet(new CachedSelectResult(columns, rows, (short) 0),
+            return new MariaDbResultSet(new CachedSelectResult(columns, rows, (short) 0, false, protocol.getOptions()),
                     null, protocol) {
                 public int findColumn(String name) {
                     return 1;
                 }
             };
         }
-        return new MariaDbResultSet(new CachedSelectResult(columns, rows, (short) 0),
+        return new MariaDbResultSet(new CachedSelectResult(columns, rows, (short) 0, false, protocol.getOptions()),
                 null, protocol);
     }
 
@@ -192,9 +191,9 @@ public class MariaDbResultSet implements ResultSet {
 
         final byte[] boolTrue = {1};
         final byte[] boolFalse = {0};
-        List<ValueObject[]> rows = new ArrayList<>();
+        ArenaRowStore rows = new ArenaRowStore(columnLength);
         for (String[] rowData : data) {
-            ValueObject[] row = new ValueObject[columnLength];
+            byte[][] row = new byte[columnLength][];
 
             if (rowData.length != columnLength) {
                 throw new RuntimeException("Number of elements in the row != number of columns :" + rowData.length + " vs " + columnLength);
@@ -213,19 +212,19 @@ public class MariaDbResultSet implements ResultSet {
                         bytes = new byte[0];
                     }
                 }
-                row[i] = new MariaDbValueObject(bytes, columns[i], protocol.getOptions());
+                row[i] = bytes;
             }
             rows.add(row);
         }
         if (findColumnReturnsOne) {
-            return new MariaDbResultSet(new CachedSelectResult(columns, rows, (short) 0),
+            return new MariaDbResultSet(new CachedSelectResult(columns, rows, (short) 0, false, protocol.getOptions()),
                     null, protocol) {
                 public int findColumn(String name) {
                     return 1;
                 }
             };
         }
-        return new MariaDbResultSet(new CachedSelectResult(columns, rows, (short) 0),
+        return new MariaDbResultSet(new CachedSelectResult(columns, rows, (short) 0, false, protocol.getOptions()),
                 null, protocol);
     }
 
@@ -463,7 +462,7 @@ public class MariaDbResultSet implements ResultSet {
             ValueObject vo;
             try {
                 vo = ((SelectQueryResult) queryResult).getValueObject(columnIndex - 1);
-            } catch (NoSuchColumnException e) {
+            } catch (QueryException e) {
                 throw ExceptionMapper.getSqlException(e.getMessage(), e);
             }
             this.lastGetWasNull = vo.isNull();
@@ -1283,6 +1282,7 @@ public class MariaDbResultSet implements ResultSet {
         if (isClosed()) {
             throw new SQLException("Invalid operation on a closed result set");
         }
+        checkScrollable();
         if (queryResult.getResultSetType() == ResultSetType.SELECT && queryResult.getRows() > 0) {
             ((SelectQueryResult) queryResult).moveRowPointerTo(queryResult.getRows() - 1);
             return true;
@@ -1329,6 +1329,7 @@ public class MariaDbResultSet implements ResultSet {
      * @since 1.2
      */
     public boolean absolute(int row) throws SQLException {
+        checkScrollable();
         if (queryResult.getResultSetType() != ResultSetType.SELECT) {
             return false;
         }
@@ -1361,6 +1362,7 @@ public class MariaDbResultSet implements ResultSet {
      * @since 1.2
      */
     public boolean relative(int rows) throws SQLException {
+        checkScrollable();
         if (queryResult.getResultSetType() != ResultSetType.SELECT) {
             return false;
         }
@@ -1389,6 +1391,7 @@ public class MariaDbResultSet implements ResultSet {
      * @since 1.2
      */
     public boolean previous() throws SQLException {
+        checkScrollable();
         if (queryResult.getResultSetType() != ResultSetType.SELECT) {
             return false;
         }
@@ -1404,6 +1407,16 @@ public class MariaDbResultSet implements ResultSet {
         return false;
     }
 
+    /**
+     * Server cursor results can only move forward.
+     * @throws SQLException if result set rows are read from a server cursor
+     */
+    private void checkScrollable() throws SQLException {
+        if (queryResult instanceof CursorSelectResult) {
+            throw new SQLException("Invalid operation for result set type TYPE_FORWARD_ONLY");
+        }
+    }
+
     /**
      * Retrieves the fetch direction for this <code>ResultSet</code> object.
      *
@@ -1470,7 +1483,8 @@ public class MariaDbResultSet implements ResultSet {
      * @since 1.2
      */
     public int getType() throws SQLException {
-        return (queryResult instanceof StreamingSelectResult) ? ResultSet.TYPE_FORWARD_ONLY : ResultSet.TYPE_SCROLL_INSENSITIVE;
+        return (queryResult instanceof StreamingSelectResult || queryResult instanceof CursorSelectResult)
+                ? ResultSet.TYPE_FORWARD_ONLY : ResultSet.TYPE_SCROLL_INSENSITIVE;
     }
 
     /**
@@ -51,7 +51,11 @@ OF SUCH DAMAGE.
 import org.mariadb.jdbc.internal.util.ExceptionMapper;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 import org.mariadb.jdbc.internal.packet.dao.parameters.ParameterHolder;
+import org.mariadb.jdbc.internal.queryresults.AbstractQueryResult;
+import org.mariadb.jdbc.internal.queryresults.CursorSelectResult;
 import org.mariadb.jdbc.internal.queryresults.ModifyQueryResult;
+import org.mariadb.jdbc.internal.packet.send.SendBulkExecutePacket;
+import org.mariadb.jdbc.internal.queryresults.PreparedBatchResult;
 import org.mariadb.jdbc.internal.util.dao.PrepareResult;
 import org.mariadb.jdbc.internal.queryresults.ResultSetType;
 import org.mariadb.jdbc.internal.MariaDbType;
@@ -72,6 +76,7 @@ public class MariaDbServerPreparedStatement extends AbstractMariaDbPrepareStatem
     MariaDbParameterMetaData parameterMetaData;
     ParameterHolder[] currentParameterHolder;
     List<ParameterHolder[]> queryParameters = new ArrayList<>();
+    private final int resultSetScrollType;
 
     /**
      * Constructor for creating Server prepared statement.
@@ -81,9 +86,24 @@ public class MariaDbServerPreparedStatement extends AbstractMariaDbPrepareStatem
      * @throws SQLException exception
      */
     public MariaDbServerPreparedStatement(MariaDbConnection connection, String sql, final int autoGeneratedKeys) throws SQLException {
+        this(connection, sql, autoGeneratedKeys, ResultSet.TYPE_SCROLL_INSENSITIVE);
+    }
+
+    /**
+     * Constructor for creating Server prepared statement.
+     * @param connection current connection
+     * @param sql Sql String to prepare
+     * @param autoGeneratedKeys must generated keys be retrieved when batch insert ?
+     * @param resultSetScrollType one of ResultSet.TYPE_FORWARD_ONLY, TYPE_SCROLL_INSENSITIVE or TYPE_SCROLL_SENSITIVE.
+     *                            Only TYPE_FORWARD_ONLY statements can use a server cursor.
+     * @throws SQLException exception
+     */
+    public MariaDbServerPreparedStatement(MariaDbConnection connection, String sql, final int autoGeneratedKeys,
+                                          final int resultSetScrollType) throws SQLException {
         super(connection, autoGeneratedKeys);
         useFractionalSeconds = connection.getProtocol().getOptions().useFractionalSeconds;
         this.sql = sql;
+        this.resultSetScrollType = resultSetScrollType;
         prepare(sql);
     }
 
@@ -162,6 +182,20 @@ public class MariaDbServerPreparedStatement extends AbstractMariaDbPrepareStatem
     }
 
 
+    /**
+     * Result set type : TYPE_FORWARD_ONLY if requested when preparing statement, since result-set may then use a
+     * server cursor, otherwise TYPE_SCROLL_INSENSITIVE.
+     * @return result set type
+     * @throws SQLException if statement is closed
+     */
+    @Override
+    public int getResultSetType() throws SQLException {
+        if (resultSetScrollType == ResultSet.TYPE_FORWARD_ONLY) {
+            return ResultSet.TYPE_FORWARD_ONLY;
+        }
+        return super.getResultSetType();
+    }
+
     @Override
     public ResultSetMetaData getMetaData() throws SQLException {
         return metadata;
@@ -218,9 +252,46 @@ public class MariaDbServerPreparedStatement extends AbstractMariaDbPrepareStatem
         MariaDbType[] parameterTypeHeader = new MariaDbType[parameterCount];
         lock.lock();
         executing = true;
-        QueryException exception = null;
         try {
             executeQueryProlog();
+            if (canUseBulk()) {
+                counter = executeBatchBulk(ret);
+            } else if (protocol.getOptions().useBatchMultiSend && queryParameters.size() > 1) {
+                counter = executeBatchMultiSend(ret, insertIds, parameterTypeHeader);
+            } else {
+                counter = executeBatchOneByOne(ret, insertIds, parameterTypeHeader);
+            }
+
+            if (autoGeneratedKeys && queryResult != null && queryResult.getResultSetType() == ResultSetType.MODIFY) {
+                rs = (MariaDbResultSet) MariaDbResultSet.createGeneratedKeysResultSet(insertIds, ret, connection, binaryData);
+            }
+        } catch (SQLException sqle) {
+            clearBatch();
+            if (sqle instanceof BatchUpdateException) {
+                throw sqle;
+            }
+            throw new BatchUpdateException(sqle.getMessage(), sqle.getSQLState(), sqle.getErrorCode(), Arrays.copyOf(ret, counter), sqle);
+        } finally {
+            lock.unlock();
+            clearBatch();
+        }
+        batchResultSet = rs;
+        return ret;
+    }
+
+    /**
+     * Execute batch commands one by one, waiting for each result before sending next command.
+     * Stop at first error.
+     * @param ret update counts
+     * @param insertIds generated ids, if autoGeneratedKeys
+     * @param parameterTypeHeader parameters type header
+     * @return number of executed commands
+     * @throws SQLException if a command fails
+     */
+    private int executeBatchOneByOne(int[] ret, long[] insertIds, MariaDbType[] parameterTypeHeader) throws SQLException {
+        int counter = 0;
+        QueryException exception = null;
+        try {
             try {
                 int queryParameterSize = queryParameters.size();
                 for (; counter < queryParameterSize; counter++) {
@@ -253,19 +324,115 @@ public class MariaDbServerPreparedStatement extends AbstractMariaDbPrepareStatem
                 executeQueryEpilog(exception, sql);
                 executing = false;
             }
+        } catch (SQLException sqle) {
+            throw new BatchUpdateException(sqle.getMessage(), sqle.getSQLState(), sqle.getErrorCode(), Arrays.copyOf(ret, counter), sqle);
+        }
+        return counter;
+    }
 
-            if (autoGeneratedKeys && queryResult != null && queryResult.getResultSetType() == ResultSetType.MODIFY) {
-                rs = (MariaDbResultSet) MariaDbResultSet.createGeneratedKeysResultSet(insertIds, ret, connection, binaryData);
+    /**
+     * Indicate if batch can be executed with bulk commands : server must support it, statement must not return
+     * generated keys or a result-set, and no parameter can be a stream.
+     * @return true if bulk commands can be used
+     */
+    private boolean canUseBulk() {
+        return protocol.getOptions().useBulkStmts
+                && protocol.supportsBulkOperations()
+                && !autoGeneratedKeys
+                && queryParameters.size() > 1
+                && prepareResult.getColumns().length == 0
+                && SendBulkExecutePacket.canSendBulk(queryParameters);
+    }
+
+    /**
+     * Execute batch using bulk commands. Server returns one result for many rows, so update count of each row is
+     * SUCCESS_NO_INFO. Stop at first failed command.
+     * @param ret update counts
+     * @return number of executed rows
+     * @throws SQLException if a command fails
+     */
+    private int executeBatchBulk(int[] ret) throws SQLException {
+        PreparedBatchResult batchResult = new PreparedBatchResult(queryParameters.size());
+        QueryException exception = null;
+        try {
+            try {
+                protocol.executeBulkPrepared(sql, queryParameters, prepareResult, batchResult);
+            } catch (QueryException e) {
+                exception = e;
             }
+            queryResult = null;
+            for (int i = 0; i < batchResult.getExecuted(); i++) {
+                AbstractQueryResult result = batchResult.getResult(i);
+                if (result == null) {
+                    ret[i] = EXECUTE_FAILED;
+                } else {
+                    if (result.getResultSetType() == ResultSetType.MODIFY) {
+                        queryResult = result;
+                    }
+                    ret[i] = SUCCESS_NO_INFO;
+                }
+            }
+            if (exception == null) {
+                exception = batchResult.getFirstException();
+            }
+            executeQueryEpilog(exception, sql);
         } catch (SQLException sqle) {
-            clearBatch();
-            throw new BatchUpdateException(sqle.getMessage(), sqle.getSQLState(), sqle.getErrorCode(), Arrays.copyOf(ret, counter), sqle);
+            throw new BatchUpdateException(sqle.getMessage(), sqle.getSQLState(), sqle.getErrorCode(),
+                    Arrays.copyOf(ret, batchResult.getExecuted()), sqle);
         } finally {
-            lock.unlock();
-            clearBatch();
+            executing = false;
         }
-        batchResultSet = rs;
-        return ret;
+        return batchResult.getExecuted();
+    }
+
+    /**
+     * Execute batch commands sending them without waiting for previous results.
+     * No command is sent after first error, but commands already sent when error is received have been executed by
+     * server : update counts are those of all executed commands, failed ones being EXECUTE_FAILED.
+     * @param ret update counts
+     * @param insertIds generated ids, if autoGeneratedKeys
+     * @param parameterTypeHeader parameters type header
+     * @return number of executed commands
+     * @throws SQLException if a command fails
+     */
+    private int executeBatchMultiSend(int[] ret, long[] insertIds, MariaDbType[] parameterTypeHeader) throws SQLException {
+        PreparedBatchResult batchResult = new PreparedBatchResult(queryParameters.size());
+        QueryException exception = null;
+        int counter = 0;
+        try {
+            try {
+                protocol.executePreparedBatch(sql, queryParameters, prepareResult, parameterTypeHeader, batchResult);
+            } catch (QueryException e) {
+                exception = e;
+            }
+            queryResult = null;
+            counter = batchResult.getExecuted();
+            for (int i = 0; i < counter; i++) {
+                AbstractQueryResult result = batchResult.getResult(i);
+                if (result == null) {
+                    ret[i] = EXECUTE_FAILED;
+                } else if (result.getResultSetType() == ResultSetType.MODIFY) {
+                    queryResult = result;
+                    ret[i] = (int) ((ModifyQueryResult) result).getUpdateCount();
+                    if (autoGeneratedKeys) {
+                        insertIds[i] = ((ModifyQueryResult) result).getInsertId();
+                    }
+                } else {
+                    result.close();
+                    ret[i] = SUCCESS_NO_INFO;
+                }
+            }
+            if (exception == null) {
+                exception = batchResult.getFirstException();
+            }
+            executeQueryEpilog(exception, sql);
+        } catch (SQLException sqle) {
+            throw new BatchUpdateException(sqle.getMessage(), sqle.getSQLState(), sqle.getErrorCode(),
+                    Arrays.copyOf(ret, counter), sqle);
+        } finally {
+            executing = false;
+        }
+        return counter;
     }
 
 
@@ -275,7 +442,14 @@ public class MariaDbServerPreparedStatement extends AbstractMariaDbPrepareStatem
         executeQueryProlog();
         try {
             batchResultSet = null;
-            queryResult = protocol.executePreparedQuery(sql, parameters, prepareResult, parameterTypeHeader, isStreaming());
+            if (queryResult instanceof CursorSelectResult) {
+                queryResult.close();
+            }
+            if (useCursor()) {
+                queryResult = protocol.executePreparedQueryWithCursor(sql, parameters, prepareResult, parameterTypeHeader, getFetchSize());
+            } else {
+                queryResult = protocol.executePreparedQuery(sql, parameters, prepareResult, parameterTypeHeader, isStreaming());
+            }
 
             // in case of failover
             if (queryResult.getFailureObject() != null) {
@@ -293,6 +467,19 @@ public class MariaDbServerPreparedStatement extends AbstractMariaDbPrepareStatem
     }
 
 
+    /**
+     * Indicate if statement must be executed with a server cursor, fetching rows by chunks of fetch size rows.
+     * Cursor result-set can only move forward, so scrollable statements never use a cursor.
+     * @return true if a positive fetch size is set on a TYPE_FORWARD_ONLY statement that return a result-set.
+     * @throws SQLException if statement is closed
+     */
+    private boolean useCursor() throws SQLException {
+        return protocol.getOptions().useCursorFetch
+                && resultSetScrollType == ResultSet.TYPE_FORWARD_ONLY
+                && getFetchSize() > 0
+                && prepareResult.getColumns().length > 0;
+    }
+
     /*
      Reset timeout after query, re-throw  SQL  exception
     */
@@ -51,6 +51,7 @@ package org.mariadb.jdbc.internal;
 
 public class MariaDbServerCapabilities {
     public static final int LONG_PASSWORD = 1;       /* new more secure passwords */
+    public static final int CLIENT_MYSQL = 1;        /* not set by MariaDB 10.2+ servers, that use extended capabilities */
     public static final int FOUND_ROWS = 2;       /* Found instead of affected rows */
     public static final int LONG_FLAG = 4;       /* Get all column flags */
     public static final int CONNECT_WITH_DB = 8;     /* One can specify db on connect */
@@ -70,4 +71,7 @@ public class MariaDbServerCapabilities {
     public static final int MULTI_RESULTS = 1 << 17;    /* Enable/disable multi-results */
     public static final int PLUGIN_AUTH = 1 << 19;      /* Client supports plugin authentication */
     public static final int PROGRESS = 1 << 29;         /* Client support progress indicator */
+
+    /* MariaDB extended capabilities (capabilities bits 32 to 63), exchanged only if CLIENT_MYSQL is not set */
+    public static final int MARIADB_CLIENT_STMT_BULK_OPERATIONS = 1 << 2; /* COM_STMT_BULK_EXECUTE support */
 }
\ No newline at end of file
@@ -273,6 +273,10 @@ public abstract class AbstractMastersListener implements Listener {
                     handleErrorResult.resultObject = method.invoke(currentProtocol, args);
                     handleErrorResult.mustThrowError = false;
                 }
+            } else if ("executePreparedBatch".equals(method.getName()) || "executeBulkPrepared".equals(method.getName())
+                    || "executePreparedQueryWithCursor".equals(method.getName())) {
+                //batch may have been partially executed, and cursor doesn't exist on new connection : not relaunched
+                return handleErrorResult;
             } else if ("executePreparedQuery".equals(method.getName())) {
                 //the statementId has been discarded with previous session
                 try {
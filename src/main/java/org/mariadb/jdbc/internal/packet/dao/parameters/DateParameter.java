@@ -52,12 +52,14 @@ OF SUCH DAMAGE.
 
 import org.mariadb.jdbc.internal.MariaDbType;
 import org.mariadb.jdbc.internal.util.Options;
+import org.mariadb.jdbc.internal.util.TimeZoneOffsetCache;
 import org.mariadb.jdbc.internal.stream.PacketOutputStream;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.sql.Date;
 import java.util.Calendar;
+import java.util.TimeZone;
 
 public class DateParameter extends NotLongDataParameterHolder {
     private Date date;
@@ -84,11 +86,7 @@ public class DateParameter extends NotLongDataParameterHolder {
      * @param os output buffer
      */
     public void writeTo(OutputStream os) throws IOException {
-        if (options.useLegacyDatetimeCode || options.maximizeMysqlCompatibility) {
-            calendar = Calendar.getInstance();
-        }
-        calendar.setTimeInMillis(date.getTime());
-        ParameterWriter.writeDate(os, calendar);
+        ParameterWriter.writeDate(os, date.getTime(), TimeZone.getDefault());
     }
 
     public long getApproximateTextProtocolLength() {
@@ -102,9 +100,7 @@ public class DateParameter extends NotLongDataParameterHolder {
      * @param writeBuffer output buffer
      */
     public void writeBinary(PacketOutputStream writeBuffer) {
-        calendar = Calendar.getInstance();
-        calendar.setTimeInMillis(date.getTime());
-        writeBuffer.writeDateLength(calendar);
+        writeBuffer.writeDateLength(TimeZoneOffsetCache.getInstance(TimeZone.getDefault()).getFields(date.getTime()));
     }
 
     public MariaDbType getMariaDbType() {
@@ -1,12 +1,15 @@
 package org.mariadb.jdbc.internal.packet.dao.parameters;
 
+import org.mariadb.jdbc.internal.stream.PacketOutputStream;
+import org.mariadb.jdbc.internal.util.TimeZoneOffsetCache;
+
 import java.io.*;
 import java.math.BigDecimal;
 import java.sql.Time;
 import java.sql.Timestamp;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.TimeZone;
 
 /**
  * Helper class for serializing query parameters.
@@ -18,6 +21,10 @@ public class ParameterWriter {
 
     private static void writeBytesEscaped(OutputStream out, byte[] bytes, int count, boolean noBackslashEscapes)
             throws IOException {
+        if (out instanceof PacketOutputStream) {
+            ((PacketOutputStream) out).writeEscaped(bytes, 0, count, noBackslashEscapes);
+            return;
+        }
         if (noBackslashEscapes) {
             for (int i = 0; i < count; i++) {
                 byte bit = bytes[i];
@@ -73,9 +80,13 @@ public class ParameterWriter {
      * @throws IOException if any error occur when writing to database
      */
     public static void write(OutputStream out, String value, boolean noBackslashEscapes) throws IOException {
-        byte[] bytes = value.getBytes("UTF-8");
         out.write(QUOTE);
-        writeBytesEscaped(out, bytes, noBackslashEscapes);
+        if (out instanceof PacketOutputStream) {
+            //encoded and escaped directly in packet buffer
+            ((PacketOutputStream) out).writeEscaped(value, noBackslashEscapes);
+        } else {
+            writeBytesEscaped(out, value.getBytes("UTF-8"), noBackslashEscapes);
+        }
         out.write(QUOTE);
     }
 
@@ -134,6 +145,11 @@ public class ParameterWriter {
      */
     public static void write(OutputStream out, java.io.Reader reader, boolean noBackslashEscapes) throws IOException {
         out.write(QUOTE);
+        if (out instanceof PacketOutputStream) {
+            ((PacketOutputStream) out).writeEscaped(reader, Long.MAX_VALUE, noBackslashEscapes);
+            out.write(QUOTE);
+            return;
+        }
         char[] buffer = new char[1024];
         int len;
         while ((len = reader.read(buffer)) >= 0) {
@@ -152,7 +168,11 @@ public class ParameterWriter {
     public static void write(OutputStream out, ArrayList<char[]> readArrays, boolean noBackslashEscapes) throws IOException {
         out.write(QUOTE);
         for (char[] charArray : readArrays) {
-            writeBytesEscaped(out, new String(charArray, 0, charArray.length).getBytes("UTF-8"), noBackslashEscapes);
+            if (out instanceof PacketOutputStream) {
+                ((PacketOutputStream) out).writeEscaped(charArray, 0, charArray.length, noBackslashEscapes);
+            } else {
+                writeBytesEscaped(out, new String(charArray, 0, charArray.length).getBytes("UTF-8"), noBackslashEscapes);
+            }
         }
         out.write(QUOTE);
     }
@@ -168,6 +188,11 @@ public class ParameterWriter {
     public static void write(OutputStream out, java.io.Reader reader, long length, boolean noBackslashEscapes)
             throws IOException {
         out.write(QUOTE);
+        if (out instanceof PacketOutputStream) {
+            ((PacketOutputStream) out).writeEscaped(reader, length, noBackslashEscapes);
+            out.write(QUOTE);
+            return;
+        }
         char[] buffer = new char[1024];
         long charsLeft = length;
         int len;
@@ -221,16 +246,66 @@ public class ParameterWriter {
 
 
     /**
-     * Write date in text format.
+     * Write value digits, left padded with zeros.
      * @param out database stream
-     * @param calendar session calendar
+     * @param value positive value
+     * @param minDigits minimum number of digits
+     * @throws IOException if any error occur when writing to database
+     */
+    static void writeDigits(OutputStream out, int value, int minDigits) throws IOException {
+        int digits = 1;
+        int factor = 1;
+        while (value / factor >= 10) {
+            factor *= 10;
+            digits++;
+        }
+        for (; digits < minDigits; digits++) {
+            out.write('0');
+        }
+        while (factor > 0) {
+            out.write('0' + (value / factor) % 10);
+            factor /= 10;
+        }
+    }
+
+    /**
+     * Write local date "yyyy-MM-dd".
+     * @param out database stream
+     * @param fields local fields, from TimeZoneOffsetCache.getFields
+     * @throws IOException if any error occur when writing to database
+     */
+    private static void writeLocalDate(OutputStream out, int[] fields) throws IOException {
+        writeDigits(out, fields[0], 4);
+        out.write('-');
+        writeDigits(out, fields[1], 2);
+        out.write('-');
+        writeDigits(out, fields[2], 2);
+    }
+
+    /**
+     * Write local time "HH:mm:ss".
+     * @param out database stream
+     * @param fields local fields, from TimeZoneOffsetCache.getFields
      * @throws IOException if any error occur when writing to database
      */
-    public static void writeDate(OutputStream out, Calendar calendar) throws IOException {
+    private static void writeLocalTime(OutputStream out, int[] fields) throws IOException {
+        writeDigits(out, fields[3], 2);
+        out.write(':');
+        writeDigits(out, fields[4], 2);
+        out.write(':');
+        writeDigits(out, fields[5], 2);
+    }
+
+    /**
+     * Write date in text format, directly from epoch milliseconds.
+     * @param out database stream
+     * @param epochMillis date epoch milliseconds
+     * @param timeZone time zone
+     * @throws IOException if any error occur when writing to database
+     */
+    public static void writeDate(OutputStream out, long epochMillis, TimeZone timeZone) throws IOException {
         out.write(QUOTE);
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-        String dateString = sdf.format(calendar.getTime());
-        out.write(dateString.getBytes());
+        writeLocalDate(out, TimeZoneOffsetCache.getInstance(timeZone).getFields(epochMillis));
         out.write(QUOTE);
     }
 
@@ -259,12 +334,11 @@ public class ParameterWriter {
     public static void writeTimestamp(OutputStream out, Timestamp ts, Calendar calendar, boolean writeFractionalSeconds)
             throws IOException {
         out.write(QUOTE);
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        if (calendar != null) {
-            sdf.setCalendar(calendar);
-        }
-        String dateString = sdf.format(ts);
-        out.write(dateString.getBytes());
+        int[] fields = TimeZoneOffsetCache.getInstance(calendar != null ? calendar.getTimeZone() : TimeZone.getDefault())
+                .getFields(ts.getTime());
+        writeLocalDate(out, fields);
+        out.write(' ');
+        writeLocalTime(out, fields);
         formatMicroseconds(out, ts.getNanos() / 1000, writeFractionalSeconds);
         out.write(QUOTE);
     }
@@ -280,15 +354,11 @@ public class ParameterWriter {
     public static void writeTime(OutputStream out, Time time, Calendar calendar, boolean writeFractionalSeconds)
             throws IOException {
         out.write(QUOTE);
-        SimpleDateFormat sdf = new SimpleDateFormat("HH:mm:ss");
-        if (calendar != null) {
-            sdf.setCalendar(calendar);
-        }
-        String dateString = sdf.format(time);
         if (time.getTime() < 0) {
-            dateString = "-" + dateString;
+            out.write('-');
         }
-        out.write(dateString.getBytes());
+        writeLocalTime(out, TimeZoneOffsetCache.getInstance(calendar != null ? calendar.getTimeZone() : TimeZone.getDefault())
+                .getFields(time.getTime()));
         int microseconds = (int) (time.getTime() % 1000) * 1000;
         formatMicroseconds(out, microseconds, writeFractionalSeconds);
         out.write(QUOTE);
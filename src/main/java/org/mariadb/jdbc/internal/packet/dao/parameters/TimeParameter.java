@@ -53,12 +53,14 @@ package org.mariadb.jdbc.internal.packet.dao.parameters;
 
 import org.mariadb.jdbc.internal.MariaDbType;
 import org.mariadb.jdbc.internal.util.Options;
+import org.mariadb.jdbc.internal.util.TimeZoneOffsetCache;
 import org.mariadb.jdbc.internal.stream.PacketOutputStream;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.sql.Time;
 import java.util.Calendar;
+import java.util.TimeZone;
 
 
 public class TimeParameter extends NotLongDataParameterHolder {
@@ -91,10 +93,7 @@ public class TimeParameter extends NotLongDataParameterHolder {
      * @param writeBuffer write buffer
      */
     public void writeBinary(PacketOutputStream writeBuffer) {
-        calendar = Calendar.getInstance();
-        calendar.setTime(time);
-        calendar.set(Calendar.DAY_OF_MONTH, 1);
-        writeBuffer.writeTimeLength(calendar, fractionalSeconds);
+        writeBuffer.writeTimeLength(TimeZoneOffsetCache.getInstance(TimeZone.getDefault()).getFields(time.getTime()), fractionalSeconds);
     }
 
     public MariaDbType getMariaDbType() {
@@ -50,6 +50,7 @@ OF SUCH DAMAGE.
 package org.mariadb.jdbc.internal.packet.dao.parameters;
 
 import org.mariadb.jdbc.internal.util.Options;
+import org.mariadb.jdbc.internal.util.TimeZoneOffsetCache;
 import org.mariadb.jdbc.internal.stream.PacketOutputStream;
 import org.mariadb.jdbc.internal.MariaDbType;
 
@@ -57,6 +58,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.sql.Timestamp;
 import java.util.Calendar;
+import java.util.TimeZone;
 
 
 public class TimestampParameter extends NotLongDataParameterHolder {
@@ -91,11 +93,9 @@ public class TimestampParameter extends NotLongDataParameterHolder {
      * @param writeBuffer buffer to write
      */
     public void writeBinary(PacketOutputStream writeBuffer) {
-        if (options.useLegacyDatetimeCode) {
-            calendar = Calendar.getInstance();
-        }
-        calendar.setTimeInMillis(ts.getTime());
-        writeBuffer.writeTimestampLength(calendar, ts, fractionalSeconds);
+        TimeZone timeZone = (options.useLegacyDatetimeCode || calendar == null) ? TimeZone.getDefault() : calendar.getTimeZone();
+        writeBuffer.writeTimestampLength(TimeZoneOffsetCache.getInstance(timeZone).getFields(ts.getTime()), ts.getNanos() / 1000,
+                fractionalSeconds);
     }
 
     public MariaDbType getMariaDbType() {
@@ -0,0 +1,310 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012 Monty Program Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+
+package org.mariadb.jdbc.internal.packet.read;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Input stream that read packets of a result set in a background task, while caller decode previous rows.
+ * Packets are kept in a bounded queue : reader task waits when queue is full.
+ * Reader task stops after the EOF or error packet that ends result set rows, following data being read directly from
+ * socket stream, since server send nothing more until next command.
+ * Packets are read in buffers of the fetcher pool, given back to pool when consumed.
+ * Reader task only keep a weak reference to this stream : if stream is abandoned without being closed, task stops and
+ * close socket stream.
+ */
+public class ReadAheadInputStream extends InputStream {
+    private static final int MAX_PACKET_LENGTH = 0xffffff;
+    private static final Object END = new Object();
+    private static final ExecutorService EXECUTOR = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+            new SynchronousQueue<Runnable>(), new ThreadFactory() {
+                // start from DefaultThread factory to get security groups and what not
+                private final ThreadFactory parentFactory = Executors.defaultThreadFactory();
+                private final AtomicInteger threadId = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread result = parentFactory.newThread(runnable);
+                    result.setName("mariaDb-read-ahead-" + threadId.incrementAndGet());
+                    result.setDaemon(true);
+                    return result;
+                }
+            });
+
+    private final InputStream source;
+    private final ArrayBlockingQueue<Object> queue;
+    private final ReadBufferPool bufferPool;
+    private final PacketReader packetReader;
+    private final Future<?> task;
+    private boolean ended;
+    private byte[] current;
+    private int currentLength;
+    private int position;
+
+    /**
+     * Start reading packets in background.
+     * @param source socket stream
+     * @param packets maximum number of packets read in advance
+     * @param bufferPool pool that provide packet buffers
+     */
+    public ReadAheadInputStream(InputStream source, int packets, ReadBufferPool bufferPool) {
+        this.source = source;
+        this.queue = new ArrayBlockingQueue<>(packets + 1);
+        this.bufferPool = bufferPool;
+        this.packetReader = new PacketReader(this);
+        this.task = EXECUTOR.submit(packetReader);
+    }
+
+    /**
+     * Background task. Task must not reference stream, so that an abandoned stream can be garbage collected.
+     */
+    private static class PacketReader implements Runnable {
+        private final InputStream source;
+        private final ArrayBlockingQueue<Object> queue;
+        private final ReadBufferPool bufferPool;
+        private final WeakReference<ReadAheadInputStream> owner;
+        private final byte[] header = new byte[4];
+        private volatile boolean closed;
+
+        PacketReader(ReadAheadInputStream owner) {
+            this.source = owner.source;
+            this.queue = owner.queue;
+            this.bufferPool = owner.bufferPool;
+            this.owner = new WeakReference<>(owner);
+        }
+
+        @Override
+        public void run() {
+            try {
+                boolean continuation = false;
+                for (;;) {
+                    readFully(header, 0, 4);
+                    int length = (header[0] & 0xff) + ((header[1] & 0xff) << 8) + ((header[2] & 0xff) << 16);
+                    byte[] packet = bufferPool.acquire(4 + length);
+                    System.arraycopy(header, 0, packet, 0, 4);
+                    readFully(packet, 4, length);
+                    boolean end = !continuation && length > 0
+                            && ((packet[4] == (byte) 0xfe && length < 9) || packet[4] == (byte) 0xff);
+                    continuation = (length == MAX_PACKET_LENGTH);
+                    if (!put(packet)) {
+                        bufferPool.release(packet);
+                        return;
+                    }
+                    if (end) {
+                        put(END);
+                        return;
+                    }
+                }
+            } catch (IOException e) {
+                put(e);
+            }
+        }
+
+        private void readFully(byte[] bytes, int off, int len) throws IOException {
+            int remaining = len;
+            while (remaining > 0) {
+                int count = source.read(bytes, off + len - remaining, remaining);
+                if (count < 0) {
+                    throw new EOFException("unexpected end of stream, read " + (len - remaining) + " bytes from " + len);
+                }
+                remaining -= count;
+            }
+        }
+
+        /**
+         * Put element in queue, waiting while queue is full.
+         * @param element packet, END or IOException
+         * @return false if stream has been closed or abandoned, and will not be read anymore
+         */
+        private boolean put(Object element) {
+            try {
+                while (!closed) {
+                    if (queue.offer(element, 100, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                    if (owner.get() == null) {
+                        //stream has been garbage collected without being closed : release socket
+                        closed = true;
+                        closeSource();
+                    }
+                }
+            } catch (InterruptedException e) {
+                //stream will not be read anymore
+            }
+            return false;
+        }
+
+        private void closeSource() {
+            try {
+                source.close();
+            } catch (IOException ioe) {
+                //eat exception
+            }
+        }
+    }
+
+    /**
+     * Take next read packet. Previous packet buffer is given back to pool.
+     * @return true if a packet is available, false if read-ahead has ended.
+     * @throws IOException if reader task had an IOException, or if interrupted
+     */
+    private boolean nextPacket() throws IOException {
+        releaseCurrent();
+        if (ended) {
+            return false;
+        }
+        Object element;
+        try {
+            element = queue.take();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("interrupted while waiting for packet");
+        }
+        if (element == END) {
+            ended = true;
+            return false;
+        }
+        if (element instanceof IOException) {
+            ended = true;
+            throw (IOException) element;
+        }
+        current = (byte[]) element;
+        currentLength = 4 + (current[0] & 0xff) + ((current[1] & 0xff) << 8) + ((current[2] & 0xff) << 16);
+        position = 0;
+        return true;
+    }
+
+    private void releaseCurrent() {
+        if (current != null) {
+            bufferPool.release(current);
+            current = null;
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if ((current == null || position == currentLength) && !nextPacket()) {
+            return source.read();
+        }
+        return current[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] bytes, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if ((current == null || position == currentLength) && !nextPacket()) {
+            return source.read(bytes, off, len);
+        }
+        int count = Math.min(len, currentLength - position);
+        System.arraycopy(current, position, bytes, off, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() throws IOException {
+        if (current != null && position < currentLength) {
+            return currentLength - position;
+        }
+        return ended ? source.available() : 0;
+    }
+
+    /**
+     * Wait for reader task end, when all read packets have been consumed.
+     * @return true if read-ahead has ended, following data being read from socket stream.
+     * @throws IOException if reader task had an IOException, or if interrupted
+     */
+    public boolean awaitEnd() throws IOException {
+        if (current != null && position < currentLength) {
+            return false;
+        }
+        return ended || !nextPacket();
+    }
+
+    public InputStream getSource() {
+        return source;
+    }
+
+    /**
+     * Stop reader task, close socket stream, and give back buffers of packets not consumed.
+     * @throws IOException if socket stream close fails
+     */
+    @Override
+    public void close() throws IOException {
+        packetReader.closed = true;
+        task.cancel(true);
+        try {
+            source.close();
+        } finally {
+            releaseCurrent();
+            Object element;
+            while ((element = queue.poll()) != null) {
+                if (element instanceof byte[]) {
+                    bufferPool.release((byte[]) element);
+                }
+            }
+        }
+    }
+}
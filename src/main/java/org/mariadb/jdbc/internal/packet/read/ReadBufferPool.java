@@ -0,0 +1,174 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012 Monty Program Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.packet.read;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of receive buffers, by power-of-two size classes, from 1KB to 16MB (maximum packet size).
+ * Total size of buffers kept in pool is bounded. A pool is used by one connection, or shared by all connections
+ * that have option "sharedReceiveBufferPool" set.
+ */
+public class ReadBufferPool {
+    private static final int MIN_SIZE_CLASS = 10;
+    private static final int MAX_SIZE_CLASS = 24;
+    private static ReadBufferPool sharedPool;
+
+    private final List<ArrayDeque<byte[]>> freeBuffers;
+    private final long maxPooledBytes;
+    private long pooledBytes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Create a pool.
+     * @param maxPooledBytes maximum total size of buffers kept in pool
+     */
+    public ReadBufferPool(long maxPooledBytes) {
+        this.maxPooledBytes = maxPooledBytes;
+        freeBuffers = new ArrayList<>(MAX_SIZE_CLASS - MIN_SIZE_CLASS + 1);
+        for (int i = MIN_SIZE_CLASS; i <= MAX_SIZE_CLASS; i++) {
+            freeBuffers.add(new ArrayDeque<byte[]>());
+        }
+    }
+
+    /**
+     * Get the pool shared by connections. Pool is created on first call, with size of the first connection using it.
+     * @param maxPooledBytes maximum total size of buffers kept in pool if pool must be created
+     * @return shared pool
+     */
+    public static synchronized ReadBufferPool getSharedPool(long maxPooledBytes) {
+        if (sharedPool == null) {
+            sharedPool = new ReadBufferPool(maxPooledBytes);
+        }
+        return sharedPool;
+    }
+
+    /**
+     * Get a buffer with at least length bytes.
+     * @param length needed length
+     * @return buffer
+     */
+    public byte[] acquire(int length) {
+        int sizeClass = sizeClass(length);
+        if (sizeClass > MAX_SIZE_CLASS) {
+            misses.incrementAndGet();
+            return new byte[length];
+        }
+        byte[] buffer = null;
+        if (maxPooledBytes > 0) {
+            synchronized (this) {
+                buffer = freeBuffers.get(sizeClass - MIN_SIZE_CLASS).pollFirst();
+                if (buffer != null) {
+                    pooledBytes -= buffer.length;
+                }
+            }
+        }
+        if (buffer != null) {
+            hits.incrementAndGet();
+            return buffer;
+        }
+        misses.incrementAndGet();
+        return new byte[1 << sizeClass];
+    }
+
+    /**
+     * Give back a buffer obtained from acquire(). Buffer is dropped if pool is full.
+     * @param buffer buffer
+     */
+    public void release(byte[] buffer) {
+        int sizeClass = sizeClass(buffer.length);
+        if (sizeClass > MAX_SIZE_CLASS || buffer.length != 1 << sizeClass) {
+            return;
+        }
+        synchronized (this) {
+            if (pooledBytes + buffer.length <= maxPooledBytes) {
+                freeBuffers.get(sizeClass - MIN_SIZE_CLASS).addFirst(buffer);
+                pooledBytes += buffer.length;
+            }
+        }
+    }
+
+    private static int sizeClass(int length) {
+        if (length <= 1 << MIN_SIZE_CLASS) {
+            return MIN_SIZE_CLASS;
+        }
+        return 32 - Integer.numberOfLeadingZeros(length - 1);
+    }
+
+    /**
+     * Number of buffers obtained from pool.
+     * @return hits count
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Number of buffers that had to be allocated, because pool had no buffer of this size class.
+     * @return misses count
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public synchronized long getPooledBytes() {
+        return pooledBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "ReadBufferPool{hits=" + hits.get() + ", misses=" + misses.get() + ", pooledBytes=" + getPooledBytes()
+                + ", maxPooledBytes=" + maxPooledBytes + "}";
+    }
+}
@@ -71,6 +71,7 @@ public class ReadInitialConnectPacket {
     //private final byte[] seed1;
     //private final byte[] seed2;
     private final int serverCapabilities;
+    private final int mariaDbExtendedCapabilities;
     private final byte serverLanguage;
     private final short serverStatus;
     private final byte[] seed;
@@ -98,7 +99,10 @@ public class ReadInitialConnectPacket {
         serverCapabilities = reader.readShort();
         serverLanguage = reader.readByte();
         serverStatus = reader.readShort();
-        reader.skipBytes(13);
+        //upper capabilities (2), auth plugin data length (1), filler (6)
+        reader.skipBytes(9);
+        int extendedCapabilities = reader.readInt();
+        mariaDbExtendedCapabilities = ((serverCapabilities & MariaDbServerCapabilities.CLIENT_MYSQL) == 0) ? extendedCapabilities : 0;
         final byte[] seed2 = reader.readRawBytes(12);
         seed = Utils.copyWithLength(seed1, seed1.length + seed2.length);
         System.arraycopy(seed2, 0, seed, seed1.length, seed2.length);
@@ -149,6 +153,10 @@ public class ReadInitialConnectPacket {
         return serverCapabilities;
     }
 
+    public int getMariaDbExtendedCapabilities() {
+        return mariaDbExtendedCapabilities;
+    }
+
     public byte getServerLanguage() {
         return serverLanguage;
     }
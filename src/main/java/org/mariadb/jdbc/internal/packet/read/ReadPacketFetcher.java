@@ -50,6 +50,9 @@ OF SUCH DAMAGE.
 
 package org.mariadb.jdbc.internal.packet.read;
 
+import org.mariadb.jdbc.internal.util.buffer.ReadUtil;
+import org.mariadb.jdbc.internal.util.buffer.Reader;
+
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -58,20 +61,96 @@ import java.nio.ByteOrder;
 
 public class ReadPacketFetcher {
     public static final int AVOID_CREATE_BUFFER_LENGTH = 1024;
-    private final InputStream inputStream;
+    public static final int DEFAULT_POOL_SIZE = 1024 * 1024;
+    private static final int MAX_PACKET_LENGTH = 0xffffff;
+    private InputStream inputStream;
+    private final ReadBufferPool bufferPool;
     private byte[] headerBuffer = new byte[4];
     private byte[] reusableBuffer = new byte[AVOID_CREATE_BUFFER_LENGTH];
+    private ByteBuffer reusableByteBuffer = ByteBuffer.wrap(reusableBuffer).order(ByteOrder.LITTLE_ENDIAN);
+    private byte[] pooledBuffer;
+    private ByteBuffer pooledByteBuffer;
 
     public ReadPacketFetcher(final InputStream is) {
+        this(is, new ReadBufferPool(DEFAULT_POOL_SIZE));
+    }
+
+    /**
+     * Constructor.
+     * @param is inputStream
+     * @param bufferPool pool that provide buffers for packets bigger than AVOID_CREATE_BUFFER_LENGTH, and for read-ahead packets
+     */
+    public ReadPacketFetcher(final InputStream is, ReadBufferPool bufferPool) {
         this.inputStream = is;
+        this.bufferPool = bufferPool;
+    }
+
+    public ReadBufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * Read next packets in a background task, until the end of current result set rows.
+     * @param packets maximum number of packets read in advance
+     * @throws IOException if previous read-ahead task had a connection error
+     */
+    public void startReadAhead(int packets) throws IOException {
+        if (inputStream instanceof ReadAheadInputStream) {
+            ReadAheadInputStream readAhead = (ReadAheadInputStream) inputStream;
+            if (!readAhead.awaitEnd()) {
+                //previous read-ahead packets not consumed
+                return;
+            }
+            inputStream = readAhead.getSource();
+        }
+        inputStream = new ReadAheadInputStream(inputStream, packets, bufferPool);
+    }
+
+    /**
+     * Get a buffer to read next packet. Previous pooled buffer is given back to pool, since reusable buffers are
+     * only valid until next read.
+     * @param length packet length
+     * @return buffer
+     */
+    private byte[] acquireBuffer(int length) {
+        if (pooledBuffer != null) {
+            bufferPool.release(pooledBuffer);
+            pooledBuffer = null;
+        }
+        if (length < AVOID_CREATE_BUFFER_LENGTH) {
+            return reusableBuffer;
+        }
+        pooledBuffer = bufferPool.acquire(length);
+        return pooledBuffer;
     }
 
+    private ByteBuffer wrap(byte[] rawBytes, int length) {
+        ByteBuffer byteBuffer;
+        if (rawBytes == reusableBuffer) {
+            byteBuffer = reusableByteBuffer;
+        } else {
+            if (pooledByteBuffer == null || pooledByteBuffer.array() != rawBytes) {
+                pooledByteBuffer = ByteBuffer.wrap(rawBytes).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            byteBuffer = pooledByteBuffer;
+        }
+        byteBuffer.clear();
+        byteBuffer.limit(length);
+        return byteBuffer;
+    }
+
+    /**
+     * Get next packet in a new buffer, for packets that are kept after next read, like column definitions.
+     * @return packet
+     * @throws IOException if connection errors occur.
+     */
     public RawPacket getRawPacket() throws IOException {
         return RawPacket.nextPacket(inputStream);
     }
 
     /**
      * Get buffer without stream sequence information.
+     * Packets are read in a reusable or pooled buffer, returned ByteBuffer is then valid until next read.
      *
      * @return ByteBuffer the bytebuffer
      * @throws IOException if any
@@ -90,24 +169,58 @@ public class ReadPacketFetcher {
 
         int length = (reusableBuffer[0] & 0xff) + ((reusableBuffer[1] & 0xff) << 8) + ((reusableBuffer[2] & 0xff) << 16);
 
-        byte[] rawBytes;
-        if (length < ReadPacketFetcher.AVOID_CREATE_BUFFER_LENGTH) {
-            rawBytes = reusableBuffer;
-        } else {
-            rawBytes = new byte[length];
-        }
+        byte[] rawBytes = acquireBuffer(length);
         remaining = length;
         off = 0;
-        do {
+        while (remaining > 0) {
             int count = inputStream.read(rawBytes, off, remaining);
             if (count <= 0) {
                 throw new EOFException("unexpected end of stream, read " + (length - remaining) + " bytes from " + length);
             }
             remaining -= count;
             off += count;
-        } while (remaining > 0);
+        }
+
+        return wrap(rawBytes, length);
+    }
+
+    /**
+     * Get next packet like getReusableBuffer, with following packets appended when packet has maximum length, so
+     * that returned buffer contain the whole row.
+     *
+     * @return ByteBuffer the bytebuffer
+     * @throws IOException if connection errors occur.
+     */
+    public ByteBuffer getReusableRowBuffer() throws IOException {
+        ByteBuffer buffer = getReusableBuffer();
+        if (buffer.limit() < MAX_PACKET_LENGTH) {
+            return buffer;
+        }
+        Reader reader = new Reader(buffer);
+        int length;
+        do {
+            int limit = reader.byteBuffer.limit();
+            appendPacket(reader);
+            length = reader.byteBuffer.limit() - limit;
+        } while (length == MAX_PACKET_LENGTH);
+        return reader.byteBuffer;
+    }
 
-        return ByteBuffer.wrap(rawBytes, 0, length).order(ByteOrder.LITTLE_ENDIAN);
+    /**
+     * Read next packet directly at the end of reader buffer, without intermediate packet allocation.
+     * Used to assemble datas that are split over many packets.
+     *
+     * @param reader reader which buffer will receive packet datas
+     * @throws IOException if connection errors occur.
+     */
+    public void appendPacket(Reader reader) throws IOException {
+        ReadUtil.readFully(inputStream, headerBuffer, 0, 4);
+        int length = (headerBuffer[0] & 0xff) + ((headerBuffer[1] & 0xff) << 8) + ((headerBuffer[2] & 0xff) << 16);
+        reader.ensureCapacity(length);
+        ByteBuffer buffer = reader.byteBuffer;
+        int limit = buffer.limit();
+        ReadUtil.readFully(inputStream, buffer.array(), buffer.arrayOffset() + limit, length);
+        buffer.limit(limit + length);
     }
 
     /**
@@ -129,18 +242,74 @@ public class ReadPacketFetcher {
         int length = (reusableBuffer[0] & 0xff) + ((reusableBuffer[1] & 0xff) << 8) + ((reusableBuffer[2] & 0xff) << 16);
 
         remaining = length;
-        do {
+        while (remaining > 0) {
             int count = inputStream.read(reusableBuffer, 0, Math.min(remaining, AVOID_CREATE_BUFFER_LENGTH));
             if (count <= 0) {
                 throw new EOFException("unexpected end of stream, read " + (length - remaining) + " bytes from " + length);
             }
             remaining -= count;
-        } while (remaining > 0);
+        }
     }
 
+    /**
+     * Skip result set row packets without reading their content, until EOF or error packet, that is returned.
+     * Only the first byte of each row packet is read, to identify packet type.
+     *
+     * @param maxBytes stop skipping when at least this number of bytes has been skipped
+     * @return EOF or error packet, valid until next read, or null if maxBytes has been reached before
+     * @throws IOException if connection errors occur.
+     */
+    public ByteBuffer skipRowPackets(long maxBytes) throws IOException {
+        long skipped = 0;
+        while (skipped < maxBytes) {
+            ReadUtil.readFully(inputStream, headerBuffer, 0, 4);
+            int length = (headerBuffer[0] & 0xff) + ((headerBuffer[1] & 0xff) << 8) + ((headerBuffer[2] & 0xff) << 16);
+            if (length == 0) {
+                continue;
+            }
+            ReadUtil.readFully(inputStream, reusableBuffer, 0, 1);
+            byte initialByte = reusableBuffer[0];
+            if ((initialByte == (byte) 0xfe && length < 9) || initialByte == (byte) 0xff) {
+                byte[] rawBytes = acquireBuffer(length);
+                rawBytes[0] = initialByte;
+                ReadUtil.readFully(inputStream, rawBytes, 1, length - 1);
+                return wrap(rawBytes, length);
+            }
+            skipFully(length - 1);
+            skipped += length;
+            //row bigger than a packet : following packets are row continuation
+            while (length == MAX_PACKET_LENGTH) {
+                ReadUtil.readFully(inputStream, headerBuffer, 0, 4);
+                length = (headerBuffer[0] & 0xff) + ((headerBuffer[1] & 0xff) << 8) + ((headerBuffer[2] & 0xff) << 16);
+                skipFully(length);
+                skipped += length;
+            }
+        }
+        return null;
+    }
+
+    private void skipFully(int length) throws IOException {
+        int remaining = length;
+        while (remaining > 0) {
+            int count = inputStream.read(reusableBuffer, 0, Math.min(remaining, AVOID_CREATE_BUFFER_LENGTH));
+            if (count <= 0) {
+                throw new EOFException("unexpected end of stream, read " + (length - remaining) + " bytes from " + length);
+            }
+            remaining -= count;
+        }
+    }
 
+    /**
+     * Get next packet, read in a reusable or pooled buffer. Packet is then valid until next read.
+     * @return packet
+     * @throws IOException if connection errors occur.
+     */
     public RawPacket getReusableRawPacket() throws IOException {
-        return RawPacket.nextPacket(inputStream, headerBuffer, reusableBuffer);
+        ReadUtil.readFully(inputStream, headerBuffer, 0, 4);
+        int length = (headerBuffer[0] & 0xff) + ((headerBuffer[1] & 0xff) << 8) + ((headerBuffer[2] & 0xff) << 16);
+        byte[] rawBytes = acquireBuffer(length);
+        ReadUtil.readFully(inputStream, rawBytes, 0, length);
+        return new RawPacket(wrap(rawBytes, length), headerBuffer[3]);
     }
 
     /**
@@ -154,7 +323,15 @@ public class ReadPacketFetcher {
         }
     }
 
+    /**
+     * Close stream, and give back pooled buffer.
+     * @throws IOException if connection errors occur
+     */
     public void close() throws IOException {
+        if (pooledBuffer != null) {
+            bufferPool.release(pooledBuffer);
+            pooledBuffer = null;
+        }
         inputStream.close();
     }
 }
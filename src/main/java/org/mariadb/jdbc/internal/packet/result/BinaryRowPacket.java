@@ -49,12 +49,10 @@ OF SUCH DAMAGE.
 
 package org.mariadb.jdbc.internal.packet.result;
 
-import org.mariadb.jdbc.internal.util.Options;
-import org.mariadb.jdbc.internal.queryresults.ValueObject;
+import org.mariadb.jdbc.internal.queryresults.RowView;
 import org.mariadb.jdbc.internal.packet.read.ReadPacketFetcher;
 import org.mariadb.jdbc.internal.util.buffer.Reader;
 import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
-import org.mariadb.jdbc.internal.queryresults.MariaDbValueObject;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -62,21 +60,23 @@ import java.nio.ByteBuffer;
 
 public class BinaryRowPacket implements RowPacket {
     private final ColumnInformation[] columnInformation;
-    private final Options options;
     private final int columnInformationLength;
+    private final Reader reader = new Reader(null);
 
     /**
      * Constructor.
      * @param columnInformation column information.
-     * @param options options
      * @param columnInformationLength number of columns
      */
-    public BinaryRowPacket(ColumnInformation[] columnInformation, Options options, int columnInformationLength) {
+    public BinaryRowPacket(ColumnInformation[] columnInformation, int columnInformationLength) {
         this.columnInformation = columnInformation;
-        this.options = options;
         this.columnInformationLength = columnInformationLength;
     }
 
+    public RowPacket duplicate() {
+        return new BinaryRowPacket(columnInformation, columnInformationLength);
+    }
+
     /**
      * Fetch stream to retrieve data. Data length is unknown.
      * @param reader reader
@@ -86,8 +86,11 @@ public class BinaryRowPacket implements RowPacket {
     public void appendPacketIfNeeded(Reader reader, ReadPacketFetcher packetFetcher) throws IOException {
         long encLength = reader.getSilentLengthEncodedBinary();
         long remaining = reader.getRemainingSize();
+        if (encLength > remaining) {
+            reader.reserve(encLength - remaining);
+        }
         while (encLength > remaining) {
-            reader.appendPacket(packetFetcher.getRawPacket());
+            packetFetcher.appendPacket(reader);
             encLength = reader.getSilentLengthEncodedBinary();
             remaining = reader.getRemainingSize();
         }
@@ -95,37 +98,36 @@ public class BinaryRowPacket implements RowPacket {
 
     /**
      * Fetch stream to retrieve data. Data length is known.
+     * Existing data are kept, since row values positions refer to them.
      * @param reader reader
      * @param packetFetcher packetFetcher
      * @param encLength data binary length
      * @throws IOException if a connection error occur
      */
     public void appendPacketIfNeeded(Reader reader, ReadPacketFetcher packetFetcher, long encLength) throws IOException {
-        long remaining = reader.getRemainingSize();
-        while (encLength > remaining) {
-            reader.appendPacket(packetFetcher.getRawPacket(), encLength);
-            encLength = reader.getSilentLengthEncodedBinary();
+        while (encLength > reader.getRemainingSize()) {
+            packetFetcher.appendPacket(reader);
         }
     }
 
     /**
      * Get next row data.
+     * Values are not copied : row keep position of each value in buffer.
      * @param packetFetcher packetFetcher
      * @param buffer current buffer
-     * @return read data
+     * @param row row to fill with values positions
      * @throws IOException if any connection error occur
      */
-    public ValueObject[] getRow(ReadPacketFetcher packetFetcher, ByteBuffer buffer) throws IOException {
-        ValueObject[] valueObjects = new ValueObject[columnInformationLength];
-        Reader reader = new Reader(buffer);
+    public void readRow(ReadPacketFetcher packetFetcher, ByteBuffer buffer, RowView row) throws IOException {
+        reader.reset(buffer);
         reader.skipByte(); //stream header
-        int nullCount = (columnInformationLength + 9) / 8;
-        byte[] nullBitsBuffer = reader.readRawBytes(nullCount);
+        int nullBitsPosition = reader.byteBuffer.position();
+        reader.skipBytes((columnInformationLength + 9) / 8);
 
         for (int i = 0; i < columnInformationLength; i++) {
-            if ((nullBitsBuffer[(i + 2) / 8] & (1 << ((i + 2) % 8))) > 0) {
+            if ((reader.byteBuffer.get(nullBitsPosition + (i + 2) / 8) & (1 << ((i + 2) % 8))) > 0) {
                 //field is null
-                valueObjects[i] = new MariaDbValueObject(null, columnInformation[i], true, options);
+                row.setNull(i);
             } else {
                 switch (columnInformation[i].getType()) {
                     case VARCHAR:
@@ -141,57 +143,63 @@ public class BinaryRowPacket implements RowPacket {
                     case GEOMETRY:
                     case OLDDECIMAL:
                     case DECIMAL:
+                    case TIME:
+                    case DATE:
+                    case DATETIME:
+                    case TIMESTAMP:
                         appendPacketIfNeeded(reader, packetFetcher);
-                        valueObjects[i] = new MariaDbValueObject(reader.getLengthEncodedBytes(), columnInformation[i], true, options);
+                        setLengthEncodedValue(row, i, reader);
                         break;
 
                     case BIGINT:
-                        appendPacketIfNeeded(reader, packetFetcher, 8);
-                        valueObjects[i] = new MariaDbValueObject(reader.getLengthEncodedBytesWithLength(8), columnInformation[i], true, options);
+                    case DOUBLE:
+                        setFixedLengthValue(row, i, reader, packetFetcher, 8);
                         break;
 
                     case INTEGER:
                     case MEDIUMINT:
-                        appendPacketIfNeeded(reader, packetFetcher, 4);
-                        valueObjects[i] = new MariaDbValueObject(reader.getLengthEncodedBytesWithLength(4), columnInformation[i], true, options);
+                    case FLOAT:
+                        setFixedLengthValue(row, i, reader, packetFetcher, 4);
                         break;
 
                     case SMALLINT:
                     case YEAR:
-                        appendPacketIfNeeded(reader, packetFetcher, 2);
-                        valueObjects[i] = new MariaDbValueObject(reader.getLengthEncodedBytesWithLength(2), columnInformation[i], true, options);
+                        setFixedLengthValue(row, i, reader, packetFetcher, 2);
                         break;
 
                     case TINYINT:
-                        appendPacketIfNeeded(reader, packetFetcher, 1);
-                        valueObjects[i] = new MariaDbValueObject(reader.getLengthEncodedBytesWithLength(1), columnInformation[i], true, options);
-                        break;
-
-                    case DOUBLE:
-                        appendPacketIfNeeded(reader, packetFetcher, 8);
-                        valueObjects[i] = new MariaDbValueObject(reader.getLengthEncodedBytesWithLength(8), columnInformation[i], true, options);
+                        setFixedLengthValue(row, i, reader, packetFetcher, 1);
                         break;
 
-                    case FLOAT:
-                        appendPacketIfNeeded(reader, packetFetcher, 4);
-                        valueObjects[i] = new MariaDbValueObject(reader.getLengthEncodedBytesWithLength(4), columnInformation[i], true, options);
-                        break;
-
-                    case TIME:
-                    case DATE:
-                    case DATETIME:
-                    case TIMESTAMP:
-                        appendPacketIfNeeded(reader, packetFetcher);
-                        valueObjects[i] = new MariaDbValueObject(reader.getLengthEncodedBytes(), columnInformation[i], true, options);
-                        break;
                     default:
                         appendPacketIfNeeded(reader, packetFetcher);
-                        valueObjects[i] = new MariaDbValueObject(null, columnInformation[i], true, options);
+                        row.setNull(i);
                         break;
                 }
             }
         }
-        return valueObjects;
+        row.setBuffer(reader.byteBuffer.array());
+    }
+
+    private void setLengthEncodedValue(RowView row, int index, Reader reader) {
+        if (reader.getRemainingSize() == 0) {
+            row.setValue(index, reader.byteBuffer.position(), 0);
+            return;
+        }
+        long encLength = reader.getLengthEncodedBinary();
+        if (encLength == -1) {
+            row.setNull(index);
+        } else {
+            row.setValue(index, reader.byteBuffer.position(), (int) encLength);
+            reader.skipBytes((int) encLength);
+        }
+    }
+
+    private void setFixedLengthValue(RowView row, int index, Reader reader, ReadPacketFetcher packetFetcher, int length)
+            throws IOException {
+        appendPacketIfNeeded(reader, packetFetcher, length);
+        row.setValue(index, reader.byteBuffer.position(), length);
+        reader.skipBytes(length);
     }
 
 }
\ No newline at end of file
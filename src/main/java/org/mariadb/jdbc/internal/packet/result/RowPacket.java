@@ -49,12 +49,19 @@ ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSI
 OF SUCH DAMAGE.
 */
 
-import org.mariadb.jdbc.internal.queryresults.ValueObject;
+import org.mariadb.jdbc.internal.queryresults.RowView;
 import org.mariadb.jdbc.internal.packet.read.ReadPacketFetcher;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
 
 public interface RowPacket {
-    ValueObject[] getRow(ReadPacketFetcher packetFetcher, ByteBuffer buffer) throws IOException;
+    void readRow(ReadPacketFetcher packetFetcher, ByteBuffer buffer, RowView row) throws IOException;
+
+    /**
+     * Create a decoder of same columns. Decoders reuse their reader for each row, so a decoder must not be shared
+     * between threads.
+     * @return new decoder
+     */
+    RowPacket duplicate();
 }
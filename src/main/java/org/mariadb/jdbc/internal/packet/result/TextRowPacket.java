@@ -49,59 +49,57 @@ OF SUCH DAMAGE.
 
 package org.mariadb.jdbc.internal.packet.result;
 
-import org.mariadb.jdbc.internal.util.Options;
-import org.mariadb.jdbc.internal.queryresults.ValueObject;
+import org.mariadb.jdbc.internal.queryresults.RowView;
 import org.mariadb.jdbc.internal.packet.read.ReadPacketFetcher;
 import org.mariadb.jdbc.internal.util.buffer.Reader;
-import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
-import org.mariadb.jdbc.internal.queryresults.MariaDbValueObject;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
 
 
 public class TextRowPacket implements RowPacket {
-    private final ColumnInformation[] columnInformation;
-    private final Options options;
     private final int columnInformationLength;
+    private final Reader reader = new Reader(null);
 
     /**
      * Constructor.
-     * @param columnInformation columns information's
-     * @param options session options
      * @param columnInformationLength number of column
      */
-    public TextRowPacket(ColumnInformation[] columnInformation, Options options, int columnInformationLength) {
+    public TextRowPacket(int columnInformationLength) {
         this.columnInformationLength = columnInformationLength;
-        this.columnInformation = columnInformation;
-        this.options = options;
+    }
+
+    public RowPacket duplicate() {
+        return new TextRowPacket(columnInformationLength);
     }
 
     /**
      * Read text row stream. (to fetch Resulset.next() datas)
+     * Values are not copied : row keep position of each value in buffer.
      * @param packetFetcher packetFetcher
      * @param buffer current buffer
-     * @return datas object
+     * @param row row to fill with values positions
      * @throws IOException if any connection error occur
      */
-    public ValueObject[] getRow(ReadPacketFetcher packetFetcher, ByteBuffer buffer) throws IOException {
-        ValueObject[] valueObjects = new ValueObject[columnInformationLength];
-        Reader reader = new Reader(buffer);
+    public void readRow(ReadPacketFetcher packetFetcher, ByteBuffer buffer, RowView row) throws IOException {
+        reader.reset(buffer);
         for (int i = 0; i < columnInformationLength; i++) {
             while (reader.byteBuffer.remaining() == 0) {
-                reader.appendPacket(packetFetcher.getRawPacket());
+                packetFetcher.appendPacket(reader);
             }
             long valueLen = reader.getLengthEncodedBinary();
             if (valueLen == -1) {
-                valueObjects[i] = new MariaDbValueObject(null, columnInformation[i], options);
+                row.setNull(i);
             } else {
+                reader.reserve(valueLen - reader.byteBuffer.remaining());
                 while (reader.byteBuffer.remaining() < valueLen) {
-                    reader.appendPacket(packetFetcher.getRawPacket());
+                    packetFetcher.appendPacket(reader);
                 }
-                valueObjects[i] = new MariaDbValueObject(reader.readRawBytes((int) valueLen), columnInformation[i], options);
+                row.setValue(i, reader.byteBuffer.position(), (int) valueLen);
+                reader.skipBytes((int) valueLen);
             }
         }
-        return valueObjects;
+        row.setBuffer(reader.byteBuffer.array());
     }
 
 }
\ No newline at end of file
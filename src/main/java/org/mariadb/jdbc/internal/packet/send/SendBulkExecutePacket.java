@@ -0,0 +1,180 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012 Monty Program Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.packet.send;
+
+import org.mariadb.jdbc.internal.MariaDbType;
+import org.mariadb.jdbc.internal.packet.dao.parameters.NotLongDataParameterHolder;
+import org.mariadb.jdbc.internal.packet.dao.parameters.NullParameter;
+import org.mariadb.jdbc.internal.packet.dao.parameters.ParameterHolder;
+import org.mariadb.jdbc.internal.stream.PacketOutputStream;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * COM_STMT_BULK_EXECUTE command (MariaDB 10.2.7+) : execute a prepared statement with many parameter rows.
+ *
+ * <pre>
+ * int&lt;1&gt; 0xfa
+ * int&lt;4&gt; statement id
+ * int&lt;2&gt; flags (SEND_TYPES_TO_SERVER)
+ * for each parameter : int&lt;2&gt; type
+ * for each row, for each parameter : int&lt;1&gt; indicator (0 : value follows, 1 : null), binary value
+ * </pre>
+ *
+ * Rows are added until command would exceed max_allowed_packet or a single packet, or a row has a parameter type
+ * different from previous rows. Server send one response for the whole command.
+ */
+public class SendBulkExecutePacket {
+    public static final byte COM_STMT_BULK_EXECUTE = (byte) 0xfa;
+    private static final short SEND_TYPES_TO_SERVER = 128;
+    private static final byte INDICATOR_NONE = 0;
+    private static final byte INDICATOR_NULL = 1;
+
+    private final int statementId;
+    private final int parameterCount;
+
+    public SendBulkExecutePacket(int statementId, int parameterCount) {
+        this.statementId = statementId;
+        this.parameterCount = parameterCount;
+    }
+
+    /**
+     * Send a bulk command with as many rows as possible, starting at offset.
+     * Parameters must not be long data.
+     * @param pos database socket
+     * @param parametersList parameters rows
+     * @param offset first row to send
+     * @return number of rows sent
+     * @throws IOException if a connection error occur
+     */
+    public int send(PacketOutputStream pos, List<ParameterHolder[]> parametersList, int offset) throws IOException {
+        pos.startPacket(0, true);
+        pos.assureBufferCapacity(7 + 2 * parameterCount);
+        pos.buffer.put(COM_STMT_BULK_EXECUTE);
+        pos.buffer.putInt(statementId);
+        pos.buffer.putShort(SEND_TYPES_TO_SERVER);
+
+        //types are written at the end, when known : first non null value type of each parameter.
+        int typePosition = pos.buffer.position();
+        pos.buffer.position(typePosition + 2 * parameterCount);
+        MariaDbType[] types = new MariaDbType[parameterCount];
+
+        int row = offset;
+        int size = parametersList.size();
+        while (row < size) {
+            ParameterHolder[] parameters = parametersList.get(row);
+            if (row > offset && (!compatibleTypes(types, parameters) || !pos.checkSinglePacketLength(maxLength(parameters)))) {
+                break;
+            }
+            for (int i = 0; i < parameterCount; i++) {
+                pos.assureBufferCapacity(1);
+                if (parameters[i] instanceof NullParameter) {
+                    pos.buffer.put(INDICATOR_NULL);
+                } else {
+                    if (types[i] == null) {
+                        types[i] = parameters[i].getMariaDbType();
+                    }
+                    pos.buffer.put(INDICATOR_NONE);
+                    ((NotLongDataParameterHolder) parameters[i]).writeBinary(pos);
+                }
+            }
+            row++;
+        }
+
+        int endPosition = pos.buffer.position();
+        pos.buffer.position(typePosition);
+        for (int i = 0; i < parameterCount; i++) {
+            pos.buffer.putShort((short) (types[i] == null ? MariaDbType.NULL : types[i]).getType());
+        }
+        pos.buffer.position(endPosition);
+        pos.finishPacket();
+        return row - offset;
+    }
+
+    private boolean compatibleTypes(MariaDbType[] types, ParameterHolder[] parameters) {
+        for (int i = 0; i < parameterCount; i++) {
+            if (types[i] != null && !(parameters[i] instanceof NullParameter) && types[i] != parameters[i].getMariaDbType()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Upper bound of row length : binary value is never bigger than text value plus a length encoded prefix.
+     * @param parameters row parameters
+     * @return maximum length
+     * @throws IOException if length cannot be computed
+     */
+    private long maxLength(ParameterHolder[] parameters) throws IOException {
+        long length = 0;
+        for (int i = 0; i < parameterCount; i++) {
+            length += 10 + parameters[i].getApproximateTextProtocolLength();
+        }
+        return length;
+    }
+
+    /**
+     * Indicate if rows can be sent using bulk command.
+     * @param parametersList parameters rows
+     * @return true if no parameter is long data.
+     */
+    public static boolean canSendBulk(List<ParameterHolder[]> parametersList) {
+        for (ParameterHolder[] parameters : parametersList) {
+            for (ParameterHolder parameter : parameters) {
+                if (parameter.isLongData()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
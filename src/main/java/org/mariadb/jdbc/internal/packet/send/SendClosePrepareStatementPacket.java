@@ -77,4 +77,16 @@ public class SendClosePrepareStatementPacket implements InterfaceSendPacket {
         pos.finishPacket();
         return 0;
     }
+
+    /**
+     * Queue close preparedStatement command, to be sent with next command, since server send no response.
+     * @param os database socket.
+     * @throws IOException if a connection error occur
+     */
+    public void sendDeferred(final OutputStream os) throws IOException {
+        byte[] payload = new byte[5];
+        payload[0] = 0x19;
+        System.arraycopy(ParameterWriter.writeLittleEndian(statementId), 0, payload, 1, 4);
+        ((PacketOutputStream) os).writeDeferredCommand(payload);
+    }
 }
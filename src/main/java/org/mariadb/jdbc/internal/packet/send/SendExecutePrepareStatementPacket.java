@@ -59,10 +59,13 @@ import java.io.IOException;
 import java.io.OutputStream;
 
 public class SendExecutePrepareStatementPacket implements InterfaceSendPacket {
+    public static final byte CURSOR_TYPE_NO_CURSOR = 0x00;
+    public static final byte CURSOR_TYPE_READ_ONLY = 0x01;
     private final int parameterCount;
     private final ParameterHolder[] parameters;
     private final int statementId;
     private MariaDbType[] parameterTypeHeader;
+    private final byte cursorType;
 
     /**
      * Initialize parameters.
@@ -73,10 +76,24 @@ public class SendExecutePrepareStatementPacket implements InterfaceSendPacket {
      */
     public SendExecutePrepareStatementPacket(final int statementId, final ParameterHolder[] parameters, final int parameterCount,
                                              MariaDbType[] parameterTypeHeader) {
+        this(statementId, parameters, parameterCount, parameterTypeHeader, CURSOR_TYPE_NO_CURSOR);
+    }
+
+    /**
+     * Initialize parameters.
+     * @param statementId prepareResult object received after preparation.
+     * @param parameters parameters
+     * @param parameterCount parameters number
+     * @param parameterTypeHeader parameters header
+     * @param cursorType CURSOR_TYPE_NO_CURSOR or CURSOR_TYPE_READ_ONLY
+     */
+    public SendExecutePrepareStatementPacket(final int statementId, final ParameterHolder[] parameters, final int parameterCount,
+                                             MariaDbType[] parameterTypeHeader, byte cursorType) {
         this.parameterCount = parameterCount;
         this.parameters = parameters;
         this.statementId = statementId;
         this.parameterTypeHeader = parameterTypeHeader;
+        this.cursorType = cursorType;
     }
 
     /**
@@ -90,7 +107,7 @@ public class SendExecutePrepareStatementPacket implements InterfaceSendPacket {
         buffer.startPacket(0, true);
         buffer.buffer.put((byte) 0x17);
         buffer.buffer.putInt(statementId);
-        buffer.buffer.put((byte) 0x00); //CURSOR TYPE NO CURSOR TODO implement when using cursor
+        buffer.buffer.put(cursorType);
         buffer.buffer.putInt(1); //Iteration count
 
         //create null bitmap
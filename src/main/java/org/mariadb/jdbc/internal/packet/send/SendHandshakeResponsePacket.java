@@ -85,6 +85,7 @@ public class SendHandshakeResponsePacket implements InterfaceSendPacket {
     private final String password;
     private final byte[] seed;
     private final int clientCapabilities;
+    private final int extendedCapabilities;
     private final byte serverLanguage;
     private final String database;
 
@@ -104,11 +105,33 @@ public class SendHandshakeResponsePacket implements InterfaceSendPacket {
                                        final int clientCapabilities,
                                        final byte serverLanguage,
                                        final byte[] seed, byte packetSeq) {
+        this(username, password, database, clientCapabilities, 0, serverLanguage, seed, packetSeq);
+    }
+
+    /**
+     * Initialisation of parameters.
+     * @param username username
+     * @param password user password
+     * @param database initial database connection
+     * @param clientCapabilities capabilities
+     * @param extendedCapabilities MariaDB extended capabilities, sent at the end of filler if CLIENT_MYSQL is not set
+     * @param serverLanguage serverlanguage
+     * @param seed seed
+     * @param packetSeq stream sequence
+     */
+    public SendHandshakeResponsePacket(final String username,
+                                       final String password,
+                                       final String database,
+                                       final int clientCapabilities,
+                                       final int extendedCapabilities,
+                                       final byte serverLanguage,
+                                       final byte[] seed, byte packetSeq) {
         this.packetSeq = packetSeq;
         this.username = username;
         this.password = password;
         this.seed = seed;
         this.clientCapabilities = clientCapabilities;
+        this.extendedCapabilities = extendedCapabilities;
         this.serverLanguage = serverLanguage;
         this.database = database;
     }
@@ -132,7 +155,8 @@ public class SendHandshakeResponsePacket implements InterfaceSendPacket {
         writeBuffer.writeInt(clientCapabilities)
                 .writeInt(1024 * 1024 * 1024)
                 .writeByte(serverLanguage) //1
-                .writeBytes((byte) 0, 23)    //23
+                .writeBytes((byte) 0, 19)    //19
+                .writeInt(extendedCapabilities) //4
                 .writeString(username)     //strlen username
                 .writeByte((byte) 0)        //1
                 .writeByte((byte) scrambledPassword.length)
@@ -64,6 +64,9 @@ import org.mariadb.jdbc.internal.util.*;
 import org.mariadb.jdbc.internal.util.buffer.ReadUtil;
 import org.mariadb.jdbc.internal.packet.read.RawPacket;
 import org.mariadb.jdbc.internal.packet.read.ReadInitialConnectPacket;
+import org.mariadb.jdbc.internal.packet.read.ReadBufferPool;
+import org.mariadb.jdbc.internal.socket.StreamTransport;
+import org.mariadb.jdbc.internal.socket.Transport;
 import org.mariadb.jdbc.internal.packet.read.ReadPacketFetcher;
 import org.mariadb.jdbc.internal.packet.read.ReadResultPacketFactory;
 import org.mariadb.jdbc.internal.query.MariaDbQuery;
@@ -79,6 +82,7 @@ import org.mariadb.jdbc.internal.packet.result.*;
 import org.mariadb.jdbc.internal.packet.send.SendClosePacket;
 import org.mariadb.jdbc.internal.packet.send.SendHandshakeResponsePacket;
 import org.mariadb.jdbc.internal.packet.send.SendSslConnectionRequestPacket;
+import org.mariadb.jdbc.internal.stream.CompressionPolicy;
 import org.mariadb.jdbc.internal.stream.DecompressInputStream;
 import org.mariadb.jdbc.internal.stream.PacketOutputStream;
 
@@ -89,7 +93,6 @@ import javax.net.ssl.SSLSocket;
 import javax.net.ssl.SSLSocketFactory;
 import javax.net.ssl.X509TrustManager;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.InetSocketAddress;
@@ -115,6 +118,7 @@ public abstract class AbstractConnectProtocol implements Protocol {
     protected final ReentrantLock lock;
     protected final UrlParser urlParser;
     protected Socket socket;
+    protected Transport transport;
     protected PacketOutputStream writer;
     protected boolean readOnly = false;
     protected ReadPacketFetcher packetFetcher;
@@ -125,6 +129,9 @@ public abstract class AbstractConnectProtocol implements Protocol {
     protected String database;
     protected long serverThreadId;
     protected PrepareStatementCache prepareStatementCache;
+    protected ReadBufferPool readBufferPool;
+    protected CompressionPolicy compressionPolicy;
+    protected int extendedCapabilities;
 
     public boolean moreResults = false;
     public boolean hasWarnings = false;
@@ -148,6 +155,11 @@ public abstract class AbstractConnectProtocol implements Protocol {
         if (urlParser.getOptions().cachePrepStmts) {
             prepareStatementCache = PrepareStatementCache.newInstance(urlParser.getOptions().prepStmtCacheSize, this);
         }
+        if (urlParser.getOptions().sharedReceiveBufferPool) {
+            readBufferPool = ReadBufferPool.getSharedPool(urlParser.getOptions().receiveBufferPoolSize);
+        } else {
+            readBufferPool = new ReadBufferPool(urlParser.getOptions().receiveBufferPoolSize);
+        }
         setDataTypeMappingFlags();
     }
 
@@ -324,7 +336,8 @@ public abstract class AbstractConnectProtocol implements Protocol {
      */
     private void connect(String host, int port) throws QueryException, IOException {
 
-        socket = Utils.createSocket(urlParser, host);
+        transport = Utils.createTransport(urlParser, host);
+        socket = transport.getSocket();
         initializeSocketOption();
 
         // Bind the socket to a particular interface if the connection property
@@ -351,8 +364,11 @@ public abstract class AbstractConnectProtocol implements Protocol {
         handleConnectionPhases();
 
         if (urlParser.getOptions().useCompression) {
+            compressionPolicy = new CompressionPolicy(urlParser.getOptions().adaptiveCompression);
             writer.setUseCompression(true);
-            packetFetcher = new ReadPacketFetcher(new DecompressInputStream(socket.getInputStream()));
+            writer.setCompressionOptions(urlParser.getOptions().compressionLevel, urlParser.getOptions().compressionThreshold);
+            writer.setCompressionPolicy(compressionPolicy);
+            packetFetcher = new ReadPacketFetcher(new DecompressInputStream(transport.getInputStream(), compressionPolicy), readBufferPool);
         }
         connected = true;
 
@@ -379,6 +395,22 @@ public abstract class AbstractConnectProtocol implements Protocol {
         return !this.connected;
     }
 
+    public ReadBufferPool readBufferPool() {
+        return readBufferPool;
+    }
+
+    public CompressionPolicy compressionPolicy() {
+        return compressionPolicy;
+    }
+
+    /**
+     * Indicate if server and client have agreed to use COM_STMT_BULK_EXECUTE.
+     * @return true if bulk operations can be used
+     */
+    public boolean supportsBulkOperations() {
+        return (extendedCapabilities & MariaDbServerCapabilities.MARIADB_CLIENT_STMT_BULK_OPERATIONS) != 0;
+    }
+
     private void setSessionOptions()  throws QueryException {
         // In JDBC, connection must start in autocommit mode.
         if ((serverStatus & ServerStatus.AUTOCOMMIT) == 0) {
@@ -392,15 +424,22 @@ public abstract class AbstractConnectProtocol implements Protocol {
     private void handleConnectionPhases() throws QueryException {
         InputStream reader = null;
         try {
-            reader = new BufferedInputStream(socket.getInputStream(), 32768);
-            packetFetcher = new ReadPacketFetcher(reader);
-            writer = new PacketOutputStream(socket.getOutputStream());
+            reader = transport.getInputStream();
+            packetFetcher = new ReadPacketFetcher(reader, readBufferPool);
+            writer = new PacketOutputStream(transport.getOutputStream());
 
             final ReadInitialConnectPacket greetingPacket = new ReadInitialConnectPacket(packetFetcher);
             this.serverThreadId = greetingPacket.getServerThreadId();
             this.version = greetingPacket.getServerVersion();
             parseVersion();
             int clientCapabilities = initializeClientCapabilities();
+            extendedCapabilities = 0;
+            if (urlParser.getOptions().useBulkStmts
+                    && (greetingPacket.getMariaDbExtendedCapabilities() & MariaDbServerCapabilities.MARIADB_CLIENT_STMT_BULK_OPERATIONS) != 0) {
+                //MariaDB server : extended capabilities are read only if CLIENT_MYSQL is not set
+                clientCapabilities &= ~MariaDbServerCapabilities.CLIENT_MYSQL;
+                extendedCapabilities = MariaDbServerCapabilities.MARIADB_CLIENT_STMT_BULK_OPERATIONS;
+            }
 
             byte packetSeq = 1;
             if (urlParser.getOptions().useSsl && (greetingPacket.getServerCapabilities() & MariaDbServerCapabilities.SSL) != 0) {
@@ -416,9 +455,10 @@ public abstract class AbstractConnectProtocol implements Protocol {
                 sslSocket.setUseClientMode(true);
                 sslSocket.startHandshake();
                 socket = sslSocket;
-                writer = new PacketOutputStream(socket.getOutputStream());
-                reader = new BufferedInputStream(socket.getInputStream(), 32768);
-                packetFetcher = new ReadPacketFetcher(reader);
+                transport = new StreamTransport(sslSocket);
+                writer = new PacketOutputStream(transport.getOutputStream());
+                reader = transport.getInputStream();
+                packetFetcher = new ReadPacketFetcher(reader, readBufferPool);
 
                 packetSeq++;
             } else if (urlParser.getOptions().useSsl) {
@@ -445,6 +485,7 @@ public abstract class AbstractConnectProtocol implements Protocol {
                 this.password,
                 database,
                 clientCapabilities,
+                extendedCapabilities,
                 decideLanguage(serverLanguage),
                 seed,
                 packetSeq);
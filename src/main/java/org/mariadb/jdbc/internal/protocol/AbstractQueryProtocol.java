@@ -30,6 +30,10 @@ import java.net.URL;
 import java.nio.ByteBuffer;
 import java.sql.Connection;
 import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 /*
@@ -83,6 +87,19 @@ OF SUCH DAMAGE.
 
 public class AbstractQueryProtocol extends AbstractConnectProtocol implements Protocol {
 
+    /**
+     * Maximum length of batch commands sent without having read their results. Kept smaller than socket buffers, so
+     * that sending never blocks while server is waiting for results to be read.
+     */
+    private static final int MAX_BATCH_IN_FLIGHT_LENGTH = 16 * 1024;
+
+    /**
+     * Delay after which queued COM_STMT_CLOSE are sent if connection stay idle.
+     */
+    private static final long DEFERRED_COMMANDS_IDLE_DELAY = 100;
+
+    private volatile ScheduledFuture<?> deferredCommandsFlush;
+
     private int transactionIsolationLevel = 0;
     private InputStream localInfileInputStream;
     private int maxRows;  /* max rows returned by a statement */
@@ -247,11 +264,17 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
      * @return a CachedSelectResult
      * @throws java.io.IOException when something goes wrong while reading/writing from the server
      */
-    private SelectQueryResult createQueryResult(final ResultSetPacket packet, boolean streaming, boolean binaryProtocol)
-            throws IOException, QueryException {
+    private SelectQueryResult createQueryResult(final ResultSetPacket packet, boolean streaming, boolean binaryProtocol,
+                                                PrepareResult cursorStatement, int fetchSize) throws IOException, QueryException {
+        if (cursorStatement != null) {
+            return CursorSelectResult.createCursorSelectResult(packet, packetFetcher, this, cursorStatement, fetchSize);
+        }
 
         StreamingSelectResult streamingResult = StreamingSelectResult.createStreamingSelectResult(packet, packetFetcher, this, binaryProtocol);
         if (streaming) {
+            if (urlParser.getOptions().readAheadPackets > 0) {
+                packetFetcher.startReadAhead(urlParser.getOptions().readAheadPackets);
+            }
             return streamingResult;
         }
 
@@ -396,6 +419,11 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
 
     @Override
     public AbstractQueryResult getResult(Object queriesObj, boolean streaming, boolean binaryProtocol) throws QueryException {
+        return getResult(queriesObj, streaming, binaryProtocol, null, 0);
+    }
+
+    private AbstractQueryResult getResult(Object queriesObj, boolean streaming, boolean binaryProtocol, PrepareResult cursorStatement,
+                                          int fetchSize) throws QueryException {
         RawPacket rawPacket = null;
         AbstractResultPacket resultPacket;
         try {
@@ -478,7 +506,7 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
                 this.hasWarnings = false;
                 ResultSetPacket resultSetPacket = (ResultSetPacket) resultPacket;
                 try {
-                    return this.createQueryResult(resultSetPacket, streaming, binaryProtocol);
+                    return this.createQueryResult(resultSetPacket, streaming, binaryProtocol, cursorStatement, fetchSize);
                 } catch (IOException e) {
 
                     throw new QueryException("Could not read result set: " + e.getMessage(),
@@ -550,6 +578,251 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
                                                     MariaDbType[] parameterTypeHeader, boolean isStreaming) throws QueryException {
         checkClose();
         this.moreResults = false;
+        closeActiveCursor(prepareResult);
+        sendExecutePrepared(parameters, prepareResult, parameterTypeHeader, SendExecutePrepareStatementPacket.CURSOR_TYPE_NO_CURSOR);
+        try {
+            return getResult(sql, isStreaming, true);
+        } catch (QueryException qex) {
+            if (qex.getCause() instanceof SocketTimeoutException) {
+                throw new QueryException("Connection timed out", -1, ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), qex);
+            } else {
+                throw qex;
+            }
+        }
+    }
+
+    /**
+     * Execute a server prepared statement with a read-only cursor. If server opens a cursor, rows are then fetched by
+     * chunks of fetchSize rows when result is read.
+     *
+     * @param sql sql query
+     * @param parameters parameters
+     * @param prepareResult prepare result
+     * @param parameterTypeHeader parameters type header
+     * @param fetchSize number of rows fetched by each COM_STMT_FETCH command
+     * @return query result
+     * @throws QueryException if query fails
+     */
+    @Override
+    public AbstractQueryResult executePreparedQueryWithCursor(String sql, ParameterHolder[] parameters, PrepareResult prepareResult,
+                                                              MariaDbType[] parameterTypeHeader, int fetchSize) throws QueryException {
+        checkClose();
+        this.moreResults = false;
+        closeActiveCursor(prepareResult);
+        sendExecutePrepared(parameters, prepareResult, parameterTypeHeader, SendExecutePrepareStatementPacket.CURSOR_TYPE_READ_ONLY);
+        try {
+            return getResult(sql, false, true, prepareResult, fetchSize);
+        } catch (QueryException qex) {
+            if (qex.getCause() instanceof SocketTimeoutException) {
+                throw new QueryException("Connection timed out", -1, ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), qex);
+            } else {
+                throw qex;
+            }
+        }
+    }
+
+    /**
+     * Fetch rows of a cursor. Connection may have been used by other commands since previous fetch.
+     * @param cursor cursor result that will read rows
+     * @param rows maximum number of rows to fetch
+     * @throws QueryException if a connection error occur or if server return an error
+     */
+    public void fetchCursorRows(CursorSelectResult cursor, int rows) throws QueryException {
+        lock.lock();
+        try {
+            checkClose();
+            closeIfActiveResult();
+            new SendFetchCursorPacket(cursor.getStatementId(), rows).send(writer);
+            cursor.readRows(packetFetcher);
+        } catch (IOException e) {
+            throw new QueryException("Could not fetch rows: " + e.getMessage(), -1,
+                    ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Close a statement server cursor, using COM_STMT_RESET.
+     * @param prepareResult statement
+     * @throws QueryException if a connection error occur
+     */
+    public void closeCursor(PrepareResult prepareResult) throws QueryException {
+        lock.lock();
+        try {
+            if (!isConnected()) {
+                return;
+            }
+            closeIfActiveResult();
+            new SendResetPrepareStatementPacket(prepareResult.getStatementId()).send(writer);
+            getResult(null, false, true);
+        } catch (IOException e) {
+            throw new QueryException("Could not close cursor: " + e.getMessage(), -1,
+                    ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Server closes a statement cursor when statement is executed again : if another result still use this cursor,
+     * cursor is closed before, rather than buffering all its remaining rows.
+     * @param prepareResult statement that will be executed
+     * @throws QueryException if a connection error occur
+     */
+    private void closeActiveCursor(PrepareResult prepareResult) throws QueryException {
+        CursorSelectResult cursor = prepareResult.getActiveCursor();
+        if (cursor != null) {
+            cursor.abortCursor();
+        }
+    }
+
+    /**
+     * Execute a server prepared statement batch, sending execute commands without waiting for previous results.
+     * At most useBatchMultiSendNumber commands and MAX_BATCH_IN_FLIGHT_LENGTH bytes are sent without having read their
+     * results, so that socket buffers can always hold them, even if server is blocked sending a result.
+     * Commands with long data parameters are sent only when all previous results have been read.
+     * Batch stops at first error returned by server : no other command is sent, but commands already sent are executed
+     * by server, so their results or errors are read and kept in batchResult like those of preceding commands.
+     *
+     * @param sql sql query
+     * @param parametersList parameters of each command
+     * @param prepareResult prepare result
+     * @param parameterTypeHeader parameters type header
+     * @param batchResult results and errors of executed commands
+     * @throws QueryException if a connection error occur
+     */
+    @Override
+    public void executePreparedBatch(String sql, List<ParameterHolder[]> parametersList, PrepareResult prepareResult,
+                                     MariaDbType[] parameterTypeHeader, PreparedBatchResult batchResult) throws QueryException {
+        checkClose();
+        this.moreResults = false;
+        closeActiveCursor(prepareResult);
+        int size = parametersList.size();
+        int window = urlParser.getOptions().useBatchMultiSendNumber;
+        int[] commandLengths = new int[size];
+        int sent = 0;
+        int read = 0;
+        int inFlightLength = 0;
+        while (read < sent || (sent < size && batchResult.getFirstException() == null)) {
+            while (sent < size && sent - read < window && batchResult.getFirstException() == null) {
+                ParameterHolder[] parameters = parametersList.get(sent);
+                boolean longData = hasLongData(parameters);
+                //previous command length is used as estimation of next command length
+                if (sent > read && (longData || inFlightLength + writer.getLastCommandLength() > MAX_BATCH_IN_FLIGHT_LENGTH)) {
+                    break;
+                }
+                try {
+                    sendExecutePrepared(parameters, prepareResult, parameterTypeHeader, SendExecutePrepareStatementPacket.CURSOR_TYPE_NO_CURSOR);
+                    commandLengths[sent] = writer.getLastCommandLength();
+                    inFlightLength += commandLengths[sent];
+                } catch (QueryException e) {
+                    if (sent > read || longData || !(e.getCause() instanceof MaxAllowedPacketException)
+                            || ((MaxAllowedPacketException) e.getCause()).isMustReconnect()) {
+                        //connection error, connection has been reset, or long data are left on server for this statement
+                        throw e;
+                    }
+                    //no packet of command too big has been sent : no result to read, connection can still be used
+                    batchResult.addException(e);
+                    read++;
+                }
+                sent++;
+                if (longData) {
+                    break;
+                }
+            }
+            if (read < sent) {
+                try {
+                    AbstractQueryResult result = getResult(sql, false, true);
+                    while (moreResults) {
+                        getResult(sql, false, true);
+                    }
+                    batchResult.addResult(result);
+                } catch (QueryException qex) {
+                    if (qex.getCause() instanceof IOException) {
+                        if (qex.getCause() instanceof SocketTimeoutException) {
+                            throw new QueryException("Connection timed out", -1,
+                                    ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), qex);
+                        }
+                        throw qex;
+                    }
+                    batchResult.addException(qex);
+                }
+                inFlightLength -= commandLengths[read];
+                read++;
+            }
+        }
+    }
+
+    /**
+     * Execute a server prepared statement batch using COM_STMT_BULK_EXECUTE commands : rows are sent in as few commands
+     * as max_allowed_packet permit, server sending one response by command.
+     * Each row of a successful command receive the command result. Batch stops at first command error, the error being
+     * set for each row of this command.
+     *
+     * @param sql sql query
+     * @param parametersList parameters of each row. Parameters must not be long data.
+     * @param prepareResult prepare result
+     * @param batchResult results and errors of executed rows
+     * @throws QueryException if a connection error occur
+     */
+    @Override
+    public void executeBulkPrepared(String sql, List<ParameterHolder[]> parametersList, PrepareResult prepareResult,
+                                    PreparedBatchResult batchResult) throws QueryException {
+        checkClose();
+        this.moreResults = false;
+        closeActiveCursor(prepareResult);
+        int size = parametersList.size();
+        SendBulkExecutePacket packet = new SendBulkExecutePacket(prepareResult.getStatementId(), prepareResult.getParameters().length);
+        while (batchResult.getExecuted() < size) {
+            int rows;
+            try {
+                rows = packet.send(writer, parametersList, batchResult.getExecuted());
+            } catch (MaxAllowedPacketException e) {
+                if (e.isMustReconnect()) {
+                    connect();
+                }
+                throw new QueryException("Could not send query: " + e.getMessage(), -1,
+                        ExceptionMapper.SqlStates.INTERRUPTED_EXCEPTION.getSqlState(), e);
+            } catch (IOException e) {
+                throw new QueryException("Could not send query: " + e.getMessage(), -1,
+                        ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), e);
+            }
+            try {
+                AbstractQueryResult result = getResult(sql, false, true);
+                while (moreResults) {
+                    getResult(sql, false, true);
+                }
+                for (int i = 0; i < rows; i++) {
+                    batchResult.addResult(result);
+                }
+            } catch (QueryException qex) {
+                if (qex.getCause() instanceof IOException) {
+                    if (qex.getCause() instanceof SocketTimeoutException) {
+                        throw new QueryException("Connection timed out", -1,
+                                ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), qex);
+                    }
+                    throw qex;
+                }
+                for (int i = 0; i < rows; i++) {
+                    batchResult.addException(qex);
+                }
+                return;
+            }
+        }
+    }
+
+    private static boolean hasLongData(ParameterHolder[] parameters) {
+        for (ParameterHolder parameter : parameters) {
+            if (parameter.isLongData()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void sendExecutePrepared(ParameterHolder[] parameters, PrepareResult prepareResult, MariaDbType[] parameterTypeHeader,
+                                     byte cursorType) throws QueryException {
         try {
             int parameterCount = parameters.length;
             //send binary data in a separate stream
@@ -560,7 +833,7 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
             }
             //send execute query
             SendExecutePrepareStatementPacket packet = new SendExecutePrepareStatementPacket(prepareResult.getStatementId(), parameters,
-                    parameterCount, parameterTypeHeader);
+                    parameterCount, parameterTypeHeader, cursorType);
             packet.send(writer);
 
         } catch (MaxAllowedPacketException e) {
@@ -573,16 +846,6 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
             throw new QueryException("Could not send query: " + e.getMessage(), -1,
                     ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), e);
         }
-
-        try {
-            return getResult(sql, isStreaming, true);
-        } catch (QueryException qex) {
-            if (qex.getCause() instanceof SocketTimeoutException) {
-                throw new QueryException("Connection timed out", -1, ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), qex);
-            } else {
-                throw qex;
-            }
-        }
     }
 
     /**
@@ -606,6 +869,8 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
      * Force release of prepare statement that are not used.
      * This method will be call when adding a new preparestatement in cache, so the packet can be send to server without
      * problem.
+     * Since server doesn't answer to COM_STMT_CLOSE, command is queued and sent in the same socket write as next
+     * command.
      *
      * @param statementId prepared statement Id to remove.
      * @throws QueryException if connection exception.
@@ -616,16 +881,69 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
             checkClose();
             final SendClosePrepareStatementPacket packet = new SendClosePrepareStatementPacket(statementId);
             try {
-                packet.send(writer);
+                packet.sendDeferred(writer);
             } catch (IOException e) {
                 throw new QueryException("Could not send query: " + e.getMessage(), -1,
                         ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), e);
             }
+            if (writer.getDeferredCommands() > 0 && deferredCommandsFlush == null) {
+                scheduleDeferredCommandsFlush();
+            }
         } finally {
             lock.unlock();
         }
     }
 
+    private void scheduleDeferredCommandsFlush() {
+        deferredCommandsFlush = DeferredCommandsScheduler.SCHEDULER.schedule(new Runnable() {
+            @Override
+            public void run() {
+                flushDeferredCommandsIfIdle();
+            }
+        }, DEFERRED_COMMANDS_IDLE_DELAY, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Send queued COM_STMT_CLOSE if no command has been sent since they have been queued.
+     * If connection is in use, flush is retried later, since current command may not be followed by another one.
+     */
+    private void flushDeferredCommandsIfIdle() {
+        if (!connected) {
+            deferredCommandsFlush = null;
+            return;
+        }
+        if (lock.tryLock()) {
+            try {
+                deferredCommandsFlush = null;
+                if (connected) {
+                    writer.flushDeferredCommands();
+                }
+            } catch (IOException e) {
+                //connection error will be thrown by next command
+            } finally {
+                lock.unlock();
+            }
+        } else {
+            scheduleDeferredCommandsFlush();
+        }
+    }
+
+    private static class DeferredCommandsScheduler {
+        private static final ScheduledThreadPoolExecutor SCHEDULER = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "mariaDb-deferred-commands");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        static {
+            SCHEDULER.setKeepAliveTime(10, TimeUnit.SECONDS);
+            SCHEDULER.allowCoreThreadTimeOut(true);
+        }
+    }
+
     /**
      * Cancels the current query - clones the current protocol and executes a query using the new connection.
      *
@@ -55,8 +55,11 @@ import org.mariadb.jdbc.internal.MariaDbType;
 import org.mariadb.jdbc.internal.failover.FailoverProxy;
 import org.mariadb.jdbc.internal.util.Options;
 import org.mariadb.jdbc.internal.util.PrepareStatementCache;
+import org.mariadb.jdbc.internal.packet.read.ReadBufferPool;
+import org.mariadb.jdbc.internal.stream.CompressionPolicy;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 import org.mariadb.jdbc.internal.queryresults.AbstractQueryResult;
+import org.mariadb.jdbc.internal.queryresults.PreparedBatchResult;
 import org.mariadb.jdbc.internal.query.Query;
 import org.mariadb.jdbc.internal.packet.dao.parameters.ParameterHolder;
 import org.mariadb.jdbc.internal.util.dao.PrepareResult;
@@ -185,6 +188,17 @@ public interface Protocol {
     AbstractQueryResult executePreparedQuery(String sql, ParameterHolder[] parameters, PrepareResult prepareResult, MariaDbType[] parameterTypeHeader,
                                              boolean isStreaming) throws QueryException;
 
+    AbstractQueryResult executePreparedQueryWithCursor(String sql, ParameterHolder[] parameters, PrepareResult prepareResult,
+                                                       MariaDbType[] parameterTypeHeader, int fetchSize) throws QueryException;
+
+    void executePreparedBatch(String sql, List<ParameterHolder[]> parametersList, PrepareResult prepareResult,
+                              MariaDbType[] parameterTypeHeader, PreparedBatchResult batchResult) throws QueryException;
+
+    void executeBulkPrepared(String sql, List<ParameterHolder[]> parametersList, PrepareResult prepareResult,
+                             PreparedBatchResult batchResult) throws QueryException;
+
+    boolean supportsBulkOperations();
+
     void releasePrepareStatement(String sql, PrepareResult prepareResult) throws QueryException;
 
     void forceReleasePrepareStatement(int statementId) throws QueryException;
@@ -194,6 +208,10 @@ public interface Protocol {
 
     PrepareStatementCache prepareStatementCache();
 
+    ReadBufferPool readBufferPool();
+
+    CompressionPolicy compressionPolicy();
+
 
     String getServerData(String code);
 
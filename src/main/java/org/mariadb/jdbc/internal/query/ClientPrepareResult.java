@@ -0,0 +1,136 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012 Monty Program Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.query;
+
+import java.nio.charset.Charset;
+import java.util.List;
+
+import static org.mariadb.jdbc.internal.util.Utils.createQueryParts;
+
+/**
+ * Immutable result of client side query parsing : query parts encoded in UTF-8, and parts used for
+ * batch rewrite.
+ * Since it is immutable, a result can be shared by every statement having the same query (see
+ * {@link ClientPrepareResultCache}).
+ */
+public final class ClientPrepareResult {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final byte[] EMPTY = new byte[0];
+
+    private final byte[][] queryParts;
+    private final byte[] rewriteFirstPart;
+    private final byte[] rewriteRepeatLastPart;
+    private final byte[] rewriteNotRepeatLastPart;
+    private final int paramCount;
+
+    private ClientPrepareResult(byte[][] queryParts, byte[] rewriteFirstPart, byte[] rewriteRepeatLastPart,
+                                byte[] rewriteNotRepeatLastPart) {
+        this.queryParts = queryParts;
+        this.rewriteFirstPart = rewriteFirstPart;
+        this.rewriteRepeatLastPart = rewriteRepeatLastPart;
+        this.rewriteNotRepeatLastPart = rewriteNotRepeatLastPart;
+        this.paramCount = queryParts.length - 1;
+    }
+
+    /**
+     * Parse query.
+     * @param query query string
+     * @param noBackslashEscapes must backSlash be escaped
+     * @param rewriteOffset first common part index, -1 if query cannot be rewritten
+     * @return parse result
+     */
+    public static ClientPrepareResult parse(String query, boolean noBackslashEscapes, int rewriteOffset) {
+        List<String> parts = createQueryParts(query, noBackslashEscapes);
+        byte[] rewriteFirstPart = null;
+        byte[] rewriteRepeatLastPart = null;
+        byte[] rewriteNotRepeatLastPart = null;
+        if (rewriteOffset != -1) {
+            rewriteFirstPart = parts.get(0).substring(rewriteOffset + 1).getBytes(UTF_8);
+            String lastPart = parts.get(parts.size() - 1);
+            int endIndex = lastPart.indexOf(")");
+            if (endIndex != -1) {
+                rewriteRepeatLastPart = lastPart.substring(0, endIndex).getBytes(UTF_8);
+                rewriteNotRepeatLastPart = lastPart.substring(endIndex + 1).getBytes(UTF_8);
+            } else {
+                rewriteRepeatLastPart = lastPart.getBytes(UTF_8);
+                rewriteNotRepeatLastPart = EMPTY;
+            }
+        }
+        byte[][] queryParts = new byte[parts.size()][];
+        for (int i = 0; i < queryParts.length; i++) {
+            queryParts[i] = parts.get(i).getBytes(UTF_8);
+        }
+        return new ClientPrepareResult(queryParts, rewriteFirstPart, rewriteRepeatLastPart, rewriteNotRepeatLastPart);
+    }
+
+    /**
+     * Query parts, split at each parameter placeholder. Array must not be modified.
+     * @return query parts
+     */
+    public byte[][] getQueryParts() {
+        return queryParts;
+    }
+
+    public byte[] getRewriteFirstPart() {
+        return rewriteFirstPart;
+    }
+
+    public byte[] getRewriteRepeatLastPart() {
+        return rewriteRepeatLastPart;
+    }
+
+    public byte[] getRewriteNotRepeatLastPart() {
+        return rewriteNotRepeatLastPart;
+    }
+
+    public int getParamCount() {
+        return paramCount;
+    }
+}
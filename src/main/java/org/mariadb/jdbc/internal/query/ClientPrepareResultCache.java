@@ -0,0 +1,234 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012 Monty Program Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.query;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Driver-wide cache of client side parse results, shared by all connections.
+ *
+ * <p>Entries are kept in LRU order in segments locked independently, so that concurrent statement creation on
+ * different queries rarely contend. Results are immutable, so a cached result can be used by many statements
+ * at the same time.</p>
+ *
+ * <p>Cache size and maximum cached query length are set by options "clientPrepStmtCacheSize" and
+ * "clientPrepStmtCacheSqlLimit" of the first connection using the cache.</p>
+ */
+public final class ClientPrepareResultCache {
+    public static final int DEFAULT_MAX_SIZE = 2048;
+    public static final int DEFAULT_MAX_QUERY_LENGTH = 16 * 1024;
+
+    private static final int SEGMENTS = 16;
+    private static ClientPrepareResultCache instance;
+
+    private final Segment[] segments;
+    private final int maxQueryLength;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Create a cache.
+     * @param maxSize maximum number of cached results
+     * @param maxQueryLength queries longer than this are not cached : they are usually generated (multi-values
+     *                       insert, IN lists) and rarely reused, and would use cache memory.
+     */
+    public ClientPrepareResultCache(int maxSize, int maxQueryLength) {
+        this.maxQueryLength = maxQueryLength;
+        int segmentSize = Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+        segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    /**
+     * Get the cache shared by connections. Cache is created on first call, with settings of the first connection using it.
+     * @param maxSize maximum number of cached results if cache must be created
+     * @param maxQueryLength maximum length of cached queries if cache must be created
+     * @return shared cache
+     */
+    public static synchronized ClientPrepareResultCache getInstance(int maxSize, int maxQueryLength) {
+        if (instance == null) {
+            instance = new ClientPrepareResultCache(maxSize, maxQueryLength);
+        }
+        return instance;
+    }
+
+    /**
+     * Get parse result of a query, parsing it only if not already cached.
+     * @param query query string
+     * @param noBackslashEscapes must backSlash be escaped
+     * @param rewriteOffset first common part index, -1 if query cannot be rewritten
+     * @return parse result
+     */
+    public ClientPrepareResult get(String query, boolean noBackslashEscapes, int rewriteOffset) {
+        if (query.length() > maxQueryLength) {
+            misses.incrementAndGet();
+            return ClientPrepareResult.parse(query, noBackslashEscapes, rewriteOffset);
+        }
+        Key key = new Key(query, noBackslashEscapes, rewriteOffset);
+        Segment segment = segments[(key.hash ^ (key.hash >>> 16)) & (SEGMENTS - 1)];
+        ClientPrepareResult result;
+        synchronized (segment) {
+            result = segment.get(key);
+        }
+        if (result != null) {
+            hits.incrementAndGet();
+            return result;
+        }
+        misses.incrementAndGet();
+        //parsing is done outside lock. If two threads parse the same query, results are identical.
+        result = ClientPrepareResult.parse(query, noBackslashEscapes, rewriteOffset);
+        synchronized (segment) {
+            segment.put(key, result);
+        }
+        return result;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Ratio of queries whose parse result was found in cache.
+     * @return hit rate between 0 and 1, 0 if cache has not been used.
+     */
+    public double getHitRate() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Current number of cached results.
+     * @return size
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Remove all cached results and reset statistics.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+        hits.set(0);
+        misses.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "ClientPrepareResultCache[size=" + size() + ", hits=" + hits.get() + ", misses=" + misses.get() + "]";
+    }
+
+    private static final class Segment extends LinkedHashMap<Key, ClientPrepareResult> {
+        private static final long serialVersionUID = -8086960647545186216L;
+
+        private final int maxSize;
+
+        Segment(int maxSize) {
+            super(16, .75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, ClientPrepareResult> eldest) {
+            return size() > maxSize;
+        }
+    }
+
+    private static final class Key {
+        private final String query;
+        private final boolean noBackslashEscapes;
+        private final int rewriteOffset;
+        private final int hash;
+
+        Key(String query, boolean noBackslashEscapes, int rewriteOffset) {
+            this.query = query;
+            this.noBackslashEscapes = noBackslashEscapes;
+            this.rewriteOffset = rewriteOffset;
+            this.hash = (query.hashCode() * 31 + rewriteOffset) * 2 + (noBackslashEscapes ? 1 : 0);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hash == other.hash && noBackslashEscapes == other.noBackslashEscapes
+                    && rewriteOffset == other.rewriteOffset && query.equals(other.query);
+        }
+    }
+}
@@ -54,11 +54,7 @@ import org.mariadb.jdbc.internal.packet.dao.parameters.ParameterHolder;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.UnsupportedEncodingException;
 import java.sql.SQLException;
-import java.util.List;
-
-import static org.mariadb.jdbc.internal.util.Utils.createQueryParts;
 
 /**
  * Client Parameterize query implementation.
@@ -128,27 +124,20 @@ public class MariaDbClientParameterizeQuery implements ParameterizeQuery {
      * @param rewriteOffset first common part index
      */
     public MariaDbClientParameterizeQuery(String query, boolean noBackslashEscapes, int rewriteOffset) {
-        try {
-            List<String> queryParts = createQueryParts(query, noBackslashEscapes);
-            if (rewriteOffset != -1) {
-                rewriteFirstPart = queryParts.get(0).substring(rewriteOffset + 1).getBytes("UTF-8");
-                String lastPart = queryParts.get(queryParts.size() - 1);
-                if (lastPart.indexOf(")") != -1) {
-                    rewriteRepeatLastPart = lastPart.substring(0, lastPart.indexOf(")")).getBytes("UTF-8");
-                    rewriteNotRepeatLastPart = lastPart.substring(lastPart.indexOf(")") + 1).getBytes("UTF-8");
-                } else {
-                    rewriteRepeatLastPart = lastPart.getBytes("UTF-8");
-                    rewriteNotRepeatLastPart = new byte[0];
-                }
-            }
-            queryPartsArray = new byte[queryParts.size()][];
-            for (int i = 0; i < queryParts.size(); i++) {
-                queryPartsArray[i] = queryParts.get(i).getBytes("UTF-8");
-            }
-            paramCount = queryParts.size() - 1;
-            parameters = new ParameterHolder[paramCount];
-        } catch (UnsupportedEncodingException u) {
-        }
+        this(ClientPrepareResult.parse(query, noBackslashEscapes, rewriteOffset));
+    }
+
+    /**
+     * Constructor using an already parsed query.
+     * @param prepareResult parse result, possibly shared with other queries
+     */
+    public MariaDbClientParameterizeQuery(ClientPrepareResult prepareResult) {
+        queryPartsArray = prepareResult.getQueryParts();
+        rewriteFirstPart = prepareResult.getRewriteFirstPart();
+        rewriteRepeatLastPart = prepareResult.getRewriteRepeatLastPart();
+        rewriteNotRepeatLastPart = prepareResult.getRewriteNotRepeatLastPart();
+        paramCount = prepareResult.getParamCount();
+        parameters = new ParameterHolder[paramCount];
     }
 
     private MariaDbClientParameterizeQuery() {
@@ -0,0 +1,526 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012 Monty Program Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.queryresults;
+
+import org.mariadb.jdbc.internal.packet.result.RowPacket;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Columnar storage of cached result set rows.
+ * Values are stored in byte arena pages, and each column has primitive offset and length arrays indexed by row number,
+ * so there is no object per row nor per value. All values of a row are in the same page, that is indexed by row
+ * number too : result set size is not limited by maximum array size.
+ * When a maximum memory size is set, rows that doesn't fit in memory are written in a temporary file readable only by
+ * current user, each value preceded by its length, only file position of each row being kept in memory. File is
+ * memory-mapped when rows are read, so rows keep random access.
+ * Rows can also be added as raw row packets copied in arena and decoded afterward, possibly concurrently, values then
+ * pointing directly to the packet copy.
+ */
+public class ArenaRowStore {
+    private static final int INITIAL_ROW_CAPACITY = 10;
+    private static final int INITIAL_ARENA_CAPACITY = 1024;
+    private static final int ARENA_PAGE_SIZE = 1024 * 1024;
+    private static final int SPILL_WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final long SPILL_SEGMENT_SIZE = 256 * 1024 * 1024;
+
+    private final int columnCount;
+    private final int maxMemorySize;
+    private final List<byte[]> pages = new ArrayList<>();
+    private byte[] page;
+    private int pageSize;
+    private long arenaSize;
+    private int[] rowPages;
+    private int[][] offsets;
+    private int[][] lengths;
+    private int rowCount;
+    private int[] rawOffsets;
+    private int[] rawLengths;
+
+    //spilled rows : only file position of each row is kept
+    private int firstSpilledRow = -1;
+    private long[] spilledRowPositions;
+    private Path spillFile;
+    private FileChannel spillChannel;
+    private ByteBuffer spillWriteBuffer;
+    private long spillSize;
+    private MappedByteBuffer[] spillSegments;
+
+    /**
+     * Constructor.
+     * @param columnCount number of columns
+     */
+    public ArenaRowStore(int columnCount) {
+        this(columnCount, 0);
+    }
+
+    /**
+     * Constructor.
+     * @param columnCount number of columns
+     * @param maxMemorySize maximum size of arena and value positions, following rows being written in a temporary file.
+     *                      0 for no limit.
+     */
+    public ArenaRowStore(int columnCount, int maxMemorySize) {
+        this.columnCount = columnCount;
+        this.maxMemorySize = maxMemorySize;
+        this.page = new byte[(maxMemorySize > 0) ? Math.min(INITIAL_ARENA_CAPACITY, maxMemorySize) : INITIAL_ARENA_CAPACITY];
+        this.pages.add(page);
+        this.rowPages = new int[INITIAL_ROW_CAPACITY];
+        this.offsets = new int[columnCount][INITIAL_ROW_CAPACITY];
+        this.lengths = new int[columnCount][INITIAL_ROW_CAPACITY];
+    }
+
+    /**
+     * Copy row values in store.
+     * @param row row, that can then be reused
+     * @throws IOException if row cannot be written in temporary file
+     */
+    public void add(RowView row) throws IOException {
+        if (maxMemorySize > 0 && (firstSpilledRow != -1 || memorySize() + rowLength(row) > maxMemorySize)) {
+            addSpilled(row);
+            return;
+        }
+        ensureRowCapacity();
+        long valuesLength = 0;
+        for (int i = 0; i < columnCount; i++) {
+            valuesLength += Math.max(0, row.getLength(i));
+        }
+        ensureArenaCapacity(valuesLength);
+        byte[] buffer = row.getBuffer();
+        for (int i = 0; i < columnCount; i++) {
+            int length = row.getLength(i);
+            if (length == -1) {
+                lengths[i][rowCount] = -1;
+            } else {
+                System.arraycopy(buffer, row.getOffset(i), page, pageSize, length);
+                offsets[i][rowCount] = pageSize;
+                lengths[i][rowCount] = length;
+                pageSize += length;
+            }
+        }
+        arenaSize += valuesLength;
+        rowCount++;
+    }
+
+    /**
+     * Copy row values in store.
+     * @param values values (each value as in MySQL text protocol), null element for NULL value
+     */
+    public void add(byte[][] values) {
+        ensureRowCapacity();
+        long valuesLength = 0;
+        for (int i = 0; i < columnCount; i++) {
+            valuesLength += (values[i] == null) ? 0 : values[i].length;
+        }
+        ensureArenaCapacity(valuesLength);
+        for (int i = 0; i < columnCount; i++) {
+            if (values[i] == null) {
+                lengths[i][rowCount] = -1;
+            } else {
+                System.arraycopy(values[i], 0, page, pageSize, values[i].length);
+                offsets[i][rowCount] = pageSize;
+                lengths[i][rowCount] = values[i].length;
+                pageSize += values[i].length;
+            }
+        }
+        arenaSize += valuesLength;
+        rowCount++;
+    }
+
+    /**
+     * Copy a raw row packet in arena. Row values are not set until decodeRawRows() is called for this row.
+     * @param packet whole row packet
+     */
+    public void addRaw(ByteBuffer packet) {
+        ensureRowCapacity();
+        if (rawOffsets == null) {
+            rawOffsets = new int[INITIAL_ROW_CAPACITY];
+            rawLengths = new int[INITIAL_ROW_CAPACITY];
+        }
+        if (rowCount >= rawOffsets.length) {
+            int newCapacity = Math.max(rowCount + 1, rawOffsets.length + (rawOffsets.length >> 1));
+            rawOffsets = Arrays.copyOf(rawOffsets, newCapacity);
+            rawLengths = Arrays.copyOf(rawLengths, newCapacity);
+        }
+        int length = packet.remaining();
+        ensureArenaCapacity(length);
+        packet.get(page, pageSize, length);
+        rawOffsets[rowCount] = pageSize;
+        rawLengths[rowCount] = length;
+        pageSize += length;
+        arenaSize += length;
+        rowCount++;
+    }
+
+    /**
+     * Decode raw rows, setting values position in arena.
+     * Distinct ranges of rows can be decoded concurrently, once all rows have been added.
+     * @param rowPacket row decoder
+     * @param from first row index (inclusive)
+     * @param to last row index (exclusive)
+     * @throws IOException if a row packet is malformed
+     */
+    public void decodeRawRows(RowPacket rowPacket, int from, int to) throws IOException {
+        RowView row = new RowView(columnCount);
+        for (int rowIndex = from; rowIndex < to; rowIndex++) {
+            //packet is complete : decoder won't need to read following packets
+            rowPacket.readRow(null, ByteBuffer.wrap(getArena(rowIndex), rawOffsets[rowIndex], rawLengths[rowIndex]), row);
+            for (int i = 0; i < columnCount; i++) {
+                offsets[i][rowIndex] = row.getOffset(i);
+                lengths[i][rowIndex] = row.getLength(i);
+            }
+        }
+    }
+
+    /**
+     * Release raw rows positions, when all raw rows have been decoded.
+     */
+    public void releaseRawRows() {
+        rawOffsets = null;
+        rawLengths = null;
+    }
+
+    /**
+     * Memory used by in-memory rows : values in arena, and position and length of each value.
+     * @return memory size in bytes
+     */
+    private long memorySize() {
+        return arenaSize + (long) rowCount * columnCount * 8;
+    }
+
+    private long rowLength(RowView row) {
+        long length = (long) columnCount * 8;
+        for (int i = 0; i < columnCount; i++) {
+            length += Math.max(0, row.getLength(i));
+        }
+        return length;
+    }
+
+    private void addSpilled(RowView row) throws IOException {
+        if (firstSpilledRow == -1) {
+            openSpillFile();
+            spilledRowPositions = new long[INITIAL_ROW_CAPACITY];
+            firstSpilledRow = rowCount;
+        }
+        int spilledIndex = rowCount - firstSpilledRow;
+        if (spilledIndex == spilledRowPositions.length) {
+            spilledRowPositions = Arrays.copyOf(spilledRowPositions, spilledIndex + (spilledIndex >> 1));
+        }
+        spilledRowPositions[spilledIndex] = spillSize;
+        byte[] buffer = row.getBuffer();
+        for (int i = 0; i < columnCount; i++) {
+            int length = row.getLength(i);
+            if (spillWriteBuffer.remaining() < 4) {
+                flushSpillBuffer();
+            }
+            spillWriteBuffer.putInt(length);
+            spillSize += 4;
+            if (length > 0) {
+                spillWrite(buffer, row.getOffset(i), length);
+            }
+        }
+        rowCount++;
+        //file has grown : will be mapped again on next read
+        spillSegments = null;
+    }
+
+    /**
+     * Create temporary file, readable and writable only by current user.
+     * @throws IOException if file cannot be created
+     */
+    private void openSpillFile() throws IOException {
+        Path file;
+        try {
+            file = Files.createTempFile("mariadb-resultset", ".tmp",
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } catch (UnsupportedOperationException e) {
+            //not a POSIX file system : file is created in user temporary directory
+            file = Files.createTempFile("mariadb-resultset", ".tmp");
+        }
+        try {
+            spillChannel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        spillFile = file;
+        spillWriteBuffer = ByteBuffer.allocate(SPILL_WRITE_BUFFER_SIZE);
+    }
+
+    private void spillWrite(byte[] buffer, int offset, int length) throws IOException {
+        if (length > spillWriteBuffer.remaining()) {
+            flushSpillBuffer();
+            if (length > spillWriteBuffer.capacity()) {
+                ByteBuffer value = ByteBuffer.wrap(buffer, offset, length);
+                while (value.hasRemaining()) {
+                    spillChannel.write(value, spillSize + value.position() - offset);
+                }
+                spillSize += length;
+                return;
+            }
+        }
+        spillWriteBuffer.put(buffer, offset, length);
+        spillSize += length;
+    }
+
+    private void flushSpillBuffer() throws IOException {
+        spillWriteBuffer.flip();
+        long position = spillSize - spillWriteBuffer.remaining();
+        while (spillWriteBuffer.hasRemaining()) {
+            position += spillChannel.write(spillWriteBuffer, position);
+        }
+        spillWriteBuffer.clear();
+    }
+
+    /**
+     * Indicate if row values are in temporary file, and must be read with readSpilledValue.
+     * @param row row index, starts at 0
+     * @return true if row has been written in temporary file
+     */
+    public boolean isSpilled(int row) {
+        return firstSpilledRow != -1 && row >= firstSpilledRow;
+    }
+
+    /**
+     * Read value of a row written in temporary file.
+     * Each value is preceded by its length in file : previous values of row are skipped.
+     * @param row row index, starts at 0
+     * @param column column index, starts at 0
+     * @return value bytes, or null if value is NULL
+     * @throws IOException if temporary file cannot be read
+     */
+    public byte[] readSpilledValue(int row, int column) throws IOException {
+        if (spillSegments == null) {
+            mapSpillFile();
+        }
+        long position = spilledRowPositions[row - firstSpilledRow];
+        byte[] lengthBytes = new byte[4];
+        for (int i = 0; i < column; i++) {
+            readSpilled(position, lengthBytes, 4);
+            position += 4 + Math.max(0, ByteBuffer.wrap(lengthBytes).getInt());
+        }
+        readSpilled(position, lengthBytes, 4);
+        int length = ByteBuffer.wrap(lengthBytes).getInt();
+        if (length == -1) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        readSpilled(position + 4, value, length);
+        return value;
+    }
+
+    private void readSpilled(long position, byte[] bytes, int length) {
+        int copied = 0;
+        while (copied < length) {
+            int segmentIndex = (int) (position / SPILL_SEGMENT_SIZE);
+            ByteBuffer segment = spillSegments[segmentIndex].duplicate();
+            segment.position((int) (position % SPILL_SEGMENT_SIZE));
+            int count = Math.min(length - copied, segment.remaining());
+            segment.get(bytes, copied, count);
+            copied += count;
+            position += count;
+        }
+    }
+
+    private void mapSpillFile() throws IOException {
+        if (spillChannel == null) {
+            throw new IOException("Result set temporary file is closed");
+        }
+        if (spillWriteBuffer.position() > 0) {
+            flushSpillBuffer();
+        }
+        MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((spillSize + SPILL_SEGMENT_SIZE - 1) / SPILL_SEGMENT_SIZE)];
+        for (int i = 0; i < segments.length; i++) {
+            long start = i * SPILL_SEGMENT_SIZE;
+            segments[i] = spillChannel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SPILL_SEGMENT_SIZE, spillSize - start));
+        }
+        spillSegments = segments;
+    }
+
+    /**
+     * Remove all rows, keeping allocated memory for next rows.
+     */
+    public void clear() {
+        close();
+        releaseRawRows();
+        //current page is kept
+        pages.clear();
+        pages.add(page);
+        pageSize = 0;
+        rowCount = 0;
+        arenaSize = 0;
+    }
+
+    /**
+     * Release temporary file, if any : mapped segments are dropped, channel closed and file deleted.
+     */
+    public void close() {
+        //mapping are released when segments are garbage collected, file content being then unreachable
+        spillSegments = null;
+        if (spillChannel != null) {
+            try {
+                spillChannel.close();
+            } catch (IOException e) {
+                //eat exception
+            }
+            spillChannel = null;
+        }
+        if (spillFile != null) {
+            try {
+                Files.deleteIfExists(spillFile);
+            } catch (IOException e) {
+                //still mapped on some platforms
+                spillFile.toFile().deleteOnExit();
+            }
+            spillFile = null;
+        }
+        spillWriteBuffer = null;
+        spilledRowPositions = null;
+        spillSize = 0;
+        firstSpilledRow = -1;
+    }
+
+    private void ensureRowCapacity() {
+        if (rowCount == rowPages.length) {
+            int newCapacity = rowPages.length + (rowPages.length >> 1);
+            rowPages = Arrays.copyOf(rowPages, newCapacity);
+            for (int i = 0; i < columnCount; i++) {
+                offsets[i] = Arrays.copyOf(offsets[i], newCapacity);
+                lengths[i] = Arrays.copyOf(lengths[i], newCapacity);
+            }
+        }
+    }
+
+    /**
+     * Ensure that current page can receive values of next row, growing current page up to page size, or starting a
+     * new page. Set page of next row.
+     * @param length length of next row values
+     */
+    private void ensureArenaCapacity(long length) {
+        long needed = pageSize + length;
+        if (needed > page.length) {
+            //row values come from one buffer, so always fit in an array
+            int maxPageSize = (maxMemorySize > 0) ? Math.min(ARENA_PAGE_SIZE, maxMemorySize) : ARENA_PAGE_SIZE;
+            if (needed <= maxPageSize) {
+                //current page is grown : offsets of its values stay valid
+                page = Arrays.copyOf(page, (int) Math.max(needed, Math.min(maxPageSize, page.length + (page.length >> 1))));
+                pages.set(pages.size() - 1, page);
+            } else {
+                page = new byte[(int) Math.max(length, maxPageSize)];
+                pages.add(page);
+                pageSize = 0;
+            }
+        }
+        rowPages[rowCount] = pages.size() - 1;
+    }
+
+    /**
+     * Allocated arena size.
+     * @return sum of pages length
+     */
+    long getArenaCapacity() {
+        long capacity = 0;
+        for (byte[] arenaPage : pages) {
+            capacity += arenaPage.length;
+        }
+        return capacity;
+    }
+
+    Path getSpillFile() {
+        return spillFile;
+    }
+
+    /**
+     * Get arena page containing row values.
+     * @param row row index, starts at 0
+     * @return arena page
+     */
+    public byte[] getArena(int row) {
+        return pages.get(rowPages[row]);
+    }
+
+    /**
+     * Get value offset in row arena page.
+     * @param row row index, starts at 0
+     * @param column column index, starts at 0
+     * @return value offset in getArena(row)
+     */
+    public int getOffset(int row, int column) {
+        return offsets[column][row];
+    }
+
+    /**
+     * Get value length.
+     * @param row row index, starts at 0
+     * @param column column index, starts at 0
+     * @return value length, -1 if value is NULL
+     */
+    public int getLength(int row, int column) {
+        return lengths[column][row];
+    }
+
+    public int size() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+}
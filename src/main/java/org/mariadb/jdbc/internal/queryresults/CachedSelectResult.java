@@ -48,31 +48,36 @@ ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSI
 OF SUCH DAMAGE.
 */
 
+import org.mariadb.jdbc.internal.util.Options;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 
 
 public class CachedSelectResult extends SelectQueryResult {
 
     protected short warningCount;
-    private List<ValueObject[]> resultSet;
+    private ArenaRowStore resultSet;
     private int rowPointer;
+    private boolean binaryProtocol;
+    private Options options;
 
 
     /**
      * Initialisation.
      * @param ci column informations
-     * @param result first valueObject
+     * @param result rows
      * @param warningCount warning count
+     * @param binaryProtocol are rows binary encoded
+     * @param options session options
      */
-    public CachedSelectResult(ColumnInformation[] ci, List<ValueObject[]> result, short warningCount) {
+    public CachedSelectResult(ColumnInformation[] ci, ArenaRowStore result, short warningCount, boolean binaryProtocol, Options options) {
         this.columnInformation = ci;
         this.resultSet = result;
         this.warningCount = warningCount;
+        this.binaryProtocol = binaryProtocol;
+        this.options = options;
         rowPointer = -1;
     }
 
@@ -96,16 +101,40 @@ public class CachedSelectResult extends SelectQueryResult {
      * @throws QueryException if receiving an database error stream
      */
     public static CachedSelectResult createCachedSelectResult(StreamingSelectResult streamingResult) throws IOException, QueryException {
-        final List<ValueObject[]> valueObjects = new ArrayList<>();
-
-        while (streamingResult.next()) {
-            valueObjects.add(streamingResult.values);
+        final Options options = streamingResult.getOptions();
+        final ArenaRowStore rows = new ArenaRowStore(streamingResult.columnInformationLength, options.maxResultSetMemorySize);
+        try {
+            if (options.parallelDecodeThreshold > 0 && options.maxResultSetMemorySize == 0) {
+                //packets are only copied while reading, rows being decoded when all are received
+                while (streamingResult.nextRaw(rows)) {
+                    //next row
+                }
+                ParallelRowDecoder.decode(rows, streamingResult.getRowPacket(), options.parallelDecodeThreshold);
+            } else {
+                while (streamingResult.next()) {
+                    //streaming row and its buffer are reused for next row : values are copied to store
+                    rows.add(streamingResult.row);
+                }
+            }
+        } catch (IOException | QueryException | RuntimeException e) {
+            rows.close();
+            throw e;
         }
-        CachedSelectResult qr = new CachedSelectResult(streamingResult.columnInformation, valueObjects, streamingResult.warningCount);
+        CachedSelectResult qr = new CachedSelectResult(streamingResult.columnInformation, rows, streamingResult.warningCount,
+                streamingResult.isBinaryProtocol(), streamingResult.getOptions());
         streamingResult.close();
         return qr;
     }
 
+    /**
+     * Close result, releasing temporary file if rows have been written to disk.
+     */
+    @Override
+    public void close() {
+        super.close();
+        resultSet.close();
+    }
+
     public boolean next() throws IOException, QueryException {
         rowPointer++;
         return rowPointer < resultSet.size();
@@ -130,18 +159,26 @@ public class CachedSelectResult extends SelectQueryResult {
      * @param position index, starts at 0
      * @return the value
      */
-    public ValueObject getValueObject(int position) throws NoSuchColumnException {
+    public ValueObject getValueObject(int position) throws QueryException {
         if (this.rowPointer < 0) {
             throw new NoSuchColumnException("Current position is before the first row");
         }
         if (this.rowPointer >= resultSet.size()) {
             throw new NoSuchColumnException("Current position is after the last row");
         }
-        ValueObject[] row = resultSet.get(this.rowPointer);
-        if (position < 0 || position >= row.length) {
+        if (position < 0 || position >= resultSet.getColumnCount()) {
             throw new NoSuchColumnException("No such column: " + position);
         }
-        return row[position];
+        if (resultSet.isSpilled(rowPointer)) {
+            try {
+                return new MariaDbValueObject(resultSet.readSpilledValue(rowPointer, position), columnInformation[position], binaryProtocol,
+                        options);
+            } catch (IOException e) {
+                throw new QueryException("Could not read result set temporary file: " + e.getMessage(), -1, "HY000", e);
+            }
+        }
+        return new MariaDbValueObject(resultSet.getArena(rowPointer), resultSet.getOffset(rowPointer, position), resultSet.getLength(rowPointer, position),
+                columnInformation[position], binaryProtocol, options);
     }
 
     public int getRows() {
@@ -0,0 +1,285 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012 Monty Program Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.queryresults;
+
+import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
+import org.mariadb.jdbc.internal.packet.read.ReadPacketFetcher;
+import org.mariadb.jdbc.internal.packet.read.ReadResultPacketFactory;
+import org.mariadb.jdbc.internal.packet.result.BinaryRowPacket;
+import org.mariadb.jdbc.internal.packet.result.EndOfFilePacket;
+import org.mariadb.jdbc.internal.packet.result.ErrorPacket;
+import org.mariadb.jdbc.internal.packet.result.ResultSetPacket;
+import org.mariadb.jdbc.internal.protocol.AbstractQueryProtocol;
+import org.mariadb.jdbc.internal.protocol.MasterProtocol;
+import org.mariadb.jdbc.internal.util.ExceptionMapper;
+import org.mariadb.jdbc.internal.util.Options;
+import org.mariadb.jdbc.internal.util.buffer.ReadUtil;
+import org.mariadb.jdbc.internal.util.constant.ServerStatus;
+import org.mariadb.jdbc.internal.util.dao.PrepareResult;
+import org.mariadb.jdbc.internal.util.dao.QueryException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.sql.SQLException;
+
+/**
+ * Result of a server prepared statement executed with a read-only cursor.
+ * Rows are fetched by chunks of fetchSize rows using COM_STMT_FETCH. Each chunk is read entirely, so connection can
+ * be used by other statements between fetches, and only one chunk is kept in memory.
+ * Result can only move forward. If statement is executed again before all rows are read, server cursor is closed,
+ * and reading following rows throws an exception.
+ */
+public class CursorSelectResult extends SelectQueryResult {
+    private final AbstractQueryProtocol protocol;
+    private final PrepareResult statement;
+    private final int fetchSize;
+    private final Options options;
+    private final ArenaRowStore rows;
+    private final RowView row;
+    private final BinaryRowPacket rowPacket;
+    private int rowPointer;
+    private int chunkStart;
+    private boolean lastRowSent;
+    private boolean aborted;
+    private boolean beforeFirst;
+
+    private CursorSelectResult(ColumnInformation[] ci, AbstractQueryProtocol protocol, PrepareResult statement, int fetchSize) {
+        this.columnInformation = ci;
+        this.columnInformationLength = ci.length;
+        this.protocol = protocol;
+        this.statement = statement;
+        this.fetchSize = fetchSize;
+        this.options = protocol.getOptions();
+        this.rows = new ArenaRowStore(columnInformationLength);
+        this.row = new RowView(columnInformationLength);
+        this.rowPacket = new BinaryRowPacket(ci, columnInformationLength);
+        this.rowPointer = -1;
+        this.beforeFirst = true;
+    }
+
+    /**
+     * Read result of a prepared statement executed with CURSOR_TYPE_READ_ONLY.
+     * If server has opened a cursor, no row has been sent yet, else rows follow and are cached.
+     *
+     * @param packet         the result set stream from the server
+     * @param packetFetcher  packetfetcher
+     * @param protocol       the current connection protocol class
+     * @param statement      executed statement
+     * @param fetchSize      number of rows fetched by COM_STMT_FETCH command
+     * @return result
+     * @throws IOException    when something goes wrong while reading from the server
+     * @throws QueryException if receiving an database error stream
+     */
+    public static SelectQueryResult createCursorSelectResult(ResultSetPacket packet, ReadPacketFetcher packetFetcher,
+                                                             AbstractQueryProtocol protocol, PrepareResult statement, int fetchSize)
+            throws IOException, QueryException {
+        ColumnInformation[] ci = StreamingSelectResult.readColumnInformation(packet, packetFetcher);
+        ByteBuffer bufferEof = packetFetcher.getReusableBuffer();
+        if (!ReadUtil.eofIsNext(bufferEof)) {
+            throw new QueryException("Packets out of order when reading field packets, expected was EOF stream. "
+                    + "Packet contents (hex) = " + MasterProtocol.hexdump(bufferEof, 0));
+        }
+        EndOfFilePacket endOfFilePacket = (EndOfFilePacket) ReadResultPacketFactory.createResultPacket(bufferEof);
+        if ((endOfFilePacket.getStatusFlags() & ServerStatus.CURSOR_EXISTS) == 0) {
+            //no cursor opened by server, rows follow
+            return CachedSelectResult.createCachedSelectResult(new StreamingSelectResult(ci, protocol, packetFetcher, true));
+        }
+        CursorSelectResult result = new CursorSelectResult(ci, protocol, statement, fetchSize);
+        statement.setActiveCursor(result);
+        return result;
+    }
+
+    @Override
+    public void addResult(AbstractQueryResult other) {
+
+    }
+
+    @Override
+    public boolean next() throws IOException, QueryException {
+        beforeFirst = false;
+        rowPointer++;
+        if (rowPointer < rows.size()) {
+            return true;
+        }
+        if (lastRowSent || isClosed) {
+            if (aborted) {
+                throw new QueryException("Cursor has been closed, statement having been executed again before reading all rows",
+                        -1, ExceptionMapper.SqlStates.INVALID_CURSOR_STATE.getSqlState());
+            }
+            return false;
+        }
+        chunkStart += rows.size();
+        rows.clear();
+        rowPointer = 0;
+        protocol.fetchCursorRows(this, fetchSize);
+        return rowPointer < rows.size();
+    }
+
+    /**
+     * Close server cursor, since statement will be executed again. Rows already fetched can still be read.
+     * @throws QueryException if a connection error occur
+     */
+    public void abortCursor() throws QueryException {
+        if (!lastRowSent && !isClosed) {
+            cursorClosed();
+            aborted = true;
+            protocol.closeCursor(statement);
+        }
+    }
+
+    /**
+     * Read COM_STMT_FETCH response : rows and an EOF packet.
+     * @param packetFetcher packetFetcher
+     * @throws IOException if a connection error occur
+     * @throws QueryException if server return an error
+     */
+    public void readRows(ReadPacketFetcher packetFetcher) throws IOException, QueryException {
+        for (;;) {
+            ByteBuffer buffer = packetFetcher.getReusableBuffer();
+            byte initialByte = buffer.get(0);
+            if (initialByte == (byte) 0xff) {
+                cursorClosed();
+                ErrorPacket errorPacket = (ErrorPacket) ReadResultPacketFactory.createResultPacket(buffer);
+                throw new QueryException(errorPacket.getMessage(), errorPacket.getErrorNumber(), errorPacket.getSqlState());
+            }
+            if (initialByte == (byte) 0xfe && buffer.limit() < 9) {
+                EndOfFilePacket endOfFilePacket = (EndOfFilePacket) ReadResultPacketFactory.createResultPacket(buffer);
+                warningCount = endOfFilePacket.getWarningCount();
+                if ((endOfFilePacket.getStatusFlags() & ServerStatus.LAST_ROW_SENT) != 0) {
+                    cursorClosed();
+                }
+                return;
+            }
+            rowPacket.readRow(packetFetcher, buffer, row);
+            rows.add(row);
+        }
+    }
+
+    private void cursorClosed() {
+        lastRowSent = true;
+        if (statement.getActiveCursor() == this) {
+            statement.setActiveCursor(null);
+        }
+    }
+
+    /**
+     * Close result. If server cursor is still open, it is closed.
+     */
+    @Override
+    public void close() {
+        if (isClosed) {
+            return;
+        }
+        super.close();
+        if (!lastRowSent) {
+            cursorClosed();
+            try {
+                protocol.closeCursor(statement);
+            } catch (QueryException e) {
+                //eat exception
+            }
+        }
+        rows.clear();
+    }
+
+    @Override
+    public ValueObject getValueObject(int index) throws NoSuchColumnException {
+        if (rowPointer < 0 || rowPointer >= rows.size()) {
+            throw new NoSuchColumnException("Current position is not on a row");
+        }
+        if (index < 0 || index >= columnInformationLength) {
+            throw new NoSuchColumnException("No such column: " + index);
+        }
+        return new MariaDbValueObject(rows.getArena(rowPointer), rows.getOffset(rowPointer, index), rows.getLength(rowPointer, index),
+                columnInformation[index], true, options);
+    }
+
+    public int getRows() {
+        return -1;
+    }
+
+    /**
+     * Current row number, counting rows of previous fetches.
+     * @return current row number, or -1 if after last row
+     */
+    @Override
+    public int getRowPointer() {
+        if (isAfterLast()) {
+            return -1;
+        }
+        return chunkStart + rowPointer;
+    }
+
+    /**
+     * Cursor result can only move forward.
+     * @param index pointer to move
+     * @throws SQLException always
+     */
+    @Override
+    public void moveRowPointerTo(int index) throws SQLException {
+        throw new SQLException("Invalid operation for result set type TYPE_FORWARD_ONLY");
+    }
+
+    public int getStatementId() {
+        return statement.getStatementId();
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public boolean isBeforeFirst() {
+        return beforeFirst;
+    }
+
+    public boolean isAfterLast() {
+        return lastRowSent && rowPointer >= rows.size();
+    }
+}
@@ -53,6 +53,7 @@ import org.mariadb.jdbc.MariaDbBlob;
 import org.mariadb.jdbc.MariaDbClob;
 import org.mariadb.jdbc.internal.MariaDbType;
 import org.mariadb.jdbc.internal.util.Options;
+import org.mariadb.jdbc.internal.util.TimeZoneOffsetCache;
 import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
 
 import java.io.ByteArrayInputStream;
@@ -63,21 +64,29 @@ import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.TimeZone;
 import java.util.regex.Pattern;
 
 /**
  * Contains the raw value returned from the server.
- * Is immutable
+ * Immutable, except for the streaming result set flyweight that is re-pointed to each value read.
  */
 @SuppressWarnings("deprecation")
 public class MariaDbValueObject implements ValueObject {
 
+    private static final long NOT_PARSED = Long.MIN_VALUE;
     private static final Pattern isIntegerRegex = Pattern.compile("^-?\\d+\\.0+$");
-    private final byte[] rawBytes;
-    private final MariaDbType dataType;
+    private static final double[] DOUBLE_POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    private static final float[] FLOAT_POWERS_OF_TEN = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+    private byte[] rawBytes;
+    private int offset;
+    private int length;
+    private MariaDbType dataType;
     private final boolean isBinaryEncoded;
-    private final ColumnInformation columnInfo;
+    private ColumnInformation columnInfo;
     private final Options options;
 
     /**
@@ -87,11 +96,7 @@ public class MariaDbValueObject implements ValueObject {
      * @param options session options
      */
     public MariaDbValueObject(byte[] rawBytes, ColumnInformation columnInfo, Options options) {
-        this.dataType = columnInfo.getType();
-        this.rawBytes = rawBytes;
-        this.isBinaryEncoded = false;
-        this.columnInfo = columnInfo;
-        this.options = options;
+        this(rawBytes, columnInfo, false, options);
     }
 
     /**
@@ -102,14 +107,46 @@ public class MariaDbValueObject implements ValueObject {
      * @param options session options
      */
     public MariaDbValueObject(byte[] rawBytes, ColumnInformation columnInfo, boolean isBinaryEncoded, Options options) {
+        this(rawBytes, 0, (rawBytes == null) ? -1 : rawBytes.length, columnInfo, isBinaryEncoded, options);
+    }
+
+    /**
+     * Constructor for a value that is a view over a part of a larger buffer (row packet data), so no copy of the
+     * data is needed until the value is decoded.
+     * @param buffer buffer containing the value
+     * @param offset value offset in buffer
+     * @param length value length, -1 if value is NULL
+     * @param columnInfo column information
+     * @param isBinaryEncoded is text or binary encoded.
+     * @param options session options
+     */
+    public MariaDbValueObject(byte[] buffer, int offset, int length, ColumnInformation columnInfo, boolean isBinaryEncoded,
+                              Options options) {
         this.dataType = columnInfo.getType();
-        this.rawBytes = rawBytes;
+        this.rawBytes = (length == -1) ? null : buffer;
+        this.offset = offset;
+        this.length = length;
         this.isBinaryEncoded = isBinaryEncoded;
         this.columnInfo = columnInfo;
         this.options = options;
     }
 
 
+    /**
+     * Point to another value of the same result set.
+     * @param buffer buffer containing the value
+     * @param offset value offset in buffer
+     * @param length value length, -1 if value is NULL
+     * @param columnInfo column information
+     */
+    void reset(byte[] buffer, int offset, int length, ColumnInformation columnInfo) {
+        this.dataType = columnInfo.getType();
+        this.rawBytes = (length == -1) ? null : buffer;
+        this.offset = offset;
+        this.length = length;
+        this.columnInfo = columnInfo;
+    }
+
     public String getString() throws SQLException {
         return getString(null);
     }
@@ -127,7 +164,7 @@ public class MariaDbValueObject implements ValueObject {
         switch (columnInfo.getType()) {
             case BIT:
                 if (options.tinyInt1isBit && columnInfo.getLength() == 1) {
-                    return (rawBytes[0] == 0) ? "0" : "1";
+                    return (rawBytes[offset] == 0) ? "0" : "1";
                 }
                 break;
             case TINYINT:
@@ -196,16 +233,16 @@ public class MariaDbValueObject implements ValueObject {
             case OLDDECIMAL:
                 return getBigDecimal().toString();
             default:
-                return new String(rawBytes, StandardCharsets.UTF_8);
+                return new String(rawBytes, offset, length, StandardCharsets.UTF_8);
         }
-        return new String(rawBytes, StandardCharsets.UTF_8);
+        return new String(rawBytes, offset, length, StandardCharsets.UTF_8);
     }
 
     private String getTimeString() {
-        if (rawBytes == null || rawBytes.length == 0) {
+        if (rawBytes == null || length == 0) {
             return null;
         }
-        String rawValue = new String(rawBytes, StandardCharsets.UTF_8);
+        String rawValue = new String(rawBytes, offset, length, StandardCharsets.UTF_8);
         if ( "0000-00-00".equals(rawValue)) {
             return null;
         }
@@ -215,11 +252,11 @@ public class MariaDbValueObject implements ValueObject {
             }
             return rawValue;
         }
-        int day = ((rawBytes[1] & 0xff)
-                | ((rawBytes[2] & 0xff) << 8)
-                | ((rawBytes[3] & 0xff) << 16)
-                | ((rawBytes[4] & 0xff) << 24));
-        int hour = rawBytes[5];
+        int day = ((rawBytes[offset + 1] & 0xff)
+                | ((rawBytes[offset + 2] & 0xff) << 8)
+                | ((rawBytes[offset + 3] & 0xff) << 16)
+                | ((rawBytes[offset + 4] & 0xff) << 24));
+        int hour = rawBytes[offset + 5];
         int timeHour = hour + day * 24;
 
         String hourString;
@@ -230,7 +267,7 @@ public class MariaDbValueObject implements ValueObject {
         }
 
         String minuteString;
-        int minutes = rawBytes[6];
+        int minutes = rawBytes[offset + 6];
         if (minutes < 10) {
             minuteString = "0" + minutes;
         } else {
@@ -238,7 +275,7 @@ public class MariaDbValueObject implements ValueObject {
         }
 
         String secondString;
-        int seconds = rawBytes[7];
+        int seconds = rawBytes[offset + 7];
         if (seconds < 10) {
             secondString = "0" + seconds;
         } else {
@@ -246,18 +283,18 @@ public class MariaDbValueObject implements ValueObject {
         }
 
         int microseconds = 0;
-        if (rawBytes.length > 8) {
-            microseconds = ((rawBytes[8] & 0xff)
-                    | (rawBytes[9] & 0xff) << 8
-                    | (rawBytes[10] & 0xff) << 16
-                    | (rawBytes[11] & 0xff) << 24);
+        if (length > 8) {
+            microseconds = ((rawBytes[offset + 8] & 0xff)
+                    | (rawBytes[offset + 9] & 0xff) << 8
+                    | (rawBytes[offset + 10] & 0xff) << 16
+                    | (rawBytes[offset + 11] & 0xff) << 24);
         }
 
         String microsecondString = Integer.toString(microseconds);
         while (microsecondString.length() < 6) {
             microsecondString = "0" + microsecondString;
         }
-        boolean negative = (rawBytes[0] == 0x01);
+        boolean negative = (rawBytes[offset] == 0x01);
         return (negative ? "-" : "") + (hourString + ":" + minuteString + ":" + secondString + "." + microsecondString);
     }
 
@@ -273,14 +310,14 @@ public class MariaDbValueObject implements ValueObject {
         }
         if (!this.isBinaryEncoded) {
             if (dataType == MariaDbType.BIT) {
-                return rawBytes[0];
+                return rawBytes[offset];
             }
             return parseByte();
         } else {
             long value;
             switch (dataType) {
                 case BIT:
-                    return rawBytes[0];
+                    return rawBytes[offset];
                 case TINYINT:
                     value = getTinyInt();
                     break;
@@ -316,16 +353,193 @@ public class MariaDbValueObject implements ValueObject {
         }
     }
 
+    /**
+     * Indicate if text value is a plain integer ("-?[0-9]+"), or a decimal with only zeros in decimal part, like
+     * "1.0000", that can be parsed directly from raw bytes.
+     * @return true if value can be parsed by parseTextInteger
+     */
+    private boolean isTextInteger() {
+        int pos = offset;
+        int end = offset + length;
+        if (pos < end && rawBytes[pos] == '-') {
+            pos++;
+        }
+        int digitStart = pos;
+        while (pos < end && rawBytes[pos] >= '0' && rawBytes[pos] <= '9') {
+            pos++;
+        }
+        if (pos == digitStart) {
+            return false;
+        }
+        if (pos == end) {
+            return true;
+        }
+        if (rawBytes[pos++] != '.' || pos == end) {
+            return false;
+        }
+        while (pos < end) {
+            if (rawBytes[pos++] != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parse text integer value directly from raw bytes, without intermediate String.
+     * Value format must have been validated with isTextInteger.
+     * @param typeName type name for error message
+     * @param minValue minimum value
+     * @param maxValue maximum value
+     * @return value
+     * @throws SQLException if value is not in range
+     */
+    private long parseTextInteger(String typeName, long minValue, long maxValue) throws SQLException {
+        int pos = offset;
+        int end = offset + length;
+        boolean negative = rawBytes[pos] == '-';
+        if (negative) {
+            pos++;
+        }
+        //accumulating negatively, since negative range is bigger than positive one
+        long result = 0;
+        while (pos < end && rawBytes[pos] != '.') {
+            int digit = rawBytes[pos++] - '0';
+            if (result < Long.MIN_VALUE / 10) {
+                throw outOfRange(typeName);
+            }
+            result *= 10;
+            if (result < Long.MIN_VALUE + digit) {
+                throw outOfRange(typeName);
+            }
+            result -= digit;
+        }
+        if (!negative) {
+            if (result == Long.MIN_VALUE) {
+                throw outOfRange(typeName);
+            }
+            result = -result;
+        }
+        if (result < minValue || result > maxValue) {
+            throw outOfRange(typeName);
+        }
+        return result;
+    }
+
+    private SQLException outOfRange(String typeName) {
+        return new SQLException("Out of range value for column '" + columnInfo.getName() + "' : value "
+                + new String(rawBytes, offset, length, StandardCharsets.UTF_8) + " is not in " + typeName + " range", "22003", 1264);
+    }
+
+    /**
+     * Get number of decimals of a plain decimal text value ("-?[0-9]+(.[0-9]+)?", without exponent) of at most 18 digits,
+     * so unscaled value fit in a long.
+     * @return number of decimals, or -1 if value is not a plain decimal of at most 18 digits
+     */
+    private int plainDecimalScale() {
+        int pos = offset;
+        int end = offset + length;
+        if (pos < end && rawBytes[pos] == '-') {
+            pos++;
+        }
+        int digits = 0;
+        int scale = -1;
+        for (; pos < end; pos++) {
+            byte current = rawBytes[pos];
+            if (current >= '0' && current <= '9') {
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (current == '.' && scale == -1 && digits > 0) {
+                scale = 0;
+            } else {
+                return -1;
+            }
+        }
+        if (digits == 0 || digits > 18 || scale == 0) {
+            return -1;
+        }
+        return scale == -1 ? 0 : scale;
+    }
+
+    /**
+     * Get unscaled value of a plain decimal text value, validated with plainDecimalScale.
+     * @return unscaled value
+     */
+    private long unscaledValue() {
+        int pos = offset;
+        int end = offset + length;
+        boolean negative = rawBytes[pos] == '-';
+        if (negative) {
+            pos++;
+        }
+        long result = 0;
+        for (; pos < end; pos++) {
+            if (rawBytes[pos] != '.') {
+                result = result * 10 + (rawBytes[pos] - '0');
+            }
+        }
+        return negative ? -result : result;
+    }
+
+    /**
+     * Parse text double value.
+     * When unscaled value is less than 2^53 and scale at most 22, value is unscaled / 10^scale where both operands are
+     * exact doubles, and division is correctly rounded, so result is the same than Double.valueOf without any String.
+     * @return double value
+     */
+    private double parseDouble() {
+        int scale = plainDecimalScale();
+        if (scale >= 0 && scale <= 22) {
+            long unscaled = unscaledValue();
+            if (unscaled > -(1L << 53) && unscaled < (1L << 53)) {
+                double value = (double) unscaled / DOUBLE_POWERS_OF_TEN[scale];
+                //keep negative zero
+                return (value == 0 && rawBytes[offset] == '-') ? -0.0d : value;
+            }
+        }
+        return Double.valueOf(new String(rawBytes, offset, length, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse text float value, using the same exact fast path than parseDouble for small values.
+     * @return float value
+     */
+    private float parseFloat() {
+        int scale = plainDecimalScale();
+        if (scale >= 0 && scale <= 10) {
+            long unscaled = unscaledValue();
+            if (unscaled > -(1L << 24) && unscaled < (1L << 24)) {
+                float value = (float) unscaled / FLOAT_POWERS_OF_TEN[scale];
+                return (value == 0 && rawBytes[offset] == '-') ? -0.0f : value;
+            }
+        }
+        return Float.valueOf(new String(rawBytes, offset, length, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse text decimal value.
+     * @return BigDecimal value
+     */
+    private BigDecimal parseBigDecimal() {
+        int scale = plainDecimalScale();
+        if (scale >= 0) {
+            return BigDecimal.valueOf(unscaledValue(), scale);
+        }
+        return new BigDecimal(new String(rawBytes, offset, length, StandardCharsets.UTF_8));
+    }
+
     private int getTinyInt() throws SQLException {
-        int value = rawBytes[0];
+        int value = rawBytes[offset];
         if (!columnInfo.isSigned()) {
-            value = (rawBytes[0] & 0xff);
+            value = (rawBytes[offset] & 0xff);
         }
         return value;
     }
 
     private int getSmallInt() throws SQLException {
-        int value = ((rawBytes[0] & 0xff) | ((rawBytes[1] & 0xff) << 8));
+        int value = ((rawBytes[offset] & 0xff) | ((rawBytes[offset + 1] & 0xff) << 8));
         if (!columnInfo.isSigned()) {
             return value & 0xffff;
         }
@@ -334,10 +548,10 @@ public class MariaDbValueObject implements ValueObject {
     }
 
     private long getMediumInt() throws SQLException {
-        long value = ((rawBytes[0] & 0xff)
-                | (rawBytes[1] & 0xff) << 8
-                | (rawBytes[2] & 0xff) << 16
-                | (rawBytes[3] & 0xff) << 24);
+        long value = ((rawBytes[offset] & 0xff)
+                | (rawBytes[offset + 1] & 0xff) << 8
+                | (rawBytes[offset + 2] & 0xff) << 16
+                | (rawBytes[offset + 3] & 0xff) << 24);
         if (!columnInfo.isSigned()) {
             value = value & 0xffffffffL ;
         }
@@ -346,7 +560,10 @@ public class MariaDbValueObject implements ValueObject {
 
 
     private byte parseByte() throws SQLException {
-        String value = new String(rawBytes, StandardCharsets.UTF_8);
+        if (dataType != MariaDbType.FLOAT && dataType != MariaDbType.DOUBLE && isTextInteger()) {
+            return (byte) parseTextInteger("Byte", Byte.MIN_VALUE, Byte.MAX_VALUE);
+        }
+        String value = new String(rawBytes, offset, length, StandardCharsets.UTF_8);
         try {
             switch (dataType) {
                 case FLOAT:
@@ -397,13 +614,13 @@ public class MariaDbValueObject implements ValueObject {
             long value;
             switch (dataType) {
                 case BIT:
-                    return rawBytes[0];
+                    return rawBytes[offset];
                 case TINYINT:
                     value = getTinyInt();
                     break;
                 case SMALLINT:
                 case YEAR:
-                    value = ((rawBytes[0] & 0xff) | ((rawBytes[1] & 0xff) << 8));
+                    value = ((rawBytes[offset] & 0xff) | ((rawBytes[offset + 1] & 0xff) << 8));
                     if (columnInfo.isSigned()) {
                         return (short) value;
                     }
@@ -431,7 +648,10 @@ public class MariaDbValueObject implements ValueObject {
     }
 
     private short parseShort() throws SQLException {
-        String value = new String(rawBytes, StandardCharsets.UTF_8);
+        if (dataType != MariaDbType.FLOAT && dataType != MariaDbType.DOUBLE && isTextInteger()) {
+            return (short) parseTextInteger("Short", Short.MIN_VALUE, Short.MAX_VALUE);
+        }
+        String value = new String(rawBytes, offset, length, StandardCharsets.UTF_8);
         try {
             switch (dataType) {
                 case FLOAT:
@@ -481,7 +701,7 @@ public class MariaDbValueObject implements ValueObject {
             long value;
             switch (dataType) {
                 case BIT:
-                    return rawBytes[0];
+                    return rawBytes[offset];
                 case TINYINT:
                     value = getTinyInt();
                     break;
@@ -491,10 +711,10 @@ public class MariaDbValueObject implements ValueObject {
                     break;
                 case INTEGER:
                 case MEDIUMINT:
-                    value = ((rawBytes[0] & 0xff)
-                            | (rawBytes[1] & 0xff) << 8
-                            | (rawBytes[2] & 0xff) << 16
-                            | (rawBytes[3] & 0xff) << 24);
+                    value = ((rawBytes[offset] & 0xff)
+                            | (rawBytes[offset + 1] & 0xff) << 8
+                            | (rawBytes[offset + 2] & 0xff) << 16
+                            | (rawBytes[offset + 3] & 0xff) << 24);
                     if (columnInfo.isSigned()) {
                         return (int) value;
                     } else if (value < 0) {
@@ -519,7 +739,10 @@ public class MariaDbValueObject implements ValueObject {
     }
 
     private int parseInt() throws SQLException {
-        String value = new String(rawBytes, StandardCharsets.UTF_8);
+        if (dataType != MariaDbType.FLOAT && dataType != MariaDbType.DOUBLE && isTextInteger()) {
+            return (int) parseTextInteger("Integer", Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+        String value = new String(rawBytes, offset, length, StandardCharsets.UTF_8);
         try {
             switch (dataType) {
                 case FLOAT:
@@ -569,7 +792,7 @@ public class MariaDbValueObject implements ValueObject {
             long value;
             switch (dataType) {
                 case BIT:
-                    return rawBytes[0];
+                    return rawBytes[offset];
                 case TINYINT:
                     value = getTinyInt();
                     break;
@@ -582,14 +805,14 @@ public class MariaDbValueObject implements ValueObject {
                     value = getMediumInt();
                     break;
                 case BIGINT:
-                    value = ((rawBytes[0] & 0xff)
-                            | ((long) (rawBytes[1] & 0xff) << 8)
-                            | ((long) (rawBytes[2] & 0xff) << 16)
-                            | ((long) (rawBytes[3] & 0xff) << 24)
-                            | ((long) (rawBytes[4] & 0xff) << 32)
-                            | ((long) (rawBytes[5] & 0xff) << 40)
-                            | ((long) (rawBytes[6] & 0xff) << 48)
-                            | ((long) (rawBytes[7] & 0xff) << 56));
+                    value = ((rawBytes[offset] & 0xff)
+                            | ((long) (rawBytes[offset + 1] & 0xff) << 8)
+                            | ((long) (rawBytes[offset + 2] & 0xff) << 16)
+                            | ((long) (rawBytes[offset + 3] & 0xff) << 24)
+                            | ((long) (rawBytes[offset + 4] & 0xff) << 32)
+                            | ((long) (rawBytes[offset + 5] & 0xff) << 40)
+                            | ((long) (rawBytes[offset + 6] & 0xff) << 48)
+                            | ((long) (rawBytes[offset + 7] & 0xff) << 56));
                     if (columnInfo.isSigned()) {
                         return value;
                     }
@@ -626,7 +849,10 @@ public class MariaDbValueObject implements ValueObject {
     }
 
     private long parseLong() throws SQLException {
-        String value = new String(rawBytes, StandardCharsets.UTF_8);
+        if (dataType != MariaDbType.FLOAT && dataType != MariaDbType.DOUBLE && isTextInteger()) {
+            return parseTextInteger("Long", Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+        String value = new String(rawBytes, offset, length, StandardCharsets.UTF_8);
         try {
             switch (dataType) {
                 case FLOAT:
@@ -672,12 +898,12 @@ public class MariaDbValueObject implements ValueObject {
             return 0;
         }
         if (!this.isBinaryEncoded) {
-            return Float.valueOf(new String(rawBytes, StandardCharsets.UTF_8));
+            return parseFloat();
         } else {
             long value;
             switch (dataType) {
                 case BIT:
-                    return rawBytes[0];
+                    return rawBytes[offset];
                 case TINYINT:
                     value = getTinyInt();
                     break;
@@ -690,14 +916,14 @@ public class MariaDbValueObject implements ValueObject {
                     value = getMediumInt();
                     break;
                 case BIGINT:
-                    value = ((rawBytes[0] & 0xff)
-                            | ((long) (rawBytes[1] & 0xff) << 8)
-                            | ((long) (rawBytes[2] & 0xff) << 16)
-                            | ((long) (rawBytes[3] & 0xff) << 24)
-                            | ((long) (rawBytes[4] & 0xff) << 32)
-                            | ((long) (rawBytes[5] & 0xff) << 40)
-                            | ((long) (rawBytes[6] & 0xff) << 48)
-                            | ((long) (rawBytes[7] & 0xff) << 56));
+                    value = ((rawBytes[offset] & 0xff)
+                            | ((long) (rawBytes[offset + 1] & 0xff) << 8)
+                            | ((long) (rawBytes[offset + 2] & 0xff) << 16)
+                            | ((long) (rawBytes[offset + 3] & 0xff) << 24)
+                            | ((long) (rawBytes[offset + 4] & 0xff) << 32)
+                            | ((long) (rawBytes[offset + 5] & 0xff) << 40)
+                            | ((long) (rawBytes[offset + 6] & 0xff) << 48)
+                            | ((long) (rawBytes[offset + 7] & 0xff) << 56));
                     if (columnInfo.isSigned()) {
                         return value;
                     }
@@ -707,15 +933,15 @@ public class MariaDbValueObject implements ValueObject {
                             (byte) (value >> 0)});
                     return unsignedValue.floatValue();
                 case FLOAT:
-                    int valueFloat = ((rawBytes[0] & 0xff)
-                            | (rawBytes[1] & 0xff) << 8
-                            | (rawBytes[2] & 0xff) << 16
-                            | (rawBytes[3] & 0xff) << 24);
+                    int valueFloat = ((rawBytes[offset] & 0xff)
+                            | (rawBytes[offset + 1] & 0xff) << 8
+                            | (rawBytes[offset + 2] & 0xff) << 16
+                            | (rawBytes[offset + 3] & 0xff) << 24);
                     return Float.intBitsToFloat(valueFloat);
                 case DOUBLE:
                     return (float) getDouble();
                 default:
-                    return Float.valueOf(new String(rawBytes, StandardCharsets.UTF_8));
+                    return parseFloat();
             }
             return Float.valueOf(String.valueOf(value));
         }
@@ -730,11 +956,11 @@ public class MariaDbValueObject implements ValueObject {
             return 0;
         }
         if (!this.isBinaryEncoded) {
-            return Double.valueOf(new String(rawBytes, StandardCharsets.UTF_8));
+            return parseDouble();
         } else {
             switch (dataType) {
                 case BIT:
-                    return rawBytes[0];
+                    return rawBytes[offset];
                 case TINYINT:
                     return getTinyInt();
                 case SMALLINT:
@@ -744,14 +970,14 @@ public class MariaDbValueObject implements ValueObject {
                 case MEDIUMINT:
                     return getMediumInt();
                 case BIGINT:
-                    long valueLong = ((rawBytes[0] & 0xff)
-                            | ((long) (rawBytes[1] & 0xff) << 8)
-                            | ((long) (rawBytes[2] & 0xff) << 16)
-                            | ((long) (rawBytes[3] & 0xff) << 24)
-                            | ((long) (rawBytes[4] & 0xff) << 32)
-                            | ((long) (rawBytes[5] & 0xff) << 40)
-                            | ((long) (rawBytes[6] & 0xff) << 48)
-                            | ((long) (rawBytes[7] & 0xff) << 56)
+                    long valueLong = ((rawBytes[offset] & 0xff)
+                            | ((long) (rawBytes[offset + 1] & 0xff) << 8)
+                            | ((long) (rawBytes[offset + 2] & 0xff) << 16)
+                            | ((long) (rawBytes[offset + 3] & 0xff) << 24)
+                            | ((long) (rawBytes[offset + 4] & 0xff) << 32)
+                            | ((long) (rawBytes[offset + 5] & 0xff) << 40)
+                            | ((long) (rawBytes[offset + 6] & 0xff) << 48)
+                            | ((long) (rawBytes[offset + 7] & 0xff) << 56)
                     );
                     if (columnInfo.isSigned()) {
                         return valueLong;
@@ -764,17 +990,17 @@ public class MariaDbValueObject implements ValueObject {
                 case FLOAT:
                     return getFloat();
                 case DOUBLE:
-                    long valueDouble = ((rawBytes[0] & 0xff)
-                            | ((long) (rawBytes[1] & 0xff) << 8)
-                            | ((long) (rawBytes[2] & 0xff) << 16)
-                            | ((long) (rawBytes[3] & 0xff) << 24)
-                            | ((long) (rawBytes[4] & 0xff) << 32)
-                            | ((long) (rawBytes[5] & 0xff) << 40)
-                            | ((long) (rawBytes[6] & 0xff) << 48)
-                            | ((long) (rawBytes[7] & 0xff) << 56));
+                    long valueDouble = ((rawBytes[offset] & 0xff)
+                            | ((long) (rawBytes[offset + 1] & 0xff) << 8)
+                            | ((long) (rawBytes[offset + 2] & 0xff) << 16)
+                            | ((long) (rawBytes[offset + 3] & 0xff) << 24)
+                            | ((long) (rawBytes[offset + 4] & 0xff) << 32)
+                            | ((long) (rawBytes[offset + 5] & 0xff) << 40)
+                            | ((long) (rawBytes[offset + 6] & 0xff) << 48)
+                            | ((long) (rawBytes[offset + 7] & 0xff) << 56));
                     return Double.longBitsToDouble(valueDouble);
                 default:
-                    return Double.valueOf(new String(rawBytes, StandardCharsets.UTF_8));
+                    return parseDouble();
             }
         }
     }
@@ -788,11 +1014,11 @@ public class MariaDbValueObject implements ValueObject {
             return null;
         }
         if (!this.isBinaryEncoded) {
-            return new BigDecimal(new String(rawBytes, StandardCharsets.UTF_8));
+            return parseBigDecimal();
         } else {
             switch (dataType) {
                 case BIT:
-                    return BigDecimal.valueOf((long) rawBytes[0]);
+                    return BigDecimal.valueOf((long) rawBytes[offset]);
                 case TINYINT:
                     return BigDecimal.valueOf((long) getTinyInt());
                 case SMALLINT:
@@ -802,14 +1028,14 @@ public class MariaDbValueObject implements ValueObject {
                 case MEDIUMINT:
                     return BigDecimal.valueOf(getMediumInt());
                 case BIGINT:
-                    long value = ((rawBytes[0] & 0xff)
-                            | ((long) (rawBytes[1] & 0xff) << 8)
-                            | ((long) (rawBytes[2] & 0xff) << 16)
-                            | ((long) (rawBytes[3] & 0xff) << 24)
-                            | ((long) (rawBytes[4] & 0xff) << 32)
-                            | ((long) (rawBytes[5] & 0xff) << 40)
-                            | ((long) (rawBytes[6] & 0xff) << 48)
-                            | ((long) (rawBytes[7] & 0xff) << 56)
+                    long value = ((rawBytes[offset] & 0xff)
+                            | ((long) (rawBytes[offset + 1] & 0xff) << 8)
+                            | ((long) (rawBytes[offset + 2] & 0xff) << 16)
+                            | ((long) (rawBytes[offset + 3] & 0xff) << 24)
+                            | ((long) (rawBytes[offset + 4] & 0xff) << 32)
+                            | ((long) (rawBytes[offset + 5] & 0xff) << 40)
+                            | ((long) (rawBytes[offset + 6] & 0xff) << 48)
+                            | ((long) (rawBytes[offset + 7] & 0xff) << 56)
                     );
                     if (columnInfo.isSigned()) {
                         return new BigDecimal(String.valueOf(BigInteger.valueOf(value))).setScale(columnInfo.getDecimals());
@@ -824,14 +1050,21 @@ public class MariaDbValueObject implements ValueObject {
                 case DOUBLE:
                     return BigDecimal.valueOf(getDouble());
                 default:
-                    return new BigDecimal(new String(rawBytes, StandardCharsets.UTF_8));
+                    return parseBigDecimal();
             }
         }
 
     }
 
+    /**
+     * Get raw data.
+     * @return raw data, copied if this value is a view on a larger buffer.
+     */
     public byte[] getBytes() {
-        return rawBytes;
+        if (rawBytes == null || (offset == 0 && length == rawBytes.length)) {
+            return rawBytes;
+        }
+        return Arrays.copyOfRange(rawBytes, offset, offset + length);
     }
 
     /**
@@ -843,33 +1076,33 @@ public class MariaDbValueObject implements ValueObject {
             return null;
         }
         if (!this.isBinaryEncoded) {
-            return new BigInteger(new String(rawBytes, StandardCharsets.UTF_8));
+            return new BigInteger(new String(rawBytes, offset, length, StandardCharsets.UTF_8));
         } else {
             switch (dataType) {
                 case BIT:
-                    return BigInteger.valueOf((long) rawBytes[0]);
+                    return BigInteger.valueOf((long) rawBytes[offset]);
                 case TINYINT:
-                    return BigInteger.valueOf((long) (columnInfo.isSigned() ? getByte() : (rawBytes[0] & 0xff)));
+                    return BigInteger.valueOf((long) (columnInfo.isSigned() ? getByte() : (rawBytes[offset] & 0xff)));
                 case SMALLINT:
                 case YEAR:
-                    short valueShort = (short) ((rawBytes[0] & 0xff) | ((rawBytes[1] & 0xff) << 8));
+                    short valueShort = (short) ((rawBytes[offset] & 0xff) | ((rawBytes[offset + 1] & 0xff) << 8));
                     return BigInteger.valueOf((long) (columnInfo.isSigned() ? valueShort : (valueShort & 0xffff)));
                 case INTEGER:
                 case MEDIUMINT:
-                    int valueInt = ((rawBytes[0] & 0xff)
-                            | (rawBytes[1] & 0xff) << 8
-                            | (rawBytes[2] & 0xff) << 16
-                            | (rawBytes[3] & 0xff) << 24);
+                    int valueInt = ((rawBytes[offset] & 0xff)
+                            | (rawBytes[offset + 1] & 0xff) << 8
+                            | (rawBytes[offset + 2] & 0xff) << 16
+                            | (rawBytes[offset + 3] & 0xff) << 24);
                     return BigInteger.valueOf(((columnInfo.isSigned()) ? valueInt : (valueInt >= 0) ? valueInt : valueInt & 0xffffffffL));
                 case BIGINT:
-                    long value = ((rawBytes[0] & 0xff)
-                            | ((long) (rawBytes[1] & 0xff) << 8)
-                            | ((long) (rawBytes[2] & 0xff) << 16)
-                            | ((long) (rawBytes[3] & 0xff) << 24)
-                            | ((long) (rawBytes[4] & 0xff) << 32)
-                            | ((long) (rawBytes[5] & 0xff) << 40)
-                            | ((long) (rawBytes[6] & 0xff) << 48)
-                            | ((long) (rawBytes[7] & 0xff) << 56)
+                    long value = ((rawBytes[offset] & 0xff)
+                            | ((long) (rawBytes[offset + 1] & 0xff) << 8)
+                            | ((long) (rawBytes[offset + 2] & 0xff) << 16)
+                            | ((long) (rawBytes[offset + 3] & 0xff) << 24)
+                            | ((long) (rawBytes[offset + 4] & 0xff) << 32)
+                            | ((long) (rawBytes[offset + 5] & 0xff) << 40)
+                            | ((long) (rawBytes[offset + 6] & 0xff) << 48)
+                            | ((long) (rawBytes[offset + 7] & 0xff) << 56)
                     );
                     if (columnInfo.isSigned()) {
                         return BigInteger.valueOf(value);
@@ -884,7 +1117,7 @@ public class MariaDbValueObject implements ValueObject {
                 case DOUBLE:
                     return BigInteger.valueOf((long) getDouble());
                 default:
-                    return new BigInteger(new String(rawBytes, StandardCharsets.UTF_8));
+                    return new BigInteger(new String(rawBytes, offset, length, StandardCharsets.UTF_8));
             }
         }
 
@@ -902,7 +1135,24 @@ public class MariaDbValueObject implements ValueObject {
         }
 
         if (!this.isBinaryEncoded) {
-            String rawValue = new String(rawBytes, StandardCharsets.UTF_8);
+            switch (dataType) {
+                case TIMESTAMP:
+                case DATETIME:
+                case TIME:
+                case YEAR:
+                    break;
+                default:
+                    if (length == 10) {
+                        //same time zone than "yyyy-MM-dd" SimpleDateFormat
+                        TimeZone timeZone = (dataType == MariaDbType.DATE || cal == null) ? TimeZone.getDefault() : cal.getTimeZone();
+                        long epochMillis = parseTextDateTime(timeZone);
+                        if (epochMillis != NOT_PARSED) {
+                            return new Date(epochMillis);
+                        }
+                    }
+            }
+
+            String rawValue = new String(rawBytes, offset, length, StandardCharsets.UTF_8);
             String zeroDate = "0000-00-00";
 
             if (rawValue.equals(zeroDate)) {
@@ -924,7 +1174,7 @@ public class MariaDbValueObject implements ValueObject {
                     );
                 case YEAR:
                     int year = Integer.parseInt(rawValue);
-                    if (rawBytes.length == 2 && columnInfo.getLength() == 2) {
+                    if (length == 2 && columnInfo.getLength() == 2) {
                         if (year <= 69) {
                             year += 2000;
                         } else {
@@ -956,20 +1206,25 @@ public class MariaDbValueObject implements ValueObject {
         if (rawBytes == null) {
             return null;
         }
-        String raw = new String(rawBytes, StandardCharsets.UTF_8);
-        String zeroDate = "0000-00-00";
-        if (raw.equals(zeroDate)) {
-            return null;
-        }
 
         if (!this.isBinaryEncoded) {
             if (dataType == MariaDbType.TIMESTAMP || dataType == MariaDbType.DATETIME) {
-                return new Time(getTimestamp(cal).getTime());
-            } else if (dataType == MariaDbType.DATE) {
-                Calendar zeroCal = Calendar.getInstance();
-                zeroCal.set(1970, 0, 1, 0, 0, 0);
-                zeroCal.set(Calendar.MILLISECOND, 0);
-                return new Time(zeroCal.getTimeInMillis());
+                Timestamp timestamp = getTimestamp(cal);
+                return (timestamp == null) ? null : new Time(timestamp.getTime());
+            }
+            if (dataType != MariaDbType.DATE) {
+                long epochMillis = parseTextTime();
+                if (epochMillis != NOT_PARSED) {
+                    return new Time(epochMillis);
+                }
+            }
+            String raw = new String(rawBytes, offset, length, StandardCharsets.UTF_8);
+            String zeroDate = "0000-00-00";
+            if (raw.equals(zeroDate)) {
+                return null;
+            }
+            if (dataType == MariaDbType.DATE) {
+                return new Time(TimeZoneOffsetCache.getInstance(TimeZone.getDefault()).getEpochMillis(1970, 1, 1, 0, 0, 0, 0));
             } else {
                 if (!options.useLegacyDatetimeCode && (raw.startsWith("-") || raw.split(":").length != 3 || raw.indexOf(":") > 3)) {
                     throw new ParseException("Time format \"" + raw + "\" incorrect, must be HH:mm:ss", 0);
@@ -1002,41 +1257,139 @@ public class MariaDbValueObject implements ValueObject {
         }
     }
 
+    /**
+     * Time zone used to decode timestamps : session calendar time zone, or default time zone when using legacy
+     * date time code.
+     * @param cal session calendar
+     * @return time zone
+     */
+    private TimeZone sessionTimeZone(Calendar cal) {
+        if (options.useLegacyDatetimeCode || cal == null) {
+            return TimeZone.getDefault();
+        }
+        return cal.getTimeZone();
+    }
+
+    /**
+     * Parse digits of text value at a fixed position.
+     * @param pos position in value
+     * @param count number of digits
+     * @return value, or -1 if a character is not a digit
+     */
+    private int parseDigits(int pos, int count) {
+        int value = 0;
+        for (int i = offset + pos; i < offset + pos + count; i++) {
+            int digit = rawBytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Check that text value has a valid fractional part (".ffffff", up to 9 digits) at this position, or nothing.
+     * @param pos position of fractional part
+     * @return true if valid
+     */
+    private boolean isTextFraction(int pos) {
+        if (length == pos) {
+            return true;
+        }
+        if (rawBytes[offset + pos] != '.' || length > pos + 10) {
+            return false;
+        }
+        return parseDigits(pos + 1, length - pos - 1) != -1;
+    }
+
+    /**
+     * Get nanoseconds from fractional part of text value, validated with isTextFraction.
+     * @param pos position of fractional part
+     * @return nanoseconds
+     */
+    private int parseTextNanos(int pos) {
+        int nanos = 0;
+        int digits = 0;
+        for (int i = offset + pos + 1; i < offset + length; i++) {
+            nanos = nanos * 10 + (rawBytes[i] - '0');
+            digits++;
+        }
+        for (; digits < 9; digits++) {
+            nanos *= 10;
+        }
+        return nanos;
+    }
+
+    /**
+     * Parse text value of format "YYYY-MM-DD[ HH:MM:SS[.ffffff]]" directly from raw bytes, without String, SimpleDateFormat
+     * or Calendar. Fractional part is not included, and can be retrieved with parseTextNanos(19).
+     * @param timeZone time zone of value
+     * @return epoch milliseconds, or NOT_PARSED if value has another format (like zero date) that must be handled as String.
+     */
+    private long parseTextDateTime(TimeZone timeZone) {
+        if (length != 10 && length < 19) {
+            return NOT_PARSED;
+        }
+        if (rawBytes[offset + 4] != '-' || rawBytes[offset + 7] != '-') {
+            return NOT_PARSED;
+        }
+        int year = parseDigits(0, 4);
+        int month = parseDigits(5, 2);
+        int day = parseDigits(8, 2);
+        int hour = 0;
+        int minutes = 0;
+        int seconds = 0;
+        if (length >= 19) {
+            if (rawBytes[offset + 10] != ' ' || rawBytes[offset + 13] != ':' || rawBytes[offset + 16] != ':' || !isTextFraction(19)) {
+                return NOT_PARSED;
+            }
+            hour = parseDigits(11, 2);
+            minutes = parseDigits(14, 2);
+            seconds = parseDigits(17, 2);
+        }
+        if (year == -1 || month <= 0 || day <= 0 || hour == -1 || minutes == -1 || seconds == -1) {
+            return NOT_PARSED;
+        }
+        return TimeZoneOffsetCache.getInstance(timeZone).getEpochMillis(year, month, day, hour, minutes, seconds, 0);
+    }
+
+    /**
+     * Parse text value of format "HH:MM:SS[.ffffff]" in the day range directly from raw bytes.
+     * @return epoch milliseconds of this time on 1970-01-01 in default time zone, or NOT_PARSED if value has another format
+     */
+    private long parseTextTime() {
+        if (length < 8 || rawBytes[offset + 2] != ':' || rawBytes[offset + 5] != ':' || !isTextFraction(8)) {
+            return NOT_PARSED;
+        }
+        int hour = parseDigits(0, 2);
+        int minutes = parseDigits(3, 2);
+        int seconds = parseDigits(6, 2);
+        if (hour == -1 || hour > 23 || minutes == -1 || minutes > 59 || seconds == -1 || seconds > 59) {
+            return NOT_PARSED;
+        }
+        return TimeZoneOffsetCache.getInstance(TimeZone.getDefault())
+                .getEpochMillis(1970, 1, 1, hour, minutes, seconds, parseTextNanos(8) / 1000000);
+    }
+
     private Date binaryDate(Calendar cal) throws ParseException {
         switch (dataType) {
             case TIMESTAMP:
             case DATETIME:
                 return new Date(getTimestamp(cal).getTime());
             default:
-                if (rawBytes.length == 0) {
+                if (length == 0) {
                     return null;
                 }
                 int year;
                 int month;
                 int day;
 
-                year = ((rawBytes[0] & 0xff) | (rawBytes[1] & 0xff) << 8);
-                month = rawBytes[2];
-                day = rawBytes[3];
+                year = ((rawBytes[offset] & 0xff) | (rawBytes[offset + 1] & 0xff) << 8);
+                month = rawBytes[offset + 2];
+                day = rawBytes[offset + 3];
 
-                Calendar calendar = Calendar.getInstance();
-                /*if (!options.useLegacyDatetimeCode) {
-                    c = cal;
-                }*/
-
-                Date dt;
-                synchronized (calendar) {
-                    calendar.clear();
-                    calendar.set(Calendar.YEAR, year);
-                    calendar.set(Calendar.MONTH, month - 1);
-                    calendar.set(Calendar.DAY_OF_MONTH, day);
-                    calendar.set(Calendar.HOUR_OF_DAY, 0);
-                    calendar.set(Calendar.MINUTE, 0);
-                    calendar.set(Calendar.SECOND, 0);
-                    calendar.set(Calendar.MILLISECOND, 0);
-                    dt = new Date(calendar.getTimeInMillis());
-                }
-                return dt;
+                return new Date(TimeZoneOffsetCache.getInstance(TimeZone.getDefault()).getEpochMillis(year, month, day, 0, 0, 0, 0));
         }
     }
 
@@ -1047,52 +1400,43 @@ public class MariaDbValueObject implements ValueObject {
                 Timestamp ts = binaryTimestamp(cal);
                 return new Time(ts.getTime());
             case DATE:
-                Calendar tmpCalendar = Calendar.getInstance();
-                tmpCalendar.clear();
-                tmpCalendar.set(1970, 0, 1, 0, 0, 0);
-                tmpCalendar.set(Calendar.MILLISECOND, 0);
-                return new Time(tmpCalendar.getTimeInMillis());
+                return new Time(TimeZoneOffsetCache.getInstance(TimeZone.getDefault()).getEpochMillis(1970, 1, 1, 0, 0, 0, 0));
             default:
-                Calendar calendar = Calendar.getInstance();
-                calendar.clear();
                 int day = 0;
                 int hour = 0;
                 int minutes = 0;
                 int seconds = 0;
                 boolean negate = false;
-                if (rawBytes.length > 0) {
-                    negate = (rawBytes[0] & 0xff) == 0x01;
+                if (length > 0) {
+                    negate = (rawBytes[offset] & 0xff) == 0x01;
                 }
-                if (rawBytes.length > 4) {
-                    day = ((rawBytes[1] & 0xff)
-                            | (rawBytes[2] & 0xff) << 8
-                            | (rawBytes[3] & 0xff) << 16
-                            | (rawBytes[4] & 0xff) << 24);
+                if (length > 4) {
+                    day = ((rawBytes[offset + 1] & 0xff)
+                            | (rawBytes[offset + 2] & 0xff) << 8
+                            | (rawBytes[offset + 3] & 0xff) << 16
+                            | (rawBytes[offset + 4] & 0xff) << 24);
                 }
-                if (rawBytes.length > 7) {
-                    hour = rawBytes[5];
-                    minutes = rawBytes[6];
-                    seconds = rawBytes[7];
+                if (length > 7) {
+                    hour = rawBytes[offset + 5];
+                    minutes = rawBytes[offset + 6];
+                    seconds = rawBytes[offset + 7];
                 }
-                calendar.set(1970, 0, ((negate ? -1 : 1) * day) + 1, (negate ? -1 : 1) * hour, minutes, seconds);
-
-                int nanoseconds = 0;
-                if (rawBytes.length > 8) {
-                    nanoseconds = ((rawBytes[8] & 0xff)
-                            | (rawBytes[9] & 0xff) << 8
-                            | (rawBytes[10] & 0xff) << 16
-                            | (rawBytes[11] & 0xff) << 24);
+                int microseconds = 0;
+                if (length > 8) {
+                    microseconds = ((rawBytes[offset + 8] & 0xff)
+                            | (rawBytes[offset + 9] & 0xff) << 8
+                            | (rawBytes[offset + 10] & 0xff) << 16
+                            | (rawBytes[offset + 11] & 0xff) << 24);
                 }
 
-                calendar.set(Calendar.MILLISECOND, nanoseconds / 1000);
-
-                return new Time(calendar.getTimeInMillis());
+                return new Time(TimeZoneOffsetCache.getInstance(TimeZone.getDefault()).getEpochMillis(1970, 1,
+                        ((negate ? -1 : 1) * day) + 1, (negate ? -1 : 1) * hour, minutes, seconds, microseconds / 1000));
         }
     }
 
 
     private Timestamp binaryTimestamp(Calendar cal) throws ParseException {
-        if (rawBytes.length == 0) {
+        if (length == 0) {
             return null;
         }
         int year;
@@ -1104,63 +1448,53 @@ public class MariaDbValueObject implements ValueObject {
         int microseconds = 0;
 
         if (dataType == MariaDbType.TIME) {
-            Calendar calendar = Calendar.getInstance();
-            calendar.clear();
-
             boolean negate = false;
-            if (rawBytes.length > 0) {
-                negate = (rawBytes[0] & 0xff) == 0x01;
+            if (length > 0) {
+                negate = (rawBytes[offset] & 0xff) == 0x01;
             }
-            if (rawBytes.length > 4) {
-                day = ((rawBytes[1] & 0xff)
-                        | (rawBytes[2] & 0xff) << 8
-                        | (rawBytes[3] & 0xff) << 16
-                        | (rawBytes[4] & 0xff) << 24);
+            if (length > 4) {
+                day = ((rawBytes[offset + 1] & 0xff)
+                        | (rawBytes[offset + 2] & 0xff) << 8
+                        | (rawBytes[offset + 3] & 0xff) << 16
+                        | (rawBytes[offset + 4] & 0xff) << 24);
             }
-            if (rawBytes.length > 7) {
-                hour = rawBytes[5];
-                minutes = rawBytes[6];
-                seconds = rawBytes[7];
+            if (length > 7) {
+                hour = rawBytes[offset + 5];
+                minutes = rawBytes[offset + 6];
+                seconds = rawBytes[offset + 7];
             }
 
-            if (rawBytes.length > 8) {
-                microseconds = ((rawBytes[8] & 0xff)
-                        | (rawBytes[9] & 0xff) << 8
-                        | (rawBytes[10] & 0xff) << 16
-                        | (rawBytes[11] & 0xff) << 24);
+            if (length > 8) {
+                microseconds = ((rawBytes[offset + 8] & 0xff)
+                        | (rawBytes[offset + 9] & 0xff) << 8
+                        | (rawBytes[offset + 10] & 0xff) << 16
+                        | (rawBytes[offset + 11] & 0xff) << 24);
             }
 
-            calendar.set(1970, 0, ((negate ? -1 : 1) * day) + 1, (negate ? -1 : 1) * hour, minutes, seconds);
-            Timestamp tt = new Timestamp(calendar.getTimeInMillis());
+            Timestamp tt = new Timestamp(TimeZoneOffsetCache.getInstance(TimeZone.getDefault()).getEpochMillis(1970, 1,
+                    ((negate ? -1 : 1) * day) + 1, (negate ? -1 : 1) * hour, minutes, seconds, 0));
             tt.setNanos(microseconds * 1000);
             return tt;
         } else {
-            year = ((rawBytes[0] & 0xff) | (rawBytes[1] & 0xff) << 8);
-            month = rawBytes[2];
-            day = rawBytes[3];
-            if (rawBytes.length > 4) {
-                hour = rawBytes[4];
-                minutes = rawBytes[5];
-                seconds = rawBytes[6];
-
-                if (rawBytes.length > 7) {
-                    microseconds = ((rawBytes[7] & 0xff)
-                            | (rawBytes[8] & 0xff) << 8
-                            | (rawBytes[9] & 0xff) << 16
-                            | (rawBytes[10] & 0xff) << 24);
+            year = ((rawBytes[offset] & 0xff) | (rawBytes[offset + 1] & 0xff) << 8);
+            month = rawBytes[offset + 2];
+            day = rawBytes[offset + 3];
+            if (length > 4) {
+                hour = rawBytes[offset + 4];
+                minutes = rawBytes[offset + 5];
+                seconds = rawBytes[offset + 6];
+
+                if (length > 7) {
+                    microseconds = ((rawBytes[offset + 7] & 0xff)
+                            | (rawBytes[offset + 8] & 0xff) << 8
+                            | (rawBytes[offset + 9] & 0xff) << 16
+                            | (rawBytes[offset + 10] & 0xff) << 24);
                 }
             }
         }
 
-        Calendar calendar = Calendar.getInstance();
-        if (!options.useLegacyDatetimeCode) {
-            calendar = cal;
-        }
-        Timestamp tt;
-        synchronized (calendar) {
-            calendar.set(year, month - 1, day, hour, minutes, seconds);
-            tt = new Timestamp(calendar.getTimeInMillis());
-        }
+        Timestamp tt = new Timestamp(TimeZoneOffsetCache.getInstance(sessionTimeZone(cal))
+                .getEpochMillis(year, month, day, hour, minutes, seconds, 0));
         tt.setNanos(microseconds * 1000);
         return tt;
     }
@@ -1198,7 +1532,15 @@ public class MariaDbValueObject implements ValueObject {
             return null;
         }
         if (!this.isBinaryEncoded) {
-            String rawValue = new String(rawBytes, StandardCharsets.UTF_8);
+            if (dataType != MariaDbType.TIME) {
+                long epochMillis = parseTextDateTime(sessionTimeZone(cal));
+                if (epochMillis != NOT_PARSED) {
+                    Timestamp timestamp = new Timestamp(epochMillis);
+                    timestamp.setNanos(parseTextNanos(19));
+                    return timestamp;
+                }
+            }
+            String rawValue = new String(rawBytes, offset, length, StandardCharsets.UTF_8);
             String zeroTimestamp = "0000-00-00 00:00:00";
             if (rawValue.equals(zeroTimestamp)) {
                 return null;
@@ -1261,7 +1603,7 @@ public class MariaDbValueObject implements ValueObject {
         if (rawBytes == null) {
             return null;
         }
-        return new ByteArrayInputStream(new String(rawBytes, StandardCharsets.UTF_8).getBytes());
+        return new ByteArrayInputStream(new String(rawBytes, offset, length, StandardCharsets.UTF_8).getBytes());
     }
 
     /**
@@ -1272,7 +1614,7 @@ public class MariaDbValueObject implements ValueObject {
         if (rawBytes == null) {
             return null;
         }
-        return new ByteArrayInputStream(rawBytes);
+        return new ByteArrayInputStream(getBytes());
     }
 
     /**
@@ -1284,15 +1626,15 @@ public class MariaDbValueObject implements ValueObject {
             return false;
         }
         if (!this.isBinaryEncoded) {
-            if (rawBytes.length == 1 && rawBytes[0] == 0) {
+            if (length == 1 && rawBytes[offset] == 0) {
                 return false;
             }
-            final String rawVal = new String(rawBytes, StandardCharsets.UTF_8);
+            final String rawVal = new String(rawBytes, offset, length, StandardCharsets.UTF_8);
             return !("false".equals(rawVal) || "0".equals(rawVal));
         } else {
             switch (dataType) {
                 case BIT:
-                    return rawBytes[0] != 0;
+                    return rawBytes[offset] != 0;
                 case TINYINT:
                     return getTinyInt() != 0;
                 case SMALLINT:
@@ -1308,7 +1650,7 @@ public class MariaDbValueObject implements ValueObject {
                 case DOUBLE:
                     return getDouble() != 0;
                 default:
-                    final String rawVal = new String(rawBytes, StandardCharsets.UTF_8);
+                    final String rawVal = new String(rawBytes, offset, length, StandardCharsets.UTF_8);
                     return !("false".equals(rawVal) || "0".equals(rawVal));
             }
         }
@@ -1323,10 +1665,10 @@ public class MariaDbValueObject implements ValueObject {
         String zeroDate = "0000-00-00";
         return (rawBytes == null
                 || (isBinaryEncoded && ((dataType == MariaDbType.DATE || dataType == MariaDbType.TIMESTAMP || dataType == MariaDbType.DATETIME)
-                && rawBytes.length == 0))
+                && length == 0))
                 || (!isBinaryEncoded && ((dataType == MariaDbType.TIMESTAMP || dataType == MariaDbType.DATETIME)
-                && zeroTimestamp.equals(new String(rawBytes, StandardCharsets.UTF_8))))
-                || (!isBinaryEncoded && (dataType == MariaDbType.DATE && zeroDate.equals(new String(rawBytes, StandardCharsets.UTF_8)))));
+                && zeroTimestamp.equals(new String(rawBytes, offset, length, StandardCharsets.UTF_8))))
+                || (!isBinaryEncoded && (dataType == MariaDbType.DATE && zeroDate.equals(new String(rawBytes, offset, length, StandardCharsets.UTF_8)))));
     }
 
     /**
@@ -1335,7 +1677,7 @@ public class MariaDbValueObject implements ValueObject {
      */
     public int getDisplayLength() {
         if (rawBytes != null) {
-            return rawBytes.length;
+            return length;
         }
         return 4; //NULL
     }
@@ -1348,7 +1690,7 @@ public class MariaDbValueObject implements ValueObject {
         if (rawBytes == null) {
             return null;
         }
-        return new MariaDbBlob(rawBytes);
+        return new MariaDbBlob(getBytes());
     }
 
     /**
@@ -1359,7 +1701,7 @@ public class MariaDbValueObject implements ValueObject {
         if (rawBytes == null) {
             return null;
         }
-        return new MariaDbClob(rawBytes);
+        return new MariaDbClob(getBytes());
     }
 
     /**
@@ -1377,15 +1719,15 @@ public class MariaDbValueObject implements ValueObject {
         switch (dataType) {
             case BIT:
                 if (columnInfo.getLength() == 1) {
-                    return rawBytes[0] != 0;
+                    return rawBytes[offset] != 0;
                 }
-                return rawBytes;
+                return getBytes();
             case TINYINT:
                 if (options.tinyInt1isBit && columnInfo.getLength() == 1) {
                     if (!this.isBinaryEncoded) {
-                        return rawBytes[0] != '0';
+                        return rawBytes[offset] != '0';
                     } else {
-                        return rawBytes[0] != 0;
+                        return rawBytes[offset] != 0;
                     }
                 }
                 return getInt();
@@ -0,0 +1,134 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012 Monty Program Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.queryresults;
+
+import org.mariadb.jdbc.internal.packet.result.RowPacket;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Decode raw rows of an ArenaRowStore, splitting rows in ranges decoded in parallel by a fork-join pool shared by
+ * all connections, sized to the number of available processors.
+ * Each range is decoded in place, so rows keep their original order.
+ */
+public class ParallelRowDecoder {
+    private static final int MIN_CHUNK_ROWS = 1024;
+
+    private static class PoolHolder {
+        private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Decode all raw rows of store. Rows are decoded in parallel if there is at least threshold rows,
+     * in current thread otherwise.
+     * @param rows store containing raw rows
+     * @param rowPacket row decoder
+     * @param threshold minimum number of rows to decode rows in parallel
+     * @throws IOException if a row packet is malformed
+     */
+    public static void decode(ArenaRowStore rows, RowPacket rowPacket, int threshold) throws IOException {
+        int size = rows.size();
+        if (size < threshold) {
+            rows.decodeRawRows(rowPacket, 0, size);
+        } else {
+            ForkJoinPool pool = PoolHolder.POOL;
+            int chunkRows = Math.max(MIN_CHUNK_ROWS, size / (pool.getParallelism() * 4));
+            try {
+                pool.invoke(new DecodeTask(rows, rowPacket, 0, size, chunkRows));
+            } catch (DecodeException e) {
+                throw (IOException) e.getCause();
+            }
+        }
+        rows.releaseRawRows();
+    }
+
+    private static class DecodeTask extends RecursiveAction {
+        private static final long serialVersionUID = -4470829526117382905L;
+        private final ArenaRowStore rows;
+        private final RowPacket rowPacket;
+        private final int from;
+        private final int to;
+        private final int chunkRows;
+
+        DecodeTask(ArenaRowStore rows, RowPacket rowPacket, int from, int to, int chunkRows) {
+            this.rows = rows;
+            this.rowPacket = rowPacket;
+            this.from = from;
+            this.to = to;
+            this.chunkRows = chunkRows;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkRows) {
+                try {
+                    //decoder reuse its reader : each range has its own
+                    rows.decodeRawRows(rowPacket.duplicate(), from, to);
+                } catch (IOException e) {
+                    throw new DecodeException(e);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new DecodeTask(rows, rowPacket, from, middle, chunkRows),
+                        new DecodeTask(rows, rowPacket, middle, to, chunkRows));
+            }
+        }
+    }
+
+    private static class DecodeException extends RuntimeException {
+        private static final long serialVersionUID = 2781359048852746193L;
+
+        DecodeException(IOException cause) {
+            super(cause);
+        }
+    }
+}
@@ -105,8 +105,9 @@ public abstract class SelectQueryResult extends AbstractQueryResult {
      * @param index the position, starts at 0
      * @return the value object at position index
      * @throws NoSuchColumnException if the column does not exist
+     * @throws QueryException if value cannot be read from result set temporary file
      */
-    public abstract ValueObject getValueObject(int index) throws NoSuchColumnException;
+    public abstract ValueObject getValueObject(int index) throws QueryException;
 
 
     /**
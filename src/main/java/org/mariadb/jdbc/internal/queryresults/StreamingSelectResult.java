@@ -14,6 +14,7 @@ import org.mariadb.jdbc.internal.protocol.MasterProtocol;
 import org.mariadb.jdbc.internal.packet.result.BinaryRowPacket;
 import org.mariadb.jdbc.internal.packet.result.TextRowPacket;
 import org.mariadb.jdbc.internal.packet.result.RowPacket;
+import org.mariadb.jdbc.internal.util.Options;
 import org.mariadb.jdbc.internal.util.constant.ServerStatus;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 
@@ -21,13 +22,15 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 
 public class StreamingSelectResult extends SelectQueryResult {
-    public ValueObject[] values;
+    public RowView row;
     private ReadPacketFetcher packetFetcher;
     private AbstractConnectProtocol protocol;
     private boolean isEof;
     private boolean beforeFirst;
     private boolean binaryProtocol;
     private RowPacket rowPacket;
+    private Options options;
+    private MariaDbValueObject valueObject;
 
 
     /**
@@ -45,11 +48,13 @@ public class StreamingSelectResult extends SelectQueryResult {
         this.beforeFirst = true;
         this.isEof = false;
         this.binaryProtocol = binaryProtocol;
+        this.options = protocol.getOptions();
+        this.row = new RowView(columnInformationLength);
         protocol.activeResult = this;
         if (binaryProtocol) {
-            rowPacket = new BinaryRowPacket(columnInformation, protocol.getOptions(), columnInformationLength);
+            rowPacket = new BinaryRowPacket(columnInformation, columnInformationLength);
         } else {
-            rowPacket = new TextRowPacket(columnInformation, protocol.getOptions(), columnInformationLength);
+            rowPacket = new TextRowPacket(columnInformationLength);
         }
     }
 
@@ -76,6 +81,26 @@ public class StreamingSelectResult extends SelectQueryResult {
             throw new QueryException("There is an active result set on the current connection, "
                     + "which must be closed prior to opening a new one");
         }
+        ColumnInformation[] ci = readColumnInformation(packet, packetFetcher);
+        ByteBuffer bufferEof = packetFetcher.getReusableBuffer();
+        if (!ReadUtil.eofIsNext(bufferEof)) {
+            throw new QueryException("Packets out of order when reading field packets, expected was EOF stream. "
+                    + "Packet contents (hex) = " + MasterProtocol.hexdump(bufferEof, 0));
+        }
+        return new StreamingSelectResult(ci, protocol, packetFetcher, binaryProtocol);
+
+    }
+
+    /**
+     * Read column definition packets that follow result set packet.
+     * @param packet         the result set stream from the server
+     * @param packetFetcher  packetfetcher
+     * @return columns information
+     * @throws IOException    when something goes wrong while reading from the server
+     * @throws QueryException if a column definition cannot be parsed
+     */
+    static ColumnInformation[] readColumnInformation(ResultSetPacket packet, ReadPacketFetcher packetFetcher)
+            throws IOException, QueryException {
         long fieldCount = packet.getFieldCount();
         ColumnInformation[] ci = new ColumnInformation[(int) fieldCount];
 
@@ -103,13 +128,7 @@ public class StreamingSelectResult extends SelectQueryResult {
                         + MasterProtocol.hexdump(rawPacket.getByteBuffer(), 0), 0, "HY000", e);
             }
         }
-        ByteBuffer bufferEof = packetFetcher.getReusableBuffer();
-        if (!ReadUtil.eofIsNext(bufferEof)) {
-            throw new QueryException("Packets out of order when reading field packets, expected was EOF stream. "
-                    + "Packet contents (hex) = " + MasterProtocol.hexdump(bufferEof, 0));
-        }
-        return new StreamingSelectResult(ci, protocol, packetFetcher, binaryProtocol);
-
+        return ci;
     }
 
     @Override
@@ -119,6 +138,35 @@ public class StreamingSelectResult extends SelectQueryResult {
         }
 
         ByteBuffer buffer = packetFetcher.getReusableBuffer();
+        if (isEnd(buffer)) {
+            return false;
+        }
+
+        //previous row is not reachable anymore : same row is re-pointed to the new packet
+        rowPacket.readRow(packetFetcher, buffer, row);
+        return true;
+    }
+
+    /**
+     * Copy next row packet in store without decoding it, decoding being done later with store decodeRawRows().
+     * @param rows store receiving raw row
+     * @return false if there is no more row
+     * @throws IOException if a connection error occur
+     * @throws QueryException if receiving an error packet
+     */
+    public boolean nextRaw(ArenaRowStore rows) throws IOException, QueryException {
+        if (isEof) {
+            return false;
+        }
+        ByteBuffer buffer = packetFetcher.getReusableRowBuffer();
+        if (isEnd(buffer)) {
+            return false;
+        }
+        rows.addRaw(buffer);
+        return true;
+    }
+
+    private boolean isEnd(ByteBuffer buffer) throws IOException, QueryException {
         byte initialByte = buffer.get(0);
 
         //is error Packet
@@ -137,35 +185,23 @@ public class StreamingSelectResult extends SelectQueryResult {
             warningCount = endOfFilePacket.getWarningCount();
             protocol.hasWarnings = (warningCount > 0);
             isEof = true;
-            values = null;
-            return false;
+            return true;
         }
-
-        values = rowPacket.getRow(packetFetcher, buffer);
-        return true;
+        return false;
     }
 
     /**
-     * Close resultset.
+     * Close resultset. Remaining rows are skipped without being read.
      */
     public void close() {
         super.close();
         if (protocol != null && protocol.activeResult == this) {
             try {
-                for (; ; ) {
-                    try {
-                        if (protocol.activeResult == null) {
-                            return;
-                        }
-                        if (!next()) {
-                            return;
-                        }
-                    } catch (QueryException qe) {
-                        return;
-                    } catch (IOException ioe) {
-                        return;
-                    }
+                if (!isEof) {
+                    drain();
                 }
+            } catch (IOException ioe) {
+                //eat exception
             } finally {
                 protocol.activeResult = null;
                 protocol = null;
@@ -174,15 +210,50 @@ public class StreamingSelectResult extends SelectQueryResult {
         }
     }
 
+    /**
+     * Skip remaining rows until end of result.
+     * If option killQueryDrainThreshold is set and this number of bytes has been skipped without reaching end of
+     * result, query is killed using another connection, server then sending an error packet that ends result.
+     * @throws IOException if a connection error occur
+     */
+    private void drain() throws IOException {
+        int threshold = (options != null) ? options.killQueryDrainThreshold : 0;
+        ByteBuffer buffer = packetFetcher.skipRowPackets((threshold > 0) ? threshold : Long.MAX_VALUE);
+        if (buffer == null) {
+            try {
+                protocol.cancelCurrentQuery();
+            } catch (QueryException | IOException e) {
+                //query not killed : all rows will be skipped
+            }
+            buffer = packetFetcher.skipRowPackets(Long.MAX_VALUE);
+        }
+        isEof = true;
+        if (buffer.get(0) == (byte) 0xff) {
+            protocol.moreResults = false;
+        } else {
+            final EndOfFilePacket endOfFilePacket = (EndOfFilePacket) ReadResultPacketFactory.createResultPacket(buffer);
+            protocol.moreResults = ((endOfFilePacket.getStatusFlags() & ServerStatus.MORE_RESULTS_EXISTS) != 0);
+            warningCount = endOfFilePacket.getWarningCount();
+            protocol.hasWarnings = (warningCount > 0);
+        }
+    }
+
     /**
      * Gets the value at position i in the result set. i starts at zero.
+     * Returned value object is reused for every value of this result set, and so must be read immediately.
      *
      * @param index index, starts at 0
      * @return the value
      */
     @Override
     public ValueObject getValueObject(int index) throws NoSuchColumnException {
-        return values[index];
+        if (valueObject == null) {
+            valueObject = new MariaDbValueObject(row.getBuffer(), row.getOffset(index), row.getLength(index), columnInformation[index],
+                    binaryProtocol, options);
+        } else {
+            valueObject.reset(row.getBuffer(), row.getOffset(index), row.getLength(index), columnInformation[index]);
+        }
+        return valueObject;
     }
 
     public int getRows() {
@@ -197,8 +268,16 @@ public class StreamingSelectResult extends SelectQueryResult {
         return isEof;
     }
 
+    RowPacket getRowPacket() {
+        return rowPacket;
+    }
+
     public boolean isBinaryProtocol() {
         return binaryProtocol;
     }
 
+    public Options getOptions() {
+        return options;
+    }
+
 }
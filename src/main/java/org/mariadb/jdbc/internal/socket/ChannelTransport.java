@@ -0,0 +1,69 @@
+package org.mariadb.jdbc.internal.socket;
+
+import org.mariadb.jdbc.internal.stream.ChannelInputStream;
+import org.mariadb.jdbc.internal.stream.ChannelOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Transport using a SocketChannel, read through a direct (off-heap) buffer.
+ * Channel is connected in blocking mode through its socket, then switched to non-blocking mode : reads and writes
+ * wait using a selector, so that socket timeout (SO_TIMEOUT) apply to writes too, when server does not read anymore.
+ * Datas are copied as many times as with socket streams.
+ */
+public class ChannelTransport implements Transport {
+    public static final int READ_BUFFER_SIZE = 32768;
+
+    private final SocketChannel channel;
+    private ChannelInputStream inputStream;
+    private ChannelOutputStream outputStream;
+
+    public ChannelTransport() throws IOException {
+        channel = SocketChannel.open();
+    }
+
+    public Socket getSocket() {
+        return channel.socket();
+    }
+
+    /**
+     * Get input stream reading channel through a direct buffer.
+     * Socket must be connected.
+     * @return input stream
+     * @throws IOException if channel cannot be registered
+     */
+    public InputStream getInputStream() throws IOException {
+        if (inputStream == null) {
+            configureNonBlocking();
+            inputStream = new ChannelInputStream(channel, READ_BUFFER_SIZE);
+        }
+        return inputStream;
+    }
+
+    /**
+     * Get output stream writing to channel.
+     * Socket must be connected.
+     * @return output stream
+     * @throws IOException if channel is not connected
+     */
+    public OutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            configureNonBlocking();
+            outputStream = new ChannelOutputStream(channel);
+        }
+        return outputStream;
+    }
+
+    private void configureNonBlocking() throws IOException {
+        if (!channel.isConnected()) {
+            throw new IOException("Channel is not connected");
+        }
+        if (channel.isBlocking()) {
+            channel.configureBlocking(false);
+        }
+    }
+}
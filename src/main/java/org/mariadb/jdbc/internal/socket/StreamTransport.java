@@ -0,0 +1,30 @@
+package org.mariadb.jdbc.internal.socket;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+
+/**
+ * Transport using socket streams. Input is buffered.
+ */
+public class StreamTransport implements Transport {
+    private final Socket socket;
+
+    public StreamTransport(Socket socket) {
+        this.socket = socket;
+    }
+
+    public Socket getSocket() {
+        return socket;
+    }
+
+    public InputStream getInputStream() throws IOException {
+        return new BufferedInputStream(socket.getInputStream(), 32768);
+    }
+
+    public OutputStream getOutputStream() throws IOException {
+        return socket.getOutputStream();
+    }
+}
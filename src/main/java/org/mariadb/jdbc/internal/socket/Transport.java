@@ -0,0 +1,20 @@
+package org.mariadb.jdbc.internal.socket;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+
+/**
+ * Byte transport between driver and server. Packets are read from input stream by ReadPacketFetcher, and written to
+ * output stream by PacketOutputStream.
+ */
+public interface Transport {
+
+    Socket getSocket();
+
+    InputStream getInputStream() throws IOException;
+
+    OutputStream getOutputStream() throws IOException;
+
+}
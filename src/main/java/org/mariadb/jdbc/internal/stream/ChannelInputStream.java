@@ -0,0 +1,99 @@
+package org.mariadb.jdbc.internal.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InputStream reading a non-blocking SocketChannel.
+ * Channel is read in a direct buffer, since reading a channel into a heap buffer make the JDK copy datas through a
+ * temporary direct buffer. Caller array then receive a copy of buffer datas, like with a buffered socket stream.
+ * Waiting for datas use socket timeout (SO_TIMEOUT) : SocketTimeoutException is thrown when it expire.
+ */
+public class ChannelInputStream extends InputStream {
+    private final SocketChannel channel;
+    private final Selector selector;
+    private final ByteBuffer buffer;
+
+    /**
+     * Create stream.
+     * @param channel connected non-blocking channel
+     * @param bufferSize direct buffer size
+     * @throws IOException if selector cannot be opened
+     */
+    public ChannelInputStream(SocketChannel channel, int bufferSize) throws IOException {
+        this.channel = channel;
+        this.selector = Selector.open();
+        channel.register(selector, SelectionKey.OP_READ);
+        buffer = ByteBuffer.allocateDirect(bufferSize);
+        buffer.flip();
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!buffer.hasRemaining() && fill() < 0) {
+            return -1;
+        }
+        return buffer.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] bytes, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining() && fill() < 0) {
+            return -1;
+        }
+        int count = Math.min(len, buffer.remaining());
+        buffer.get(bytes, off, count);
+        return count;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return buffer.remaining();
+    }
+
+    /**
+     * Read channel datas into buffer, waiting for datas if none is available.
+     * @return number of bytes read, -1 if end of stream
+     * @throws IOException if timeout or connection error occur
+     */
+    private int fill() throws IOException {
+        buffer.clear();
+        int count;
+        try {
+            long deadline = 0;
+            while ((count = channel.read(buffer)) == 0) {
+                int timeout = channel.socket().getSoTimeout();
+                long waitMillis = 0;
+                if (timeout > 0) {
+                    if (deadline == 0) {
+                        deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+                    }
+                    waitMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (waitMillis <= 0) {
+                        throw new SocketTimeoutException("Read timed out");
+                    }
+                }
+                selector.select(waitMillis);
+                selector.selectedKeys().clear();
+            }
+        } finally {
+            buffer.flip();
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        selector.close();
+        channel.close();
+    }
+}
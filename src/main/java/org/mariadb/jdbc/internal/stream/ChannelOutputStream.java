@@ -0,0 +1,86 @@
+package org.mariadb.jdbc.internal.stream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OutputStream writing to a non-blocking SocketChannel.
+ * Caller array is written in a single channel write when socket buffer allows it. As with socket streams, the JDK
+ * copies it to a temporary direct buffer.
+ * Datas are entirely sent to channel before each write returns. Waiting for socket buffer to be writable use socket
+ * timeout (SO_TIMEOUT) : SocketTimeoutException is thrown when it expire, where a socket stream write would wait
+ * indefinitely. Selector is only opened the first time socket buffer is full.
+ */
+public class ChannelOutputStream extends OutputStream {
+    private final SocketChannel channel;
+    private Selector selector;
+    private final ByteBuffer singleByte = ByteBuffer.allocate(1);
+
+    /**
+     * Create stream.
+     * @param channel connected non-blocking channel
+     */
+    public ChannelOutputStream(SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        singleByte.clear();
+        singleByte.put((byte) value);
+        singleByte.flip();
+        writeFully(singleByte);
+    }
+
+    @Override
+    public void write(byte[] bytes, int off, int len) throws IOException {
+        writeFully(ByteBuffer.wrap(bytes, off, len));
+    }
+
+    /**
+     * Write buffer to channel, waiting for socket to be writable if needed.
+     * @param buffer datas to write
+     * @throws IOException if timeout or connection error occur
+     */
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        long deadline = 0;
+        while (buffer.hasRemaining()) {
+            if (channel.write(buffer) == 0) {
+                if (selector == null) {
+                    selector = Selector.open();
+                    channel.register(selector, SelectionKey.OP_WRITE);
+                }
+                int timeout = channel.socket().getSoTimeout();
+                long waitMillis = 0;
+                if (timeout > 0) {
+                    if (deadline == 0) {
+                        deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+                    }
+                    waitMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (waitMillis <= 0) {
+                        throw new SocketTimeoutException("Write timed out");
+                    }
+                }
+                selector.select(waitMillis);
+                selector.selectedKeys().clear();
+            } else {
+                //progress has been made : timeout apply to each wait, like a socket read timeout
+                deadline = 0;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (selector != null) {
+            selector.close();
+        }
+        channel.close();
+    }
+}
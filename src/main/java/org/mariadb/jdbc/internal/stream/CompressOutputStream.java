@@ -1,9 +1,8 @@
 package org.mariadb.jdbc.internal.stream;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Deflater;
 
 public class CompressOutputStream extends OutputStream {
 
@@ -14,6 +13,8 @@ public class CompressOutputStream extends OutputStream {
     OutputStream baseStream;
     byte[] header = new byte[7];
     int seqNo = 0;
+    private final Deflater deflater = new Deflater();
+    private byte[] compressedBytes = new byte[0];
 
     public CompressOutputStream(OutputStream baseStream) {
         this.baseStream = baseStream;
@@ -36,16 +37,20 @@ public class CompressOutputStream extends OutputStream {
         int compressedLength = len;
         int uncompressedLength = 0;
 
-        if (bytes.length > MIN_COMPRESSION_SIZE) {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            DeflaterOutputStream deflater = new DeflaterOutputStream(baos);
-            deflater.write(bytes, off, len);
+        if (len > MIN_COMPRESSION_SIZE) {
+            int maxCompressedLength = (int) (MIN_COMPRESSION_RATIO * len);
+            if (compressedBytes.length < maxCompressedLength) {
+                compressedBytes = new byte[maxCompressedLength];
+            }
+            deflater.reset();
+            deflater.setInput(bytes, off, len);
             deflater.finish();
-            deflater.close();
-            byte[] compressedBytes = baos.toByteArray();
-            baos.close();
-            if (compressedBytes.length < (int) (MIN_COMPRESSION_RATIO * len)) {
-                compressedLength = compressedBytes.length;
+            int deflatedLength = 0;
+            while (!deflater.finished() && deflatedLength < maxCompressedLength) {
+                deflatedLength += deflater.deflate(compressedBytes, deflatedLength, maxCompressedLength - deflatedLength);
+            }
+            if (deflater.finished() && deflatedLength < maxCompressedLength) {
+                compressedLength = deflatedLength;
                 uncompressedLength = len;
                 bytes = compressedBytes;
                 off = 0;
@@ -79,6 +84,12 @@ public class CompressOutputStream extends OutputStream {
         throw new AssertionError("Invalid call, at least 3 byte writes are required");
     }
 
+    @Override
+    public void close() throws IOException {
+        deflater.end();
+        baseStream.close();
+    }
+
     @Override
     public void flush() throws IOException {
         baseStream.flush();
@@ -0,0 +1,132 @@
+package org.mariadb.jdbc.internal.stream;
+
+/**
+ * Per connection compression decision and statistics.
+ * When adaptive, after some consecutive packets that don't compress well (like already compressed BLOBs), compression
+ * is not tried for the following packets, for an increasing number of packets, then tried again.
+ * Counters are only updated by the connection thread, and can be read from any thread.
+ */
+public class CompressionPolicy {
+    private static final int INCOMPRESSIBLE_LIMIT = 4;
+    private static final int MIN_SKIP = 8;
+    private static final int MAX_SKIP = 256;
+
+    private final boolean adaptive;
+    private int incompressibleCount;
+    private int skipRemaining;
+    private int skipLength = MIN_SKIP;
+
+    private volatile long compressionAttempts;
+    private volatile long compressedPackets;
+    private volatile long skippedPackets;
+    private volatile long compressionNanos;
+    private volatile long sentUncompressedBytes;
+    private volatile long sentBytes;
+    private volatile long receivedUncompressedBytes;
+    private volatile long receivedBytes;
+
+    public CompressionPolicy(boolean adaptive) {
+        this.adaptive = adaptive;
+    }
+
+    /**
+     * Indicate if compression must be tried for next packet.
+     * @return true if compression must be tried
+     */
+    public boolean mustTryCompression() {
+        if (adaptive && skipRemaining > 0) {
+            skipRemaining--;
+            skippedPackets++;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Record a compression attempt.
+     * @param compressed true if packet has been compressed, false if compression was not efficient enough
+     * @param nanos time spent compressing
+     */
+    public void compressionAttempt(boolean compressed, long nanos) {
+        compressionAttempts++;
+        compressionNanos += nanos;
+        if (compressed) {
+            compressedPackets++;
+            incompressibleCount = 0;
+            skipLength = MIN_SKIP;
+        } else if (++incompressibleCount >= INCOMPRESSIBLE_LIMIT) {
+            skipRemaining = skipLength;
+            skipLength = Math.min(skipLength * 2, MAX_SKIP);
+        }
+    }
+
+    /**
+     * Record a packet sent.
+     * @param uncompressedLength packet length before compression
+     * @param length length sent, including compression header
+     */
+    public void sent(int uncompressedLength, int length) {
+        sentUncompressedBytes += uncompressedLength;
+        sentBytes += length;
+    }
+
+    /**
+     * Record a packet received.
+     * @param length length received, including compression header
+     * @param uncompressedLength packet length after decompression
+     */
+    public void received(int length, int uncompressedLength) {
+        receivedBytes += length;
+        receivedUncompressedBytes += uncompressedLength;
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    public long getCompressionAttempts() {
+        return compressionAttempts;
+    }
+
+    public long getCompressedPackets() {
+        return compressedPackets;
+    }
+
+    public long getSkippedPackets() {
+        return skippedPackets;
+    }
+
+    public long getCompressionNanos() {
+        return compressionNanos;
+    }
+
+    public long getSentUncompressedBytes() {
+        return sentUncompressedBytes;
+    }
+
+    public long getSentBytes() {
+        return sentBytes;
+    }
+
+    public long getReceivedUncompressedBytes() {
+        return receivedUncompressedBytes;
+    }
+
+    public long getReceivedBytes() {
+        return receivedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "CompressionPolicy{adaptive=" + adaptive
+                + ", compressionAttempts=" + compressionAttempts
+                + ", compressedPackets=" + compressedPackets
+                + ", skippedPackets=" + skippedPackets
+                + ", compressionNanos=" + compressionNanos
+                + ", sentUncompressedBytes=" + sentUncompressedBytes
+                + ", sentBytes=" + sentBytes
+                + ", receivedUncompressedBytes=" + receivedUncompressedBytes
+                + ", receivedBytes=" + receivedBytes
+                + "}";
+    }
+}
@@ -2,7 +2,6 @@ package org.mariadb.jdbc.internal.stream;
 
 import org.mariadb.jdbc.internal.util.buffer.ReadUtil;
 
-import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -11,14 +10,27 @@ import java.util.zip.DataFormatException;
 import java.util.zip.Inflater;
 
 public class DecompressInputStream extends InputStream {
+    private static final int MAX_REUSABLE_BUFFER_LENGTH = 1024 * 1024;
     InputStream baseStream;
     int remainingBytes;
     byte[] header;
     boolean doDecompress;
-    ByteArrayInputStream decompressedByteStream;
+    private final Inflater inflater = new Inflater();
+    private byte[] compressedBuffer = new byte[8192];
+    private final CompressionPolicy compressionPolicy;
 
     public DecompressInputStream(InputStream baseStream) {
+        this(baseStream, new CompressionPolicy(false));
+    }
+
+    /**
+     * Constructor.
+     * @param baseStream compressed stream
+     * @param compressionPolicy connection compression policy, to record received datas
+     */
+    public DecompressInputStream(InputStream baseStream, CompressionPolicy compressionPolicy) {
         this.baseStream = baseStream;
+        this.compressionPolicy = compressionPolicy;
         header = new byte[7];
     }
 
@@ -28,14 +40,22 @@ public class DecompressInputStream extends InputStream {
             throw new InvalidParameterException();
         }
 
-        if (remainingBytes == 0) {
+        while (remainingBytes == 0) {
             nextPacket();
         }
 
         int ret;
         int bytesToRead = Math.min(remainingBytes, len);
         if (doDecompress) {
-            ret = decompressedByteStream.read(bytes, off, bytesToRead);
+            //inflate directly in destination buffer
+            try {
+                ret = inflater.inflate(bytes, off, bytesToRead);
+            } catch (DataFormatException dfe) {
+                throw new IOException(dfe);
+            }
+            if (ret == 0 && (inflater.needsInput() || inflater.finished())) {
+                throw new IOException("Invalid stream length after decompression, missing " + remainingBytes + " bytes");
+            }
         } else {
             ret = baseStream.read(bytes, off, bytesToRead);
         }
@@ -63,7 +83,8 @@ public class DecompressInputStream extends InputStream {
 
 
     /**
-     * Read stream header. If required, decompress compressed stream.
+     * Read stream header. If required, prepare inflater with compressed datas : they will be decompressed
+     * directly in reader's buffer.
      *
      * @throws IOException exception
      */
@@ -71,31 +92,30 @@ public class DecompressInputStream extends InputStream {
         ReadUtil.readFully(baseStream, header);
         int compressedLength = (header[0] & 0xff) + ((header[1] & 0xff) << 8) + ((header[2] & 0xff) << 16);
         int decompressedLength = (header[4] & 0xff) + ((header[5] & 0xff) << 8) + ((header[6] & 0xff) << 16);
+        compressionPolicy.received(compressedLength + 7, decompressedLength != 0 ? decompressedLength : compressedLength);
         if (decompressedLength != 0) {
             doDecompress = true;
             remainingBytes += decompressedLength;
-            byte[] compressedBuffer = new byte[compressedLength];
-            byte[] decompressedBuffer = new byte[decompressedLength];
-            ReadUtil.readFully(baseStream, compressedBuffer);
-            Inflater inflater = new Inflater();
-            inflater.setInput(compressedBuffer);
-            try {
-                int actualUncompressBytes = inflater.inflate(decompressedBuffer);
-                if (actualUncompressBytes != decompressedLength) {
-                    throw new IOException("Invalid stream length after decompression " + actualUncompressBytes + ",expected "
-                            + decompressedLength);
+            byte[] buffer = compressedBuffer;
+            if (compressedLength > buffer.length) {
+                buffer = new byte[compressedLength];
+                if (compressedLength <= MAX_REUSABLE_BUFFER_LENGTH) {
+                    compressedBuffer = buffer;
                 }
-            } catch (DataFormatException dfe) {
-                throw new IOException(dfe);
             }
-            inflater.end();
-            decompressedByteStream = new ByteArrayInputStream(decompressedBuffer);
-
+            ReadUtil.readFully(baseStream, buffer, 0, compressedLength);
+            inflater.reset();
+            inflater.setInput(buffer, 0, compressedLength);
         } else {
             doDecompress = false;
             remainingBytes += compressedLength;
-            decompressedByteStream = null;
         }
     }
 
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        baseStream.close();
+    }
+
 }
@@ -3,17 +3,20 @@ package org.mariadb.jdbc.internal.stream;
 import java.io.*;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.sql.Timestamp;
-import java.util.Calendar;
-import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Deflater;
 
 
 public class PacketOutputStream extends OutputStream {
     //private final static Logger log = LoggerFactory.getLogger(PacketOutputStream.class);
-    private static final int MIN_COMPRESSION_SIZE = 16 * 1024;
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 16 * 1024;
     private static final float MIN_COMPRESSION_RATIO = 0.9f;
+    private static final int MAX_REUSABLE_BUFFER_LENGTH = 1024 * 1024;
     private static final int MAX_PACKET_LENGTH = 0x00ffffff;
     private static final int HEADER_LENGTH = 4;
+    private static final int COMPRESSION_HEADER_LENGTH = 7;
+    private static final int CHAR_CHUNK_LENGTH = 8192;
+    private static final int MAX_DEFERRED_COMMANDS = 16;
+    private static final int MAX_COALESCED_WRITE_LENGTH = 16 * 1024;
     public ByteBuffer buffer;
     int seqNo;
     int lastSeq;
@@ -22,6 +25,19 @@ public class PacketOutputStream extends OutputStream {
     boolean checkPacketLength;
     int maxRewritableLengthAllowed;
     boolean useCompression;
+    int sentLength;
+    int lastCommandLength;
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    private int compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
+    private Deflater deflater;
+    private CompressionPolicy compressionPolicy = new CompressionPolicy(false);
+    private byte[] packetBytes;
+    private byte[] compressedBytes;
+    private char[] charBuffer;
+    private byte[] deferredBytes;
+    private int deferredLength;
+    private int deferredCommands;
+    private boolean commandStart;
     private float increasing = 1.5f;
     private OutputStream outputStream;
     private volatile boolean closed = false;
@@ -53,6 +69,24 @@ public class PacketOutputStream extends OutputStream {
         this.useCompression = useCompression;
     }
 
+    public void setCompressionPolicy(CompressionPolicy compressionPolicy) {
+        this.compressionPolicy = compressionPolicy;
+    }
+
+    /**
+     * Set compression parameters.
+     * @param compressionLevel zlib compression level (0-9), or -1 for default level
+     * @param compressionThreshold packets smaller or equal to this size are not compressed
+     */
+    public void setCompressionOptions(int compressionLevel, int compressionThreshold) {
+        this.compressionLevel = compressionLevel;
+        this.compressionThreshold = compressionThreshold;
+        if (deflater != null) {
+            deflater.end();
+            deflater = null;
+        }
+    }
+
     /**
      * Initialize stream sequence. Max stream allowed size will be checked.
      * @param seqNo stream sequence number
@@ -68,7 +102,112 @@ public class PacketOutputStream extends OutputStream {
         }
         this.seqNo = seqNo;
         buffer.clear();
+        buffer.position(HEADER_LENGTH);
+        this.sentLength = 0;
         this.checkPacketLength = checkPacketLength;
+        this.commandStart = seqNo == 0;
+    }
+
+    /**
+     * Queue a command that has no server response (like COM_STMT_CLOSE), to be sent in the same socket write as next
+     * command. When compression is used, or if too many commands are already queued, commands are sent immediately.
+     * @param payload command datas
+     * @throws IOException if any error occur during data send to server
+     */
+    public void writeDeferredCommand(byte[] payload) throws IOException {
+        if (closed) {
+            throw new IOException("Stream has already closed");
+        }
+        if (this.seqNo != -1) {
+            throw new IOException("Last stream not finished");
+        }
+        if (useCompression) {
+            startPacket(0);
+            write(payload);
+            finishPacket();
+            return;
+        }
+        int length = deferredLength + HEADER_LENGTH + payload.length;
+        if (deferredBytes == null || deferredBytes.length < length) {
+            byte[] newBytes = new byte[Math.max(length, 256)];
+            if (deferredLength > 0) {
+                System.arraycopy(deferredBytes, 0, newBytes, 0, deferredLength);
+            }
+            deferredBytes = newBytes;
+        }
+        deferredBytes[deferredLength] = (byte) (payload.length & 0xff);
+        deferredBytes[deferredLength + 1] = (byte) (payload.length >>> 8);
+        deferredBytes[deferredLength + 2] = (byte) (payload.length >>> 16);
+        deferredBytes[deferredLength + 3] = 0;
+        System.arraycopy(payload, 0, deferredBytes, deferredLength + HEADER_LENGTH, payload.length);
+        deferredLength = length;
+        if (++deferredCommands >= MAX_DEFERRED_COMMANDS) {
+            flushDeferredCommands();
+        }
+    }
+
+    /**
+     * Send queued commands now, if any (for example when connection becomes idle).
+     * @throws IOException if any error occur during data send to server
+     */
+    public void flushDeferredCommands() throws IOException {
+        if (deferredLength > 0) {
+            int length = deferredLength;
+            deferredLength = 0;
+            deferredCommands = 0;
+            outputStream.write(deferredBytes, 0, length);
+            outputStream.flush();
+        }
+    }
+
+    public int getLastCommandLength() {
+        return lastCommandLength;
+    }
+
+    public int getDeferredCommands() {
+        return deferredCommands;
+    }
+
+    /**
+     * Write first packet of a command, preceded by queued commands, in a single write when small enough.
+     * @param bytes packet bytes
+     * @param off packet offset, including header
+     * @param len packet length, including header
+     * @throws IOException if any error occur during data send to server
+     */
+    private void writeWithDeferredCommands(byte[] bytes, int off, int len) throws IOException {
+        int length = deferredLength;
+        deferredLength = 0;
+        deferredCommands = 0;
+        if (length + len <= MAX_COALESCED_WRITE_LENGTH) {
+            if (deferredBytes.length < length + len) {
+                byte[] newBytes = new byte[length + len];
+                System.arraycopy(deferredBytes, 0, newBytes, 0, length);
+                deferredBytes = newBytes;
+            }
+            System.arraycopy(bytes, off, deferredBytes, length, len);
+            outputStream.write(deferredBytes, 0, length + len);
+        } else {
+            outputStream.write(deferredBytes, 0, length);
+            outputStream.write(bytes, off, len);
+        }
+    }
+
+    /**
+     * Write a packet. First packet of a command is preceded by queued commands, that must not be inserted between
+     * packets of a command.
+     * @param bytes packet bytes
+     * @param off packet offset, including header
+     * @param len packet length, including header
+     * @throws IOException if any error occur during data send to server
+     */
+    private void writePacket(byte[] bytes, int off, int len) throws IOException {
+        if (commandStart && deferredLength > 0) {
+            writeWithDeferredCommands(bytes, off, len);
+        } else {
+            outputStream.write(bytes, off, len);
+        }
+        commandStart = false;
     }
 
     /**
@@ -103,7 +242,10 @@ public class PacketOutputStream extends OutputStream {
     public void sendFile(InputStream is, int seq) throws IOException {
         this.seqNo = seq;
         buffer.clear();
+        buffer.position(HEADER_LENGTH);
+        this.sentLength = 0;
         this.checkPacketLength = false;
+        this.commandStart = false;
         byte[] buffer = new byte[8192];
         int len;
         while ((len = is.read(buffer)) > 0) {
@@ -152,12 +294,7 @@ public class PacketOutputStream extends OutputStream {
      * @throws IOException if any error occur during data send to server
      */
     public void sendStream(Reader reader) throws IOException {
-        char[] buffer = new char[8192];
-        int len;
-        while ((len = reader.read(buffer)) > 0) {
-            byte[] bytes = new String(buffer, 0, len).getBytes("UTF-8");
-            write(bytes, 0, bytes.length);
-        }
+        writeReader(reader, Long.MAX_VALUE, false, false);
     }
 
     /**
@@ -167,19 +304,42 @@ public class PacketOutputStream extends OutputStream {
      * @throws IOException if any error occur during data send to server
      */
     public void sendStream(Reader reader, long readLength) throws IOException {
-        char[] buffer = new char[8192];
+        writeReader(reader, readLength, false, false);
+    }
+
+    /**
+     * Write reader escaped for text protocol.
+     * @param reader reader to send
+     * @param readLength max number of chars to send
+     * @param noBackslashEscapes escape quote by doubling it, not using backslash
+     * @throws IOException if any error occur during data send to server
+     */
+    public void writeEscaped(Reader reader, long readLength, boolean noBackslashEscapes) throws IOException {
+        writeReader(reader, readLength, true, noBackslashEscapes);
+    }
+
+    private void writeReader(Reader reader, long readLength, boolean escape, boolean noBackslashEscapes) throws IOException {
+        char[] chars = charBuffer();
         long remainingReadLength = readLength;
-        int read;
+        int pending = 0;
         while (remainingReadLength > 0) {
-            read = reader.read(buffer, 0, Math.min((int)remainingReadLength, 8192));
-            if (read == -1) {
-                return;
+            int read = reader.read(chars, pending, (int) Math.min(remainingReadLength, chars.length - pending));
+            if (read <= 0) {
+                break;
             }
-            byte[] bytes = new String(buffer, 0, read).getBytes("UTF-8");
-            write(bytes, 0, bytes.length);
             remainingReadLength -= read;
+            int count = pending + read;
+            int written = encodeUtf8(chars, 0, count, false, escape, noBackslashEscapes);
+            //a high surrogate waiting for next char
+            pending = count - written;
+            if (pending > 0) {
+                chars[0] = chars[written];
+            }
+            streamFullPackets();
+        }
+        if (pending > 0) {
+            encodeUtf8(chars, 0, pending, true, escape, noBackslashEscapes);
         }
-
     }
 
     /**
@@ -190,6 +350,7 @@ public class PacketOutputStream extends OutputStream {
         /*if (this.seqNo == -1) {
             throw new AssertionError("Packet not started");
         }*/
+        lastCommandLength = sentLength + buffer.position() - HEADER_LENGTH;
         internalFlush();
         if (buffer.capacity() > 8192) {
             //to not keep big buffer in memory
@@ -208,8 +369,197 @@ public class PacketOutputStream extends OutputStream {
 
     @Override
     public void write(int byteInt) throws IOException {
-        byte[] byteArray = {(byte) byteInt};
-        write(byteArray);
+        if (this.seqNo == -1) {
+            throw new AssertionError("Use PacketOutputStream.startPacket() before write()");
+        }
+        assureBufferCapacity(1);
+        buffer.put((byte) byteInt);
+        streamFullPackets();
+    }
+
+    /**
+     * When not using compression, send full packets if buffer exceed a packet size.
+     * @throws IOException if any connection error occur
+     */
+    private void streamFullPackets() throws IOException {
+        if (!useCompression && buffer.position() - HEADER_LENGTH > maxPacketSize) {
+            sendFullPackets(0);
+        }
+    }
+
+    /**
+     * Write bytes escaped for text protocol.
+     * Quote is doubled if noBackslashEscapes, otherwise backslash, quote, double quote and NUL are escaped with a backslash.
+     * @param bytes bytes
+     * @param off offset
+     * @param len length
+     * @param noBackslashEscapes escape quote by doubling it, not using backslash
+     * @throws IOException if any connection error occur
+     */
+    public void writeEscaped(byte[] bytes, int off, int len, boolean noBackslashEscapes) throws IOException {
+        if (this.seqNo == -1) {
+            throw new AssertionError("Use PacketOutputStream.startPacket() before write()");
+        }
+        int end = off + len;
+        int pos = off;
+        while (pos < end) {
+            int chunkEnd = Math.min(end, pos + CHAR_CHUNK_LENGTH);
+            assureBufferCapacity((chunkEnd - pos) * 2);
+            byte[] dest = buffer.array();
+            int destPos = buffer.position();
+            for (; pos < chunkEnd; pos++) {
+                byte value = bytes[pos];
+                if (value == '\'' || (!noBackslashEscapes && (value == '\\' || value == '"' || value == 0))) {
+                    dest[destPos++] = noBackslashEscapes ? (byte) '\'' : (byte) '\\';
+                }
+                dest[destPos++] = value;
+            }
+            buffer.position(destPos);
+            streamFullPackets();
+        }
+    }
+
+    /**
+     * Write string encoded in UTF-8 and escaped for text protocol, directly in buffer.
+     * @param str string
+     * @param noBackslashEscapes escape quote by doubling it, not using backslash
+     * @throws IOException if any connection error occur
+     */
+    public void writeEscaped(String str, boolean noBackslashEscapes) throws IOException {
+        if (this.seqNo == -1) {
+            throw new AssertionError("Use PacketOutputStream.startPacket() before write()");
+        }
+        writeUtf8(str, true, noBackslashEscapes, true);
+    }
+
+    /**
+     * Write chars encoded in UTF-8 and escaped for text protocol, directly in buffer.
+     * @param chars chars
+     * @param off offset
+     * @param len number of chars
+     * @param noBackslashEscapes escape quote by doubling it, not using backslash
+     * @throws IOException if any connection error occur
+     */
+    public void writeEscaped(char[] chars, int off, int len, boolean noBackslashEscapes) throws IOException {
+        if (this.seqNo == -1) {
+            throw new AssertionError("Use PacketOutputStream.startPacket() before write()");
+        }
+        int end = off + len;
+        int pos = off;
+        while (pos < end) {
+            int chunkEnd = Math.min(end, pos + CHAR_CHUNK_LENGTH);
+            pos = encodeUtf8(chars, pos, chunkEnd, chunkEnd == end, true, noBackslashEscapes);
+            streamFullPackets();
+        }
+    }
+
+    private char[] charBuffer() {
+        if (charBuffer == null) {
+            charBuffer = new char[CHAR_CHUNK_LENGTH];
+        }
+        return charBuffer;
+    }
+
+    /**
+     * Write string encoded in UTF-8 by chunk.
+     * @param str string
+     * @param escape must datas be escaped for text protocol
+     * @param noBackslashEscapes escape quote by doubling it, not using backslash
+     * @param streaming can full packets be sent
+     * @throws IOException if any connection error occur
+     */
+    private void writeUtf8(String str, boolean escape, boolean noBackslashEscapes, boolean streaming) throws IOException {
+        char[] chars = charBuffer();
+        int length = str.length();
+        int pos = 0;
+        while (pos < length) {
+            int count = Math.min(length - pos, chars.length);
+            str.getChars(pos, pos + count, chars, 0);
+            pos += encodeUtf8(chars, 0, count, pos + count == length, escape, noBackslashEscapes);
+            if (streaming) {
+                streamFullPackets();
+            }
+        }
+    }
+
+    /**
+     * Encode chars in UTF-8 directly in buffer, with the same result as String.getBytes("UTF-8") (malformed surrogates
+     * are replaced by '?').
+     * @param chars chars
+     * @param off offset
+     * @param end end position
+     * @param endOfInput if false, a last high surrogate is not encoded, waiting for the next char
+     * @param escape must datas be escaped for text protocol
+     * @param noBackslashEscapes escape quote by doubling it, not using backslash
+     * @return position of first char not encoded
+     */
+    private int encodeUtf8(char[] chars, int off, int end, boolean endOfInput, boolean escape, boolean noBackslashEscapes) {
+        //at most 3 bytes per char, 4 for a surrogate pair
+        assureBufferCapacity((end - off) * 3 + 1);
+        byte[] dest = buffer.array();
+        int destPos = buffer.position();
+        int pos = off;
+        while (pos < end) {
+            char current = chars[pos];
+            if (current < 0x80) {
+                if (escape && (current == '\'' || (!noBackslashEscapes && (current == '\\' || current == '"' || current == 0)))) {
+                    dest[destPos++] = noBackslashEscapes ? (byte) '\'' : (byte) '\\';
+                }
+                dest[destPos++] = (byte) current;
+            } else if (current < 0x800) {
+                dest[destPos++] = (byte) (0xc0 | (current >> 6));
+                dest[destPos++] = (byte) (0x80 | (current & 0x3f));
+            } else if (Character.isHighSurrogate(current)) {
+                if (pos + 1 == end && !endOfInput) {
+                    break;
+                }
+                if (pos + 1 < end && Character.isLowSurrogate(chars[pos + 1])) {
+                    int codePoint = Character.toCodePoint(current, chars[++pos]);
+                    dest[destPos++] = (byte) (0xf0 | (codePoint >> 18));
+                    dest[destPos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                    dest[destPos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                    dest[destPos++] = (byte) (0x80 | (codePoint & 0x3f));
+                } else {
+                    dest[destPos++] = '?';
+                }
+            } else if (Character.isLowSurrogate(current)) {
+                dest[destPos++] = '?';
+            } else {
+                dest[destPos++] = (byte) (0xe0 | (current >> 12));
+                dest[destPos++] = (byte) (0x80 | ((current >> 6) & 0x3f));
+                dest[destPos++] = (byte) (0x80 | (current & 0x3f));
+            }
+            pos++;
+        }
+        buffer.position(destPos);
+        return pos;
+    }
+
+    /**
+     * Length of string encoded in UTF-8.
+     * @param str string
+     * @return length in bytes
+     */
+    private static int utf8Length(String str) {
+        int length = str.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char current = str.charAt(i);
+            if (current >= 0x80) {
+                if (current < 0x800) {
+                    bytes++;
+                } else if (Character.isHighSurrogate(current) && i + 1 < length && Character.isLowSurrogate(str.charAt(i + 1))) {
+                    //4 bytes for 2 chars
+                    bytes += 2;
+                    i++;
+                } else if (Character.isSurrogate(current)) {
+                    //malformed, replaced by '?'
+                } else {
+                    bytes += 2;
+                }
+            }
+        }
+        return bytes;
     }
 
     @Override
@@ -218,13 +568,42 @@ public class PacketOutputStream extends OutputStream {
             throw new AssertionError("Use PacketOutputStream.startPacket() before write()");
         }
 
-        while (len > buffer.remaining()) {
-            int newCapacity = Math.max(len + buffer.position(), (int) (buffer.capacity() * increasing));
-            increase(newCapacity);
+        if (!useCompression) {
+            //streaming : full packets are sent as soon as filled, so buffer never exceed one packet size
+            while (buffer.position() - HEADER_LENGTH + len > maxPacketSize) {
+                int count = Math.max(0, Math.min(len, maxPacketSize + HEADER_LENGTH - buffer.position()));
+                assureBufferCapacity(count);
+                buffer.put(bytes, off, count);
+                off += count;
+                len -= count;
+                sendFullPackets(len);
+            }
         }
+        assureBufferCapacity(len);
         buffer.put(bytes, off, len);
     }
 
+    /**
+     * Send full packets of buffer. Remaining datas are moved to the beginning of buffer.
+     * If all command datas are sent, last full packet will be followed by an empty packet when command is finished.
+     * @param pending length of datas that will be written after buffer ones
+     * @throws IOException if any connection error occur
+     */
+    private void sendFullPackets(int pending) throws IOException {
+        int limit = buffer.position();
+        checkPacketMaxSize(sentLength + limit - HEADER_LENGTH + pending);
+        byte[] bufferBytes = buffer.array();
+        int position = HEADER_LENGTH;
+        while (limit - position >= maxPacketSize) {
+            writeHeader(bufferBytes, position - HEADER_LENGTH, maxPacketSize);
+            writePacket(bufferBytes, position - HEADER_LENGTH, maxPacketSize + HEADER_LENGTH);
+            position += maxPacketSize;
+            sentLength += maxPacketSize;
+        }
+        System.arraycopy(bufferBytes, position, bufferBytes, HEADER_LENGTH, limit - position);
+        buffer.position(HEADER_LENGTH + limit - position);
+    }
+
 
     @Override
     public void flush() throws IOException {
@@ -238,144 +617,163 @@ public class PacketOutputStream extends OutputStream {
      * @return true if with this additional length stream can be send in the same stream
      */
     public boolean checkRewritableLength(int length) {
-        if (checkPacketLength && buffer.position() + length > maxRewritableLengthAllowed) {
+        if (checkPacketLength && sentLength + buffer.position() - HEADER_LENGTH + length > maxRewritableLengthAllowed) {
             return false;
         }
         return true;
     }
 
+    /**
+     * Check that current command + length will fit in one packet, and not exceed max_allowed_packet.
+     * @param length additional length
+     * @return true if current command can be extended with this length
+     */
+    public boolean checkSinglePacketLength(long length) {
+        return buffer.position() - HEADER_LENGTH + length <= maxPacketSize && (maxAllowedPacket <= 0 || checkRewritableLength((int) length));
+    }
+
     private void checkPacketMaxSize(int limit) throws MaxAllowedPacketException {
         if (checkPacketLength
                 && maxAllowedPacket > 0
                 && limit > (maxAllowedPacket - 1)) {
+            //connection must be reset only if some packets of this command have already been sent
+            boolean mustReconnect = this.seqNo != 0;
             this.seqNo = -1;
             throw new MaxAllowedPacketException("max_allowed_packet exceeded. stream size " + limit + " is > to max_allowed_packet = "
-                    + (maxAllowedPacket - 1), this.seqNo != 0);
+                    + (maxAllowedPacket - 1), mustReconnect);
         }
     }
 
+    /**
+     * Send buffer datas. Buffer start with HEADER_LENGTH reserved bytes, so that each packet is send with its header
+     * in a single write : header of following packets are written over the last bytes of previous packet, already sent.
+     * @throws IOException if any connection error occur
+     */
     private void internalFlush() throws IOException {
-        buffer.flip();
-        int limit = buffer.limit();
-        if (limit > 0) {
-            checkPacketMaxSize(limit);
-
-            byte[] bufferBytes = new byte[0];
-            int notCompressPosition = 0;
-            int expectedPacketSize = limit + HEADER_LENGTH * ((limit / maxPacketSize) + 1);
+        int limit = buffer.position();
+        int length = limit - HEADER_LENGTH;
+        if (length > 0 || sentLength > 0) {
+            checkPacketMaxSize(sentLength + length);
+            byte[] bufferBytes = buffer.array();
             if (useCompression) {
-                bufferBytes = new byte[expectedPacketSize];
-            }
-
-            while (notCompressPosition < expectedPacketSize) {
-                int length = buffer.remaining();
-                if (length > maxPacketSize) {
-                    length = maxPacketSize;
+                //packets with their header, after reserved space for compression header
+                byte[] packetBytes = reusableBuffer(this.packetBytes,
+                        COMPRESSION_HEADER_LENGTH + length + HEADER_LENGTH * ((length / maxPacketSize) + 1));
+                if (packetBytes.length <= MAX_REUSABLE_BUFFER_LENGTH) {
+                    this.packetBytes = packetBytes;
                 }
-                if (useCompression) {
-                    bufferBytes[notCompressPosition++] = (byte) (length & 0xff);
-                    bufferBytes[notCompressPosition++] = (byte) (length >>> 8);
-                    bufferBytes[notCompressPosition++] = (byte) (length >>> 16);
-                    bufferBytes[notCompressPosition++] = (byte) seqNo++;
-                } else {
-                    byte[] header = new byte[HEADER_LENGTH];
-                    header[0] = (byte) (length & 0xff);
-                    header[1] = (byte) (length >>> 8);
-                    header[2] = (byte) (length >>> 16);
-                    header[3] = (byte) seqNo++;
-                    outputStream.write(header);
-                    notCompressPosition += 4;
+                int position = HEADER_LENGTH;
+                int notCompressPosition = COMPRESSION_HEADER_LENGTH;
+                for (int i = 0; i <= length / maxPacketSize; i++) {
+                    int packetLength = Math.min(limit - position, maxPacketSize);
+                    writeHeader(packetBytes, notCompressPosition, packetLength);
+                    System.arraycopy(bufferBytes, position, packetBytes, notCompressPosition + HEADER_LENGTH, packetLength);
+                    notCompressPosition += HEADER_LENGTH + packetLength;
+                    position += packetLength;
                 }
-
-                if (length > 0) {
-                    if (useCompression) {
-                        buffer.get(bufferBytes, notCompressPosition, length);
-                        notCompressPosition += length;
-                    } else {
-                        if (buffer.hasArray()) {
-                            outputStream.write(buffer.array(), buffer.position(), length);
-                            buffer.position(buffer.position() + length);
-                        } else {
-                            bufferBytes = new byte[length];
-                            buffer.get(bufferBytes, 0, length);
-                            outputStream.write(bufferBytes, 0, length);
-                        }
-                        notCompressPosition += length;
-                        outputStream.flush();
-                    }
+                compressedAndSend(notCompressPosition, packetBytes);
+            } else {
+                int position = HEADER_LENGTH;
+                for (int i = 0; i <= length / maxPacketSize; i++) {
+                    int packetLength = Math.min(limit - position, maxPacketSize);
+                    writeHeader(bufferBytes, position - HEADER_LENGTH, packetLength);
+                    writePacket(bufferBytes, position - HEADER_LENGTH, packetLength + HEADER_LENGTH);
+                    position += packetLength;
                 }
-            }
-
-
-            if (useCompression) {
-                //now bufferBytes in filled with uncompressed data
-                compressedAndSend(notCompressPosition, bufferBytes);
+                outputStream.flush();
             }
         }
 
     }
 
+    private void writeHeader(byte[] bytes, int offset, int packetLength) {
+        bytes[offset] = (byte) (packetLength & 0xff);
+        bytes[offset + 1] = (byte) (packetLength >>> 8);
+        bytes[offset + 2] = (byte) (packetLength >>> 16);
+        bytes[offset + 3] = (byte) seqNo++;
+    }
+
     /**
      * Compress datas and send them to database.
-     * @param notCompressPosition notCompressPosition
-     * @param bufferBytes not compressed data buffer
+     * Each compressed packet is send with its header in a single write.
+     * @param notCompressPosition end of not compressed datas
+     * @param bufferBytes not compressed data buffer, starting with COMPRESSION_HEADER_LENGTH reserved bytes
      * @throws IOException if any compression or connection error occur
      */
     private void compressedAndSend(int notCompressPosition, byte[] bufferBytes) throws IOException {
         this.seqNo = 0;
-        int position = 0;
+        int position = COMPRESSION_HEADER_LENGTH;
         int packetLength;
 
         while (position - notCompressPosition < 0) {
             packetLength = Math.min(notCompressPosition - position, maxPacketSize);
             boolean compressedPacketSend = false;
 
-            if (packetLength > MIN_COMPRESSION_SIZE) {
-                ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                DeflaterOutputStream deflater = new DeflaterOutputStream(baos);
-
-                deflater.write(bufferBytes, position, packetLength);
+            if (packetLength > compressionThreshold && compressionPolicy.mustTryCompression()) {
+                long start = System.nanoTime();
+                //compressed datas are useless if bigger than this size : deflate stop when reached
+                int maxCompressedLength = (int) (MIN_COMPRESSION_RATIO * packetLength);
+                byte[] compressedBytes = reusableBuffer(this.compressedBytes, COMPRESSION_HEADER_LENGTH + maxCompressedLength);
+                if (compressedBytes.length <= MAX_REUSABLE_BUFFER_LENGTH) {
+                    this.compressedBytes = compressedBytes;
+                }
+                if (deflater == null) {
+                    deflater = new Deflater(compressionLevel);
+                }
+                deflater.reset();
+                deflater.setInput(bufferBytes, position, packetLength);
                 deflater.finish();
-                deflater.close();
-
-                byte[] compressedBytes = baos.toByteArray();
-                baos.close();
-
-                if (compressedBytes.length < (int) (MIN_COMPRESSION_RATIO * packetLength)) {
+                int compressedLength = 0;
+                while (!deflater.finished() && compressedLength < maxCompressedLength) {
+                    compressedLength += deflater.deflate(compressedBytes, COMPRESSION_HEADER_LENGTH + compressedLength,
+                            maxCompressedLength - compressedLength);
+                }
 
-                    int compressedLength = compressedBytes.length;
-                    writeCompressedHeader(compressedLength, packetLength, outputStream);
-                    outputStream.write(compressedBytes, 0, compressedLength);
-                    compressedPacketSend = true;
+                compressedPacketSend = deflater.finished() && compressedLength < maxCompressedLength;
+                compressionPolicy.compressionAttempt(compressedPacketSend, System.nanoTime() - start);
+                if (compressedPacketSend) {
+                    writeCompressedHeader(compressedBytes, 0, compressedLength, packetLength);
+                    outputStream.write(compressedBytes, 0, compressedLength + COMPRESSION_HEADER_LENGTH);
+                    compressionPolicy.sent(packetLength, compressedLength + COMPRESSION_HEADER_LENGTH);
                 }
             }
 
             if (!compressedPacketSend) {
-                writeCompressedHeader(packetLength, 0, outputStream);
-                outputStream.write(bufferBytes, position, packetLength);
+                writeCompressedHeader(bufferBytes, position - COMPRESSION_HEADER_LENGTH, packetLength, 0);
+                outputStream.write(bufferBytes, position - COMPRESSION_HEADER_LENGTH, packetLength + COMPRESSION_HEADER_LENGTH);
+                compressionPolicy.sent(packetLength, packetLength + COMPRESSION_HEADER_LENGTH);
             }
 
             position += packetLength;
-            outputStream.flush();
         }
+        outputStream.flush();
     }
 
-    private void writeCompressedHeader(int packetLength, int initialLength, OutputStream outputStream) throws IOException {
-        byte[] header = new byte[7];
-        header[0] = (byte) (packetLength & 0xff);
-        header[1] = (byte) ((packetLength >> 8) & 0xff);
-        header[2] = (byte) ((packetLength >> 16) & 0xff);
-        header[3] = (byte) seqNo++;
-        header[4] = (byte) (initialLength & 0xff);
-        header[5] = (byte) ((initialLength >> 8) & 0xff);
-        header[6] = (byte) ((initialLength >> 16) & 0xff);
-        outputStream.write(header);
+    private static byte[] reusableBuffer(byte[] buffer, int length) {
+        if (buffer == null || buffer.length < length) {
+            return new byte[length];
+        }
+        return buffer;
+    }
+
+    private void writeCompressedHeader(byte[] bytes, int offset, int packetLength, int initialLength) {
+        bytes[offset] = (byte) (packetLength & 0xff);
+        bytes[offset + 1] = (byte) ((packetLength >> 8) & 0xff);
+        bytes[offset + 2] = (byte) ((packetLength >> 16) & 0xff);
+        bytes[offset + 3] = (byte) seqNo++;
+        bytes[offset + 4] = (byte) (initialLength & 0xff);
+        bytes[offset + 5] = (byte) ((initialLength >> 8) & 0xff);
+        bytes[offset + 6] = (byte) ((initialLength >> 16) & 0xff);
     }
 
 
 
     @Override
     public void close() throws IOException {
+        if (deflater != null) {
+            deflater.end();
+            deflater = null;
+        }
         outputStream.close();
         buffer = null;
         closed = true;
@@ -401,9 +799,13 @@ public class PacketOutputStream extends OutputStream {
      * @return this
      */
     public PacketOutputStream assureBufferCapacity(final int len) {
-        while (len > buffer.remaining()) {
-            int newCapacity = Math.max(len + buffer.position(), (int) (buffer.capacity() * increasing));
-            increase(newCapacity);
+        if (len > buffer.remaining()) {
+            int newCapacity = (int) Math.min(buffer.capacity() * increasing, Integer.MAX_VALUE - 8);
+            if (!useCompression) {
+                //datas are sent by packet, no need to grow more than one packet
+                newCapacity = Math.min(newCapacity, maxPacketSize + HEADER_LENGTH);
+            }
+            increase(Math.max(len + buffer.position(), newCapacity));
         }
         return this;
     }
@@ -462,13 +864,12 @@ public class PacketOutputStream extends OutputStream {
      * @return this.
      */
     public PacketOutputStream writeString(final String str) {
-        final byte[] strBytes;
         try {
-            strBytes = str.getBytes("UTF-8");
-            return writeByteArray(strBytes);
-        } catch (UnsupportedEncodingException u) {
-            return this;
+            writeUtf8(str, false, false, false);
+        } catch (IOException ioe) {
+            //not possible : datas are not sent
         }
+        return this;
     }
 
     /**
@@ -536,50 +937,45 @@ public class PacketOutputStream extends OutputStream {
      * @return this.
      */
     public PacketOutputStream writeStringLength(final String str) {
-        try {
-            final byte[] strBytes = str.getBytes("UTF-8");
-            assureBufferCapacity(strBytes.length + 9);
-            writeFieldLength(strBytes.length);
-            buffer.put(strBytes);
-        } catch (UnsupportedEncodingException u) {
-        }
-        return this;
+        assureBufferCapacity(9);
+        writeFieldLength(utf8Length(str));
+        return writeString(str);
     }
 
     /**
      * Write timestamp in binary format.
-     * @param calendar session calendar
-     * @param ts timestamp to send
-     * @param fractionalSeconds must fractionnal second be send to server
+     * @param fields local date/time fields (year, month, day, hour, minutes, seconds), from TimeZoneOffsetCache.getFields
+     * @param microseconds microseconds
+     * @param fractionalSeconds must fractional seconds be send
      * @return this
      */
-    public PacketOutputStream writeTimestampLength(final Calendar calendar, Timestamp ts, boolean fractionalSeconds) {
+    public PacketOutputStream writeTimestampLength(int[] fields, int microseconds, boolean fractionalSeconds) {
         assureBufferCapacity(12);
-        buffer.put((byte) 11);//length
-
-        buffer.putShort((short) calendar.get(Calendar.YEAR));
-        buffer.put((byte) ((calendar.get(Calendar.MONTH) + 1) & 0xff));
-        buffer.put((byte) (calendar.get(Calendar.DAY_OF_MONTH) & 0xff));
-        buffer.put((byte) calendar.get(Calendar.HOUR_OF_DAY));
-        buffer.put((byte) calendar.get(Calendar.MINUTE));
-        buffer.put((byte) calendar.get(Calendar.SECOND));
+        buffer.put((byte) (fractionalSeconds ? 11 : 7));//length
+
+        buffer.putShort((short) fields[0]);
+        buffer.put((byte) (fields[1] & 0xff));
+        buffer.put((byte) (fields[2] & 0xff));
+        buffer.put((byte) fields[3]);
+        buffer.put((byte) fields[4]);
+        buffer.put((byte) fields[5]);
         if (fractionalSeconds) {
-            buffer.putInt(ts.getNanos() / 1000);
+            buffer.putInt(microseconds);
         }
         return this;
     }
 
     /**
      * Write date in binary format.
-     * @param calendar date
+     * @param fields local date fields (year, month, day), from TimeZoneOffsetCache.getFields
      * @return this
      */
-    public PacketOutputStream writeDateLength(final Calendar calendar) {
+    public PacketOutputStream writeDateLength(int[] fields) {
         assureBufferCapacity(8);
         buffer.put((byte) 7);//length
-        buffer.putShort((short) calendar.get(Calendar.YEAR));
-        buffer.put((byte) ((calendar.get(Calendar.MONTH) + 1) & 0xff));
-        buffer.put((byte) (calendar.get(Calendar.DAY_OF_MONTH) & 0xff));
+        buffer.putShort((short) fields[0]);
+        buffer.put((byte) (fields[1] & 0xff));
+        buffer.put((byte) (fields[2] & 0xff));
         buffer.put((byte) 0);
         buffer.put((byte) 0);
         buffer.put((byte) 0);
@@ -588,28 +984,28 @@ public class PacketOutputStream extends OutputStream {
 
     /**
      * Write time in binary format.
-     * @param calendar session calendar.
+     * @param fields local time fields (hour, minutes, seconds, milliseconds at index 3 to 6), from TimeZoneOffsetCache.getFields
      * @param fractionalSeconds fractional seconds must be send
      * @return this
      */
-    public PacketOutputStream writeTimeLength(final Calendar calendar, final boolean fractionalSeconds) {
+    public PacketOutputStream writeTimeLength(int[] fields, final boolean fractionalSeconds) {
         if (fractionalSeconds) {
             assureBufferCapacity(13);
             buffer.put((byte) 12);
             buffer.put((byte) 0);
             buffer.putInt(0);
-            buffer.put((byte) calendar.get(Calendar.HOUR_OF_DAY));
-            buffer.put((byte) calendar.get(Calendar.MINUTE));
-            buffer.put((byte) calendar.get(Calendar.SECOND));
-            buffer.putInt(calendar.get(Calendar.MILLISECOND) * 1000);
+            buffer.put((byte) fields[3]);
+            buffer.put((byte) fields[4]);
+            buffer.put((byte) fields[5]);
+            buffer.putInt(fields[6] * 1000);
         } else {
             assureBufferCapacity(9);
             buffer.put((byte) 8);//length
             buffer.put((byte) 0);
             buffer.putInt(0);
-            buffer.put((byte) calendar.get(Calendar.HOUR_OF_DAY));
-            buffer.put((byte) calendar.get(Calendar.MINUTE));
-            buffer.put((byte) calendar.get(Calendar.SECOND));
+            buffer.put((byte) fields[3]);
+            buffer.put((byte) fields[4]);
+            buffer.put((byte) fields[5]);
         }
         return this;
     }
@@ -321,7 +321,116 @@ public enum DefaultOptions {
     /**
      * Password for the client certificate keystore.
      */
-    CLIENT_CERTIFICATE_KEYSTORE_PASSWORD("clientCertificateKeyStorePassword", "1.3.0");
+    CLIENT_CERTIFICATE_KEYSTORE_PASSWORD("clientCertificateKeyStorePassword", "1.3.0"),
+
+    /**
+     * Maximum total size in bytes of receive buffers kept in pool, to read packets bigger than 1KB without allocation.
+     * 0 disable pooling.
+     * default to 1048576 (1MB).
+     */
+    RECEIVE_BUFFER_POOL_SIZE("receiveBufferPoolSize", new Integer(1024 * 1024), new Integer(0), Integer.MAX_VALUE, "1.3.7"),
+
+    /**
+     * If true, receive buffer pool is shared by all connections having this option, instead of one pool per connection.
+     * default to false.
+     */
+    SHARED_RECEIVE_BUFFER_POOL("sharedReceiveBufferPool", Boolean.FALSE, "1.3.7"),
+
+    /**
+     * Use a SocketChannel for TCP connections, instead of socket streams, so that socketTimeout also apply to writes :
+     * with socket streams, a write blocked because server does not read anymore never ends.
+     * Not used with SSL, named pipe, unix socket, shared memory or custom socket factory.
+     * default to false.
+     */
+    USE_NIO_TRANSPORT("useNioTransport", Boolean.FALSE, "1.3.7"),
+
+    /**
+     * When using compression, zlib compression level, from 0 (no compression) to 9 (best compression).
+     * default to -1 (zlib default level).
+     */
+    COMPRESSION_LEVEL("compressionLevel", new Integer(-1), new Integer(-1), new Integer(9), "1.3.7"),
+
+    /**
+     * When using compression, packets smaller or equal to this size in bytes are sent uncompressed.
+     * default to 16384.
+     */
+    COMPRESSION_THRESHOLD("compressionThreshold", new Integer(16 * 1024), new Integer(0), Integer.MAX_VALUE, "1.3.7"),
+
+    /**
+     * When using compression, stop trying to compress packets for a while when consecutive packets don't compress
+     * (like already compressed BLOBs), to avoid spending CPU time for no benefit.
+     * default to true.
+     */
+    ADAPTIVE_COMPRESSION("adaptiveCompression", Boolean.TRUE, "1.3.7"),
+
+    /**
+     * When executing a batch with server prepared statements, send execute commands without waiting for previous
+     * results, then read results. No command is sent after first error, but commands already sent are executed by
+     * server : BatchUpdateException update counts contain their results, failed commands being EXECUTE_FAILED.
+     * default to true.
+     */
+    USE_BATCH_MULTI_SEND("useBatchMultiSend", Boolean.TRUE, "1.3.7"),
+
+    /**
+     * When using useBatchMultiSend, maximum number of commands sent to server without having read their results.
+     * default to 100.
+     */
+    USE_BATCH_MULTI_SEND_NUMBER("useBatchMultiSendNumber", new Integer(100), new Integer(1), Integer.MAX_VALUE, "1.3.7"),
+
+    /**
+     * When executing a batch with server prepared statements, send all parameters in COM_STMT_BULK_EXECUTE commands
+     * if server supports it (MariaDB 10.2.7+). Update counts are then Statement.SUCCESS_NO_INFO.
+     * default to false.
+     */
+    USE_BULK_STMTS("useBulkStmts", Boolean.FALSE, "1.3.7"),
+
+    /**
+     * When a server prepared statement created with ResultSet.TYPE_FORWARD_ONLY has a positive fetch size, open a
+     * read-only server cursor and fetch rows by chunks of fetch size rows. Result-set can then only move forward.
+     * default to false.
+     */
+    USE_CURSOR_FETCH("useCursorFetch", Boolean.FALSE, "1.3.7"),
+
+    /**
+     * Maximum size in bytes of cached result set values and their positions kept in memory. Following rows are written
+     * in a temporary file, memory-mapped when read.
+     * default to 0 (no limit).
+     */
+    MAX_RESULTSET_MEMORY_SIZE("maxResultSetMemorySize", new Integer(0), new Integer(0), Integer.MAX_VALUE, "1.3.7"),
+
+    /**
+     * When closing a streaming result set before its end, if this number of bytes of remaining rows has been skipped,
+     * query is killed using another connection.
+     * default to 0 (never killed).
+     */
+    KILL_QUERY_DRAIN_THRESHOLD("killQueryDrainThreshold", new Integer(0), new Integer(0), Integer.MAX_VALUE, "1.3.7"),
+
+    /**
+     * For streaming result sets, number of packets read in advance by a background task while rows are processed.
+     * default to 0 (no read-ahead).
+     */
+    READ_AHEAD_PACKETS("readAheadPackets", new Integer(0), new Integer(0), Integer.MAX_VALUE, "1.3.7"),
+
+    /**
+     * Cached result sets with at least this number of rows have their rows decoded in parallel on all cores.
+     * default to 0 (rows decoded while read).
+     */
+    PARALLEL_DECODE_THRESHOLD("parallelDecodeThreshold", new Integer(0), new Integer(0), Integer.MAX_VALUE, "1.3.7"),
+
+    /**
+     * Maximum number of client side parse results of prepared statements kept in driver-wide cache, shared by
+     * connections. Cache is created with the value of the first connection using it.
+     * default to 2048. 0 disables cache.
+     */
+    CLIENT_PREP_STMT_CACHE_SIZE("clientPrepStmtCacheSize", new Integer(2048), new Integer(0), Integer.MAX_VALUE, "1.3.7"),
+
+    /**
+     * Queries longer than this number of characters are parsed without being kept in client side prepared statement
+     * cache : they are usually generated (multi-values insert, IN lists) and rarely reused.
+     * default to 16384.
+     */
+    CLIENT_PREP_STMT_CACHE_SQL_LIMIT("clientPrepStmtCacheSqlLimit", new Integer(16 * 1024), new Integer(0), Integer.MAX_VALUE,
+            "1.3.7");
 
     protected final String name;
     protected final Object objType;
@@ -0,0 +1,183 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012 Monty Program Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Driver-wide LRU cache of JDBC escape translation results (see {@link Utils#nativeSql(String, boolean)}).
+ * Only queries containing a '{' character are cached, others are returned unchanged without lookup.
+ */
+public final class NativeSqlCache {
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    /**
+     * Queries longer than this are translated each time, to avoid keeping big generated queries in memory.
+     */
+    public static final int MAX_QUERY_LENGTH = 16 * 1024;
+
+    private static final NativeSqlCache INSTANCE = new NativeSqlCache(DEFAULT_MAX_SIZE);
+
+    private final LinkedHashMap<String, String> map;
+    private final LinkedHashMap<String, String> noBackslashEscapesMap;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Create a cache.
+     * @param maxSize maximum number of cached queries for each noBackslashEscapes value
+     */
+    public NativeSqlCache(final int maxSize) {
+        map = createLruMap(maxSize);
+        noBackslashEscapesMap = createLruMap(maxSize);
+    }
+
+    private static LinkedHashMap<String, String> createLruMap(final int maxSize) {
+        return new LinkedHashMap<String, String>(16, .75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public static NativeSqlCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get cached translation.
+     * @param sql initial sql
+     * @param noBackslashEscapes must backslash be escape
+     * @return translated sql, or null if not in cache
+     */
+    public String get(String sql, boolean noBackslashEscapes) {
+        if (sql.length() > MAX_QUERY_LENGTH) {
+            misses.incrementAndGet();
+            return null;
+        }
+        LinkedHashMap<String, String> lruMap = noBackslashEscapes ? noBackslashEscapesMap : map;
+        String result;
+        synchronized (lruMap) {
+            result = lruMap.get(sql);
+        }
+        if (result == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return result;
+    }
+
+    /**
+     * Add a translation to cache.
+     * @param sql initial sql
+     * @param noBackslashEscapes must backslash be escape
+     * @param nativeSql translated sql
+     */
+    public void put(String sql, boolean noBackslashEscapes, String nativeSql) {
+        if (sql.length() > MAX_QUERY_LENGTH) {
+            return;
+        }
+        LinkedHashMap<String, String> lruMap = noBackslashEscapes ? noBackslashEscapesMap : map;
+        synchronized (lruMap) {
+            lruMap.put(sql, nativeSql);
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Ratio of translations found in cache.
+     * @return hit rate between 0 and 1, 0 if cache has not been used.
+     */
+    public double getHitRate() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Current number of cached translations.
+     * @return size
+     */
+    public int size() {
+        int size;
+        synchronized (map) {
+            size = map.size();
+        }
+        synchronized (noBackslashEscapesMap) {
+            size += noBackslashEscapesMap.size();
+        }
+        return size;
+    }
+
+    /**
+     * Remove all cached translations and reset statistics.
+     */
+    public void clear() {
+        synchronized (map) {
+            map.clear();
+        }
+        synchronized (noBackslashEscapesMap) {
+            noBackslashEscapesMap.clear();
+        }
+        hits.set(0);
+        misses.set(0);
+    }
+}
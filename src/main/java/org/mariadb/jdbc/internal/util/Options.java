@@ -98,6 +98,22 @@ public class Options {
     public boolean maximizeMysqlCompatibility;
     public boolean alwaysAutoGeneratedKeys;
     public boolean useServerPrepStmts;
+    public int receiveBufferPoolSize;
+    public boolean sharedReceiveBufferPool;
+    public boolean useNioTransport;
+    public int compressionLevel;
+    public int compressionThreshold;
+    public boolean adaptiveCompression;
+    public boolean useBatchMultiSend;
+    public int useBatchMultiSendNumber;
+    public boolean useBulkStmts;
+    public boolean useCursorFetch;
+    public int maxResultSetMemorySize;
+    public int killQueryDrainThreshold;
+    public int readAheadPackets;
+    public int parallelDecodeThreshold;
+    public int clientPrepStmtCacheSize;
+    public int clientPrepStmtCacheSqlLimit;
 
     //HA options
     public boolean assureReadOnly;
@@ -159,6 +175,22 @@ public class Options {
                 + ", failoverLoopRetries=" + failoverLoopRetries
                 + ", useLegacyDatetimeCode=" + useLegacyDatetimeCode
                 + ", maximizeMysqlCompatibility=" + maximizeMysqlCompatibility
+                + ", receiveBufferPoolSize=" + receiveBufferPoolSize
+                + ", sharedReceiveBufferPool=" + sharedReceiveBufferPool
+                + ", useNioTransport=" + useNioTransport
+                + ", compressionLevel=" + compressionLevel
+                + ", compressionThreshold=" + compressionThreshold
+                + ", adaptiveCompression=" + adaptiveCompression
+                + ", useBatchMultiSend=" + useBatchMultiSend
+                + ", useBatchMultiSendNumber=" + useBatchMultiSendNumber
+                + ", useBulkStmts=" + useBulkStmts
+                + ", useCursorFetch=" + useCursorFetch
+                + ", maxResultSetMemorySize=" + maxResultSetMemorySize
+                + ", killQueryDrainThreshold=" + killQueryDrainThreshold
+                + ", readAheadPackets=" + readAheadPackets
+                + ", parallelDecodeThreshold=" + parallelDecodeThreshold
+                + ", clientPrepStmtCacheSize=" + clientPrepStmtCacheSize
+                + ", clientPrepStmtCacheSqlLimit=" + clientPrepStmtCacheSqlLimit
                 + "}";
     }
 
@@ -243,6 +275,54 @@ public class Options {
         if (useServerPrepStmts != options.useServerPrepStmts) {
             return false;
         }
+        if (receiveBufferPoolSize != options.receiveBufferPoolSize) {
+            return false;
+        }
+        if (sharedReceiveBufferPool != options.sharedReceiveBufferPool) {
+            return false;
+        }
+        if (useNioTransport != options.useNioTransport) {
+            return false;
+        }
+        if (compressionLevel != options.compressionLevel) {
+            return false;
+        }
+        if (compressionThreshold != options.compressionThreshold) {
+            return false;
+        }
+        if (adaptiveCompression != options.adaptiveCompression) {
+            return false;
+        }
+        if (useBatchMultiSend != options.useBatchMultiSend) {
+            return false;
+        }
+        if (useBatchMultiSendNumber != options.useBatchMultiSendNumber) {
+            return false;
+        }
+        if (useBulkStmts != options.useBulkStmts) {
+            return false;
+        }
+        if (useCursorFetch != options.useCursorFetch) {
+            return false;
+        }
+        if (maxResultSetMemorySize != options.maxResultSetMemorySize) {
+            return false;
+        }
+        if (killQueryDrainThreshold != options.killQueryDrainThreshold) {
+            return false;
+        }
+        if (readAheadPackets != options.readAheadPackets) {
+            return false;
+        }
+        if (parallelDecodeThreshold != options.parallelDecodeThreshold) {
+            return false;
+        }
+        if (clientPrepStmtCacheSize != options.clientPrepStmtCacheSize) {
+            return false;
+        }
+        if (clientPrepStmtCacheSqlLimit != options.clientPrepStmtCacheSqlLimit) {
+            return false;
+        }
         if (assureReadOnly != options.assureReadOnly) {
             return false;
         }
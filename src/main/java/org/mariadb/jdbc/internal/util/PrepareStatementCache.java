@@ -53,17 +53,43 @@ import org.mariadb.jdbc.internal.protocol.Protocol;
 import org.mariadb.jdbc.internal.util.dao.PrepareResult;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Server prepared statement cache, using a segmented LRU policy.
+ *
+ * <p>New entries are added to a probation segment. An entry that is used again is promoted to a protected segment
+ * that can hold up to 80% of the cache. Eviction takes the least recently used entry of the probation segment first,
+ * so statements prepared only once evict each other, not statements that are reused. Protected entries that overflow
+ * the protected segment are moved back to probation.</p>
+ *
+ * <p>All methods are thread safe. Deallocation of evicted statements is done outside of cache lock.</p>
+ */
+public final class PrepareStatementCache {
+    private static final AtomicLong TOTAL_HITS = new AtomicLong();
+    private static final AtomicLong TOTAL_MISSES = new AtomicLong();
+    private static final AtomicLong TOTAL_EVICTIONS = new AtomicLong();
 
-public final class PrepareStatementCache extends LinkedHashMap<String, PrepareResult> {
     private final int maxSize;
+    private final int protectedMaxSize;
     private final Protocol protocol;
 
+    //insertion order is used as recency order : an accessed entry is removed and inserted again.
+    private final LinkedHashMap<String, PrepareResult> probation = new LinkedHashMap<>();
+    private final LinkedHashMap<String, PrepareResult> protectedSegment = new LinkedHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
     private PrepareStatementCache(int size, Protocol protocol) {
-        super(size, .75f, true);
         this.maxSize = size;
+        this.protectedMaxSize = size * 4 / 5;
         this.protocol = protocol;
     }
 
@@ -72,56 +98,178 @@ public final class PrepareStatementCache extends LinkedHashMap<String, PrepareRe
     }
 
     /**
-     * Remove eldestEntry.
-     * @param eldest eldest entry
-     * @return true if eldest entry must be removed
+     * Get cached prepare result, marking it as recently used.
+     * @param key key
+     * @return cached prepare result, or null if not cached
      */
-    @Override
-    public boolean removeEldestEntry(Map.Entry eldest) {
-        boolean mustBeRemoved = this.size() > maxSize;
-
-        if (mustBeRemoved) {
-            PrepareResult prepareResult = ((PrepareResult) eldest.getValue());
-            prepareResult.setRemoveFromCache();
-            if (prepareResult.canBeDeallocate()) {
-                try {
-                    protocol.forceReleasePrepareStatement(prepareResult.getStatementId());
-                } catch (QueryException e) {
-                    //eat exception
-                }
-            }
+    public PrepareResult get(String key) {
+        PrepareResult result;
+        synchronized (this) {
+            result = access(key);
         }
-        return mustBeRemoved;
+        if (result != null) {
+            hits.incrementAndGet();
+            TOTAL_HITS.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            TOTAL_MISSES.incrementAndGet();
+        }
+        return result;
     }
 
     /**
-     * Associates the specified value with the specified key in this map.
-     * If the map previously contained a mapping for the key,
+     * Associates the specified value with the specified key in this cache.
+     * If the cache previously contained a mapping for the key,
      * the existing cached prepared result shared counter will be incremented.
      * @param key key
      * @param result new prepare result.
      * @return the previous value associated with key if not been deallocate, or null if there was no mapping for key.
      */
-    @Override
-    public synchronized PrepareResult put(String key, PrepareResult result) {
-        PrepareResult cachedPrepareResult = super.get(key);
-        //if there is already some cached data (and not been deallocate), return existing cached data
-        if (cachedPrepareResult != null && cachedPrepareResult.incrementShareCounter()) {
-            return cachedPrepareResult;
+    public PrepareResult put(String key, PrepareResult result) {
+        List<PrepareResult> evicted;
+        synchronized (this) {
+            PrepareResult cachedPrepareResult = access(key);
+            //if there is already some cached data (and not been deallocate), return existing cached data
+            if (cachedPrepareResult != null && cachedPrepareResult.incrementShareCounter()) {
+                return cachedPrepareResult;
+            }
+            //if no cache data, or been deallocate, put new result in cache
+            if (cachedPrepareResult != null) {
+                probation.remove(key);
+                protectedSegment.remove(key);
+            }
+            result.setAddToCache();
+            probation.put(key, result);
+            evicted = evict();
+        }
+        if (evicted != null) {
+            for (PrepareResult prepareResult : evicted) {
+                release(prepareResult);
+            }
         }
-        //if no cache data, or been deallocate, put new result in cache
-        result.setAddToCache();
-        super.put(key, result);
         return null;
     }
 
+    /**
+     * Indicate if key is cached, without changing recency.
+     * @param key key
+     * @return true if cached
+     */
+    public synchronized boolean containsKey(String key) {
+        return probation.containsKey(key) || protectedSegment.containsKey(key);
+    }
+
+    public synchronized int size() {
+        return probation.size() + protectedSegment.size();
+    }
+
+    /**
+     * Remove all entries, without deallocating them (used when connection is closing).
+     */
+    public synchronized void clear() {
+        for (PrepareResult prepareResult : probation.values()) {
+            prepareResult.setRemoveFromCache();
+        }
+        for (PrepareResult prepareResult : protectedSegment.values()) {
+            prepareResult.setRemoveFromCache();
+        }
+        probation.clear();
+        protectedSegment.clear();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public static long getTotalHits() {
+        return TOTAL_HITS.get();
+    }
+
+    public static long getTotalMisses() {
+        return TOTAL_MISSES.get();
+    }
+
+    public static long getTotalEvictions() {
+        return TOTAL_EVICTIONS.get();
+    }
+
+    /**
+     * Mark entry as used : a probation entry is promoted to protected segment, a protected entry becomes most recently
+     * used. Must be called with lock.
+     * @param key key
+     * @return entry, or null if not cached
+     */
+    private PrepareResult access(String key) {
+        PrepareResult result = protectedSegment.remove(key);
+        if (result != null) {
+            protectedSegment.put(key, result);
+            return result;
+        }
+        result = probation.remove(key);
+        if (result != null) {
+            protectedSegment.put(key, result);
+            if (protectedSegment.size() > protectedMaxSize) {
+                Iterator<Map.Entry<String, PrepareResult>> iterator = protectedSegment.entrySet().iterator();
+                Map.Entry<String, PrepareResult> demoted = iterator.next();
+                iterator.remove();
+                probation.put(demoted.getKey(), demoted.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Remove entries exceeding cache size. Must be called with lock.
+     * @return evicted entries, or null if none
+     */
+    private List<PrepareResult> evict() {
+        List<PrepareResult> evicted = null;
+        while (size() > maxSize) {
+            LinkedHashMap<String, PrepareResult> segment = probation.isEmpty() ? protectedSegment : probation;
+            Iterator<PrepareResult> iterator = segment.values().iterator();
+            PrepareResult prepareResult = iterator.next();
+            iterator.remove();
+            prepareResult.setRemoveFromCache();
+            if (evicted == null) {
+                evicted = new ArrayList<>();
+            }
+            evicted.add(prepareResult);
+        }
+        return evicted;
+    }
+
+    private void release(PrepareResult prepareResult) {
+        evictions.incrementAndGet();
+        TOTAL_EVICTIONS.incrementAndGet();
+        if (prepareResult.canBeDeallocate()) {
+            try {
+                protocol.forceReleasePrepareStatement(prepareResult.getStatementId());
+            } catch (QueryException e) {
+                //eat exception
+            }
+        }
+    }
+
     @Override
-    public String toString() {
+    public synchronized String toString() {
         StringBuilder stringBuilder = new StringBuilder("PrepareStatementCache.map[");
-        for (Map.Entry<String, PrepareResult> entry : this.entrySet()) {
-            stringBuilder.append("\n").append(entry.getKey()).append("-").append(entry.getValue().getShareCounter());
-        }
+        appendEntries(stringBuilder, probation);
+        appendEntries(stringBuilder, protectedSegment);
         stringBuilder.append("]");
         return stringBuilder.toString();
     }
+
+    private static void appendEntries(StringBuilder stringBuilder, Map<String, PrepareResult> segment) {
+        for (Map.Entry<String, PrepareResult> entry : segment.entrySet()) {
+            stringBuilder.append("\n").append(entry.getKey()).append("-").append(entry.getValue().getShareCounter());
+        }
+    }
 }
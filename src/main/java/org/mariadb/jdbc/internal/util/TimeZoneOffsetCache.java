@@ -0,0 +1,271 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012 Monty Program Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * Convert local date/time fields to epoch milliseconds for a time zone and the reverse, without a Calendar per value.
+ * Offsets are cached by day. Days near an offset transition (DST change, zone redefinition) and dates before the
+ * gregorian cutover are computed with a Calendar, to keep exactly the Calendar behaviour.
+ * Instances are not thread-safe : use {@link #getInstance(TimeZone)} to get an instance for current thread.
+ */
+public class TimeZoneOffsetCache {
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    //bigger than any offset, so a stable offset on a window covers every instant of a local day
+    private static final long MAX_OFFSET_MILLIS = 18L * 60 * 60 * 1000;
+    private static final int MIN_GREGORIAN_YEAR = 1583;
+    //1583-01-01 epoch day
+    private static final long MIN_GREGORIAN_DAY = -141349;
+    private static final int UNSTABLE = Integer.MIN_VALUE;
+    private static final int CACHE_SIZE = 256;
+    private static final int ZONES_PER_THREAD = 4;
+
+    private static final ThreadLocal<TimeZoneOffsetCache[]> threadCaches = new ThreadLocal<TimeZoneOffsetCache[]>() {
+        @Override
+        protected TimeZoneOffsetCache[] initialValue() {
+            return new TimeZoneOffsetCache[ZONES_PER_THREAD];
+        }
+    };
+
+    private final TimeZone timeZone;
+    private final long[] days = new long[CACHE_SIZE];
+    private final int[] offsets = new int[CACHE_SIZE];
+    private final long[] utcDays = new long[CACHE_SIZE];
+    private final int[] utcOffsets = new int[CACHE_SIZE];
+    private final int[] fields = new int[7];
+    private Calendar calendar;
+
+    /**
+     * Constructor.
+     * @param timeZone time zone
+     */
+    public TimeZoneOffsetCache(TimeZone timeZone) {
+        this.timeZone = timeZone;
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            days[i] = Long.MIN_VALUE;
+            utcDays[i] = Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Get cache for current thread and this time zone.
+     * @param timeZone time zone
+     * @return cache
+     */
+    public static TimeZoneOffsetCache getInstance(TimeZone timeZone) {
+        TimeZoneOffsetCache[] caches = threadCaches.get();
+        for (int i = 0; i < ZONES_PER_THREAD; i++) {
+            TimeZoneOffsetCache cache = caches[i];
+            if (cache == null) {
+                break;
+            }
+            if (cache.timeZone == timeZone || cache.timeZone.equals(timeZone)) {
+                return cache;
+            }
+        }
+        //keep most recent first
+        TimeZoneOffsetCache cache = new TimeZoneOffsetCache((TimeZone) timeZone.clone());
+        System.arraycopy(caches, 0, caches, 1, ZONES_PER_THREAD - 1);
+        caches[0] = cache;
+        return cache;
+    }
+
+    public TimeZone getTimeZone() {
+        return timeZone;
+    }
+
+    /**
+     * Get epoch milliseconds of local date/time fields, with the same result as a lenient Calendar
+     * (fields out of range are added, like 25 hours is next day 1am).
+     * @param year year
+     * @param month month, 1 to 12
+     * @param day day of month
+     * @param hour hour of day
+     * @param minutes minutes
+     * @param seconds seconds
+     * @param millis milliseconds
+     * @return epoch milliseconds
+     */
+    public long getEpochMillis(int year, int month, int day, int hour, int minutes, int seconds, int millis) {
+        int monthIndex = month - 1;
+        int normalizedYear = year + floorDiv(monthIndex, 12);
+        int normalizedMonth = monthIndex - floorDiv(monthIndex, 12) * 12 + 1;
+        if (normalizedYear >= MIN_GREGORIAN_YEAR) {
+            long local = (daysFromCivil(normalizedYear, normalizedMonth, 1) + day - 1) * MILLIS_PER_DAY
+                    + hour * 3600000L + minutes * 60000L + seconds * 1000L + millis;
+            long localDay = floorDiv(local, MILLIS_PER_DAY);
+            int offset = getOffset(localDay);
+            if (offset != UNSTABLE) {
+                return local - offset;
+            }
+        }
+        if (calendar == null) {
+            calendar = new GregorianCalendar(timeZone);
+            calendar.setLenient(true);
+        }
+        calendar.clear();
+        calendar.set(year, month - 1, day, hour, minutes, seconds);
+        calendar.set(Calendar.MILLISECOND, millis);
+        return calendar.getTimeInMillis();
+    }
+
+    /**
+     * Get local date/time fields of an instant.
+     * Returned array is reused by next call, and contains year, month (1 to 12), day of month, hour of day, minutes,
+     * seconds and milliseconds.
+     * @param epochMillis epoch milliseconds
+     * @return local fields
+     */
+    public int[] getFields(long epochMillis) {
+        long utcDay = floorDiv(epochMillis, MILLIS_PER_DAY);
+        int slot = (int) (utcDay & (CACHE_SIZE - 1));
+        int offset;
+        if (utcDays[slot] == utcDay) {
+            offset = utcOffsets[slot];
+        } else {
+            long dayStart = utcDay * MILLIS_PER_DAY;
+            offset = timeZone.getOffset(dayStart);
+            if (offset != timeZone.getOffset(dayStart + MILLIS_PER_DAY - 1)) {
+                offset = UNSTABLE;
+            }
+            utcDays[slot] = utcDay;
+            utcOffsets[slot] = offset;
+        }
+        if (offset == UNSTABLE) {
+            offset = timeZone.getOffset(epochMillis);
+        }
+
+        long local = epochMillis + offset;
+        long localDay = floorDiv(local, MILLIS_PER_DAY);
+        if (localDay < MIN_GREGORIAN_DAY) {
+            if (calendar == null) {
+                calendar = new GregorianCalendar(timeZone);
+                calendar.setLenient(true);
+            }
+            calendar.setTimeInMillis(epochMillis);
+            fields[0] = calendar.get(Calendar.YEAR);
+            fields[1] = calendar.get(Calendar.MONTH) + 1;
+            fields[2] = calendar.get(Calendar.DAY_OF_MONTH);
+            fields[3] = calendar.get(Calendar.HOUR_OF_DAY);
+            fields[4] = calendar.get(Calendar.MINUTE);
+            fields[5] = calendar.get(Calendar.SECOND);
+            fields[6] = calendar.get(Calendar.MILLISECOND);
+            return fields;
+        }
+        civilFromDays(localDay, fields);
+        int millisOfDay = (int) (local - localDay * MILLIS_PER_DAY);
+        fields[3] = millisOfDay / 3600000;
+        fields[4] = (millisOfDay / 60000) % 60;
+        fields[5] = (millisOfDay / 1000) % 60;
+        fields[6] = millisOfDay % 1000;
+        return fields;
+    }
+
+    private int getOffset(long localDay) {
+        int slot = (int) (localDay & (CACHE_SIZE - 1));
+        if (days[slot] == localDay) {
+            return offsets[slot];
+        }
+        long dayStart = localDay * MILLIS_PER_DAY;
+        int offset = timeZone.getOffset(dayStart - MAX_OFFSET_MILLIS);
+        if (offset != timeZone.getOffset(dayStart + MILLIS_PER_DAY + MAX_OFFSET_MILLIS)) {
+            offset = UNSTABLE;
+        }
+        days[slot] = localDay;
+        offsets[slot] = offset;
+        return offset;
+    }
+
+    private static int floorDiv(int value, int divisor) {
+        return value >= 0 ? value / divisor : -((-value + divisor - 1) / divisor);
+    }
+
+    private static long floorDiv(long value, long divisor) {
+        long result = value / divisor;
+        return (value % divisor < 0) ? result - 1 : result;
+    }
+
+    /**
+     * Number of days since 1970-01-01 of a proleptic gregorian date.
+     * @param year year
+     * @param month month, 1 to 12
+     * @param day day of month
+     * @return epoch day
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        long yearShift = month <= 2 ? year - 1 : year;
+        long era = yearShift / 400;
+        long yearOfEra = yearShift - era * 400;
+        long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Proleptic gregorian date of a number of days since 1970-01-01.
+     * @param epochDay epoch day
+     * @param fields array that will receive year, month (1 to 12) and day of month
+     */
+    private static void civilFromDays(long epochDay, int[] fields) {
+        long shifted = epochDay + 719468;
+        long era = (shifted >= 0 ? shifted : shifted - 146096) / 146097;
+        long dayOfEra = shifted - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        fields[0] = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+        fields[1] = month;
+        fields[2] = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+    }
+}
@@ -57,8 +57,11 @@ import org.mariadb.jdbc.internal.protocol.AuroraProtocol;
 import org.mariadb.jdbc.internal.protocol.MasterProtocol;
 import org.mariadb.jdbc.internal.protocol.MastersSlavesProtocol;
 import org.mariadb.jdbc.internal.protocol.Protocol;
+import org.mariadb.jdbc.internal.socket.ChannelTransport;
 import org.mariadb.jdbc.internal.socket.NamedPipeSocket;
 import org.mariadb.jdbc.internal.socket.SharedMemorySocket;
+import org.mariadb.jdbc.internal.socket.StreamTransport;
+import org.mariadb.jdbc.internal.socket.Transport;
 import org.mariadb.jdbc.internal.socket.UnixDomainSocket;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 
@@ -369,11 +372,11 @@ public class Utils {
         String escapedLower = escaped.toLowerCase();
         if (escaped.startsWith("{fn ")) {
             String resolvedParams = replaceFunctionParameter(escaped.substring(4, endIndex));
-            return nativeSql(resolvedParams, noBackslashEscapes);
+            return translateEscapes(resolvedParams, noBackslashEscapes);
         } else if (escapedLower.startsWith("{oj ")) {
             // Outer join
             // the server supports "oj" in any case, even "oJ"
-            return nativeSql(escaped.substring(4, endIndex), noBackslashEscapes);
+            return translateEscapes(escaped.substring(4, endIndex), noBackslashEscapes);
         } else if (escaped.startsWith("{d ")) {
             // date literal
             return escaped.substring(3, endIndex);
@@ -395,12 +398,12 @@ public class Utils {
         } else if (escaped.startsWith("{call ") || escaped.startsWith("{CALL ")) {
             // We support uppercase "{CALL" only because Connector/J supports it. It is not in the JDBC spec.
 
-            return nativeSql(escaped.substring(1, endIndex), noBackslashEscapes);
+            return translateEscapes(escaped.substring(1, endIndex), noBackslashEscapes);
         } else if (escaped.startsWith("{escape ")) {
             return escaped.substring(1, endIndex);
         } else if (escaped.startsWith("{?")) {
             // likely ?=call(...)
-            return nativeSql(escaped.substring(1, endIndex), noBackslashEscapes);
+            return translateEscapes(escaped.substring(1, endIndex), noBackslashEscapes);
         } else if (escaped.startsWith("{ ")) {
             // Spaces before keyword, this is not JDBC compliant, however some it works in some drivers,
             // so we support it, too
@@ -414,7 +417,8 @@ public class Utils {
     }
 
     /**
-     * Escape sql String
+     * Escape sql String.
+     * Translations are cached in {@link NativeSqlCache}, queries without '{' are returned without lookup.
      * @param sql intial sql
      * @param noBackslashEscapes must backslash be escape
      * @return escaped sql string
@@ -424,6 +428,96 @@ public class Utils {
         if (sql.indexOf('{') == -1) {
             return sql;
         }
+        NativeSqlCache cache = NativeSqlCache.getInstance();
+        String nativeSql = cache.get(sql, noBackslashEscapes);
+        if (nativeSql == null) {
+            nativeSql = translateEscapes(sql, noBackslashEscapes);
+            cache.put(sql, noBackslashEscapes, nativeSql);
+        }
+        return nativeSql;
+    }
+
+    /**
+     * Check if sql contains escape sequences ('{' not in quotes or comments), without allocation.
+     * @param sql sql
+     * @param noBackslashEscapes must backslash be escape
+     * @return true if an escape sequence may be present
+     */
+    private static boolean containsEscape(String sql, boolean noBackslashEscapes) {
+        char lastChar = 0;
+        char quoteChar = 0;
+        boolean inQuote = false;
+        boolean inComment = false;
+        boolean isSlashSlashComment = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char car = sql.charAt(i);
+            if (lastChar == '\\' && !noBackslashEscapes) {
+                //escaped character
+                lastChar = 0;
+                continue;
+            }
+            switch (car) {
+                case '\'':
+                case '"':
+                    if (!inComment) {
+                        if (inQuote) {
+                            if (quoteChar == car) {
+                                inQuote = false;
+                            }
+                        } else {
+                            inQuote = true;
+                            quoteChar = car;
+                        }
+                    }
+                    break;
+                case '*':
+                    if (!inQuote && !inComment && lastChar == '/') {
+                        inComment = true;
+                        isSlashSlashComment = false;
+                    }
+                    break;
+                case '/':
+                case '-':
+                    if (!inQuote) {
+                        if (inComment) {
+                            if (lastChar == '*' && !isSlashSlashComment) {
+                                inComment = false;
+                            } else if (lastChar == car && isSlashSlashComment) {
+                                inComment = false;
+                            }
+                        } else {
+                            if (lastChar == car) {
+                                inComment = true;
+                                isSlashSlashComment = true;
+                            } else if (lastChar == '*') {
+                                inComment = true;
+                                isSlashSlashComment = false;
+                            }
+                        }
+                    }
+                    break;
+                case '\n':
+                    if (inComment && isSlashSlashComment) {
+                        inComment = false;
+                    }
+                    break;
+                case '{':
+                    if (!inQuote && !inComment) {
+                        return true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            lastChar = car;
+        }
+        return false;
+    }
+
+    private static String translateEscapes(String sql, boolean noBackslashEscapes) throws SQLException {
+        if (!containsEscape(sql, noBackslashEscapes)) {
+            return sql;
+        }
 
         StringBuilder escapeSequenceBuf = new StringBuilder();
         StringBuilder sqlBuffer = new StringBuilder();
@@ -618,6 +712,24 @@ public class Utils {
         Backtick /* found backtick */
     }
 
+    /**
+     * Create transport accordingly to options.
+     * SocketChannel transport is used if option "useNioTransport" is set, for plain TCP connections without SSL
+     * and custom socket factory.
+     * @param urlParser urlParser
+     * @param host hostName ( mandatory only for named pipe)
+     * @return a new transport, not connected
+     * @throws IOException if connection error occur
+     */
+    public static Transport createTransport(UrlParser urlParser, String host) throws IOException {
+        Options options = urlParser.getOptions();
+        if (options.useNioTransport && options.pipe == null && options.localSocket == null && options.sharedMemory == null
+                && options.socketFactory == null && !options.useSsl) {
+            return new ChannelTransport();
+        }
+        return new StreamTransport(createSocket(urlParser, host));
+    }
+
     /**
      * Create socket accordingly to options.
      * @param urlParser urlParser
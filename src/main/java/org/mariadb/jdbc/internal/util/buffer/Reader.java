@@ -58,6 +58,8 @@ import java.nio.charset.Charset;
 
 
 public class Reader {
+    private static final int MAX_PACKET_LENGTH = 0x00ffffff;
+    private static final int MAX_BUFFER_SIZE = Integer.MAX_VALUE - 8;
     public ByteBuffer byteBuffer;
 
 
@@ -65,6 +67,16 @@ public class Reader {
         this.byteBuffer = byteBuffer;
     }
 
+    /**
+     * Point reader to another buffer, so that a reader can be reused for each packet.
+     * @param byteBuffer new buffer
+     * @return this reader
+     */
+    public Reader reset(final ByteBuffer byteBuffer) {
+        this.byteBuffer = byteBuffer;
+        return this;
+    }
+
     /**
      * Reads a string from the buffer, looks for a 0 to end the string.
      *
@@ -246,38 +258,62 @@ public class Reader {
 
     /**
      * Add stream to bytebuffer.
+     * Existing datas and position are kept. Buffer grows geometrically, so that assembling a value split over
+     * many packets stay linear.
      * @param rawPacket stream to add if needed
      */
     public void appendPacket(RawPacket rawPacket) {
-        ByteBuffer newBuffer = ByteBuffer.allocate(byteBuffer.capacity() + rawPacket.getByteBuffer().capacity()).order(ByteOrder.LITTLE_ENDIAN);
-        final int pos = byteBuffer.position();
-        byteBuffer.rewind();
-        newBuffer.put(byteBuffer);
-        newBuffer.put(rawPacket.getByteBuffer());
-        newBuffer.position(pos);
-        byteBuffer = newBuffer;
+        ByteBuffer packetBuffer = rawPacket.getByteBuffer();
+        int length = packetBuffer.remaining();
+        ensureCapacity(length);
+        int limit = byteBuffer.limit();
+        packetBuffer.get(byteBuffer.array(), byteBuffer.arrayOffset() + limit, length);
+        byteBuffer.limit(limit + length);
     }
 
     /**
-     * If next data length is not contain in byteBuffer, add stream.
-     * @param rawPacket stream to add if needed
-     * @param encLength next data remaining length to fetch
+     * Ensure that buffer can receive additional bytes after its limit.
+     * If buffer must grow, capacity grows at least by half, to avoid copying datas for each appended packet.
+     * @param additional number of bytes that will be added
+     */
+    public void ensureCapacity(int additional) {
+        long needed = (long) byteBuffer.limit() + additional;
+        if (needed > byteBuffer.capacity()) {
+            long capacity = byteBuffer.capacity();
+            resize(Math.min(Math.max(needed, capacity + (capacity >> 1)), MAX_BUFFER_SIZE), needed);
+        }
+    }
+
+    /**
+     * Pre-size buffer to receive a value that is not entirely in buffer yet.
+     * Following packets are all full packets except the last one, so buffer is sized to a multiple of packet size
+     * to receive them without any other copy.
+     * @param missing number of bytes of the value not already in buffer
      */
-    public void appendPacket(RawPacket rawPacket, long encLength) {
-        if (encLength < byteBuffer.capacity()) {
-            byteBuffer.rewind();
-            byteBuffer.put(rawPacket.getByteBuffer());
-        } else {
-            ByteBuffer newBuffer = ByteBuffer.allocate(byteBuffer.capacity() + rawPacket.getByteBuffer().capacity()).order(ByteOrder.LITTLE_ENDIAN);
-            final int pos = byteBuffer.position();
-            byteBuffer.rewind();
-            newBuffer.put(byteBuffer);
-            newBuffer.put(rawPacket.getByteBuffer());
-            newBuffer.position(pos);
-            byteBuffer = newBuffer;
+    public void reserve(long missing) {
+        if (missing <= 0) {
+            return;
+        }
+        long packets = (missing + MAX_PACKET_LENGTH - 1) / MAX_PACKET_LENGTH;
+        long needed = (long) byteBuffer.limit() + missing;
+        long capacity = Math.min(byteBuffer.limit() + packets * MAX_PACKET_LENGTH, MAX_BUFFER_SIZE);
+        if (capacity > byteBuffer.capacity()) {
+            resize(Math.max(capacity, needed), needed);
         }
     }
 
+    private void resize(long capacity, long needed) {
+        if (needed > MAX_BUFFER_SIZE) {
+            throw new OutOfMemoryError("Value too large to be read : " + needed + " bytes");
+        }
+        byte[] newArray = new byte[(int) capacity];
+        System.arraycopy(byteBuffer.array(), byteBuffer.arrayOffset(), newArray, 0, byteBuffer.limit());
+        ByteBuffer newBuffer = ByteBuffer.wrap(newArray).order(ByteOrder.LITTLE_ENDIAN);
+        newBuffer.limit(byteBuffer.limit());
+        newBuffer.position(byteBuffer.position());
+        byteBuffer = newBuffer;
+    }
+
     /**
      * Return next binary field length without moving cursor position.
      * @return next binary field length
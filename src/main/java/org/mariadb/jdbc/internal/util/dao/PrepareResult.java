@@ -50,6 +50,7 @@ OF SUCH DAMAGE.
 package org.mariadb.jdbc.internal.util.dao;
 
 import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
+import org.mariadb.jdbc.internal.queryresults.CursorSelectResult;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -62,6 +63,7 @@ public class PrepareResult {
     private volatile int shareCounter = 1;
     private volatile boolean isBeingDeallocate;
     private AtomicBoolean inCache = new AtomicBoolean();
+    private CursorSelectResult activeCursor;
 
     /**
      * PrepareStatement Result object.
@@ -121,6 +123,19 @@ public class PrepareResult {
         return shareCounter;
     }
 
+    /**
+     * Result which server cursor is open on this statement. Cursor is closed by server when statement is executed
+     * again, so its remaining rows must be fetched before.
+     * @return active cursor result, or null
+     */
+    public CursorSelectResult getActiveCursor() {
+        return activeCursor;
+    }
+
+    public void setActiveCursor(CursorSelectResult activeCursor) {
+        this.activeCursor = activeCursor;
+    }
+
     public int getStatementId() {
         return statementId;
     }
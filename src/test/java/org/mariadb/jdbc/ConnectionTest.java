@@ -283,4 +283,49 @@ public class ConnectionTest extends BaseTest {
         }
     }
 
+    /**
+     * SocketChannel transport must handle small and large packets, compression and socket timeout.
+     *
+     * @throws SQLException exception
+     */
+    @Test
+    public void nioTransport() throws SQLException {
+        for (String params : new String[]{"&useNioTransport=true", "&useNioTransport=true&useCompression=true"}) {
+            Connection connection = null;
+            try {
+                connection = setConnection(params);
+                Statement stmt = connection.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT 1, REPEAT('a', 100000)");
+                assertTrue(rs.next());
+                assertEquals(1, rs.getInt(1));
+                assertEquals(100000, rs.getString(2).length());
+
+                PreparedStatement ps = connection.prepareStatement("SELECT ?");
+                char[] chars = new char[50000];
+                Arrays.fill(chars, 'b');
+                ps.setString(1, new String(chars));
+                rs = ps.executeQuery();
+                assertTrue(rs.next());
+                assertEquals(new String(chars), rs.getString(1));
+            } finally {
+                if (connection != null) {
+                    connection.close();
+                }
+            }
+        }
+
+        Connection connection = null;
+        try {
+            connection = setConnection("&useNioTransport=true&socketTimeout=500");
+            connection.createStatement().execute("SELECT SLEEP(2)");
+            fail("socket timeout must have been thrown");
+        } catch (SQLException sqle) {
+            //expected
+        } finally {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+
 }
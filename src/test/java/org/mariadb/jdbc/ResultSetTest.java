@@ -3,8 +3,13 @@ package org.mariadb.jdbc;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
 
 import static org.junit.Assert.*;
 
@@ -16,6 +21,8 @@ public class ResultSetTest extends BaseTest {
     @BeforeClass()
     public static void initClass() throws SQLException {
         createTable("result_set_test", "id int not null primary key auto_increment, name char(20)");
+        createTable("result_set_test_values", "id int not null primary key, name varchar(20), amount decimal(10,2), "
+                + "flag tinyint, creation datetime, data blob");
     }
 
 
@@ -213,6 +220,132 @@ public class ResultSetTest extends BaseTest {
         }
     }
 
+    @Test
+    public void rowValuesTest() throws SQLException {
+        Statement stmt = sharedConnection.createStatement();
+        stmt.execute("truncate result_set_test_values");
+        for (int i = 1; i <= 50; i++) {
+            stmt.executeUpdate("INSERT INTO result_set_test_values VALUES(" + i + ", " + ((i % 3 == 0) ? "null" : "'name" + i + "'")
+                    + ", " + i + ".25, " + (i % 2) + ", '2016-03-0" + (i % 9 + 1) + " 10:20:30', " + ((i % 5 == 0) ? "null" : "'data" + i + "'")
+                    + ")");
+        }
+        checkRowValues(stmt.executeQuery("SELECT * FROM result_set_test_values ORDER BY id"));
+
+        Statement streamingStmt = sharedConnection.createStatement();
+        streamingStmt.setFetchSize(Integer.MIN_VALUE);
+        checkRowValues(streamingStmt.executeQuery("SELECT * FROM result_set_test_values ORDER BY id"));
+
+        PreparedStatement preparedStatement = sharedConnection.prepareStatement("SELECT * FROM result_set_test_values WHERE id > ? ORDER BY id");
+        preparedStatement.setInt(1, 0);
+        checkRowValues(preparedStatement.executeQuery());
+
+        preparedStatement.setFetchSize(Integer.MIN_VALUE);
+        checkRowValues(preparedStatement.executeQuery());
+    }
+
+    @Test
+    public void streamingEarlyClose() throws SQLException {
+        //closing a streaming result before its end : remaining rows are skipped, then query killed
+        insertRows(100);
+        try (Connection connection = setConnection("&killQueryDrainThreshold=65536")) {
+            Statement stmt = connection.createStatement();
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            ResultSet rs = stmt.executeQuery("SELECT t1.seq, REPEAT('a', 100) FROM "
+                    + "(SELECT a.id * 100 + b.id as seq FROM result_set_test a, result_set_test b) t1, "
+                    + "(SELECT a.id * 100 + b.id as seq FROM result_set_test a, result_set_test b) t2");
+            for (int i = 0; i < 100; i++) {
+                assertTrue(rs.next());
+            }
+            rs.close();
+
+            //connection is synchronized
+            rs = connection.createStatement().executeQuery("SELECT 1");
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1));
+        }
+    }
+
+    @Test
+    public void streamingReadAhead() throws SQLException {
+        insertRows(100);
+        try (Connection connection = setConnection("&readAheadPackets=16")) {
+            Statement stmt = connection.createStatement();
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            for (int loop = 0; loop < 3; loop++) {
+                ResultSet rs = stmt.executeQuery("SELECT a.id, b.name FROM result_set_test a, result_set_test b ORDER BY a.id, b.id");
+                for (int i = 1; i <= 100; i++) {
+                    for (int j = 1; j <= 100; j++) {
+                        assertTrue(rs.next());
+                        assertEquals(i, rs.getInt(1));
+                        assertEquals("row" + j, rs.getString(2));
+                    }
+                }
+                assertFalse(rs.next());
+            }
+            //early close with read-ahead
+            ResultSet rs = stmt.executeQuery("SELECT a.id FROM result_set_test a, result_set_test b");
+            assertTrue(rs.next());
+            rs.close();
+            rs = connection.createStatement().executeQuery("SELECT 1");
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1));
+        }
+    }
+
+    @Test
+    public void streamingRowReuseTest() throws SQLException {
+        Statement stmt = sharedConnection.createStatement();
+        stmt.setFetchSize(Integer.MIN_VALUE);
+        //alternate small rows and rows bigger than the reusable packet buffer
+        ResultSet rs = stmt.executeQuery("SELECT seq, IF(seq % 2 = 0, REPEAT('a', 3000), 'b'), IF(seq % 3 = 0, null, seq * 2) FROM "
+                + "(SELECT 1 as seq UNION SELECT 2 UNION SELECT 3 UNION SELECT 4 UNION SELECT 5 UNION SELECT 6) t ORDER BY seq");
+        for (int i = 1; i <= 6; i++) {
+            assertTrue(rs.next());
+            assertEquals(i, rs.getInt(1));
+            String value = rs.getString(2);
+            if (i % 2 == 0) {
+                assertEquals(3000, value.length());
+            } else {
+                assertEquals("b", value);
+            }
+            assertEquals((i % 3 == 0) ? 0 : i * 2, rs.getInt(3));
+            assertEquals(i % 3 == 0, rs.wasNull());
+            assertEquals(i, rs.getInt(1));
+        }
+        assertFalse(rs.next());
+        rs.close();
+    }
+
+    private void checkRowValues(ResultSet rs) throws SQLException {
+        byte[] previousData = null;
+        for (int i = 1; i <= 50; i++) {
+            assertTrue(rs.next());
+            assertEquals(i, rs.getInt(1));
+            if (i % 3 == 0) {
+                assertNull(rs.getString(2));
+                assertTrue(rs.wasNull());
+            } else {
+                assertEquals("name" + i, rs.getString(2));
+                assertFalse(rs.wasNull());
+            }
+            assertEquals(new BigDecimal(i + ".25"), rs.getBigDecimal(3));
+            assertEquals(i % 2 == 1, rs.getBoolean(4));
+            assertEquals(Timestamp.valueOf("2016-03-0" + (i % 9 + 1) + " 10:20:30"), rs.getTimestamp(5));
+            if (previousData != null) {
+                //value previously retrieved must not change when cursor move
+                assertEquals("data" + (i - 1), new String(previousData));
+            }
+            previousData = rs.getBytes(6);
+            if (i % 5 == 0) {
+                assertNull(previousData);
+            } else {
+                assertEquals("data" + i, new String(previousData));
+            }
+        }
+        assertFalse(rs.next());
+        rs.close();
+    }
+
     private void insertRows(int numberOfRowsToInsert) throws SQLException {
         sharedConnection.createStatement().execute("truncate result_set_test ");
         for (int i = 1; i <= numberOfRowsToInsert; i++) {
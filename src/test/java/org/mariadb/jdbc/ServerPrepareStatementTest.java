@@ -38,6 +38,8 @@ public class ServerPrepareStatementTest extends BaseTest {
         createTable("ServerPrepareStatementCacheSize4", "id int not null primary key auto_increment, test LONGBLOB",
                 "ROW_FORMAT=COMPRESSED ENGINE=INNODB");
         createTable("streamtest2", "id int primary key not null, strm text");
+        createTable("ServerPrepareStatementMultiSend", "id int not null primary key, test varchar(10)");
+        createTable("ServerPrepareStatementCursor", "id int not null primary key, test varchar(20)");
         createTable("testServerPrepareMeta", "id int not null primary key auto_increment, id2 int not null, id3 DEC(4,2), id4 BIGINT UNSIGNED ");
     }
 
@@ -139,17 +141,18 @@ public class ServerPrepareStatementTest extends BaseTest {
             for (int i = 1; i < 5; i++) {
                 activePrepareStatement.add(connection.prepareStatement("SELECT " + i));
             }
+            //reused statements are protected : only statements prepared once are evicted
             assertEquals("PrepareStatementCache.map[\n"
                     + "testj-SELECT 17-0\n"
                     + "testj-SELECT 18-0\n"
                     + "testj-SELECT 19-0\n"
-                    + "testj-SELECT 12-1\n"
-                    + "testj-SELECT 13-1\n"
-                    + "testj-SELECT 14-1\n"
                     + "testj-SELECT 1-1\n"
                     + "testj-SELECT 2-1\n"
                     + "testj-SELECT 3-1\n"
-                    + "testj-SELECT 4-1]", protocol.prepareStatementCache().toString());
+                    + "testj-SELECT 4-1\n"
+                    + "testj-SELECT 12-1\n"
+                    + "testj-SELECT 13-1\n"
+                    + "testj-SELECT 14-1]", protocol.prepareStatementCache().toString());
             for (int i = 12; i < 15; i++) {
                 activePrepareStatement.add(connection.prepareStatement("SELECT " + i));
             }
@@ -169,16 +172,16 @@ public class ServerPrepareStatementTest extends BaseTest {
                 activePrepareStatement.add(connection.prepareStatement("SELECT " + i));
             }
             assertEquals("PrepareStatementCache.map[\n"
-                    + "testj-SELECT 20-1\n"
-                    + "testj-SELECT 21-1\n"
-                    + "testj-SELECT 22-1\n"
                     + "testj-SELECT 23-1\n"
                     + "testj-SELECT 24-1\n"
                     + "testj-SELECT 25-1\n"
                     + "testj-SELECT 26-1\n"
                     + "testj-SELECT 27-1\n"
                     + "testj-SELECT 28-1\n"
-                    + "testj-SELECT 29-1]", protocol.prepareStatementCache().toString());
+                    + "testj-SELECT 29-1\n"
+                    + "testj-SELECT 12-2\n"
+                    + "testj-SELECT 13-2\n"
+                    + "testj-SELECT 14-2]", protocol.prepareStatementCache().toString());
 
             //check all prepared statement worked even if not cached
             while (!activePrepareStatement.isEmpty()) {
@@ -188,16 +191,16 @@ public class ServerPrepareStatementTest extends BaseTest {
             }
             assertTrue(protocol.prepareStatementCache().size() == 10);
             assertEquals("PrepareStatementCache.map[\n"
-                    + "testj-SELECT 20-0\n"
-                    + "testj-SELECT 21-0\n"
-                    + "testj-SELECT 22-0\n"
                     + "testj-SELECT 23-0\n"
                     + "testj-SELECT 24-0\n"
                     + "testj-SELECT 25-0\n"
                     + "testj-SELECT 26-0\n"
                     + "testj-SELECT 27-0\n"
                     + "testj-SELECT 28-0\n"
-                    + "testj-SELECT 29-0]", protocol.prepareStatementCache().toString());
+                    + "testj-SELECT 29-0\n"
+                    + "testj-SELECT 12-0\n"
+                    + "testj-SELECT 13-0\n"
+                    + "testj-SELECT 14-0]", protocol.prepareStatementCache().toString());
 
 
         } finally {
@@ -756,4 +759,216 @@ public class ServerPrepareStatementTest extends BaseTest {
             }
         }
     }
+
+    @Test
+    public void batchMultiSend() throws Throwable {
+        try (Connection connection = setConnection("&useBatchMultiSend=true&useBatchMultiSendNumber=7")) {
+            PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO ServerPrepareStatementMultiSend(id, test) VALUES (?, ?)", Statement.RETURN_GENERATED_KEYS);
+            for (int i = 0; i < 1000; i++) {
+                ps.setInt(1, i);
+                ps.setString(2, "test" + i);
+                ps.addBatch();
+            }
+            //duplicate key in the middle of the batch
+            ps.setInt(1, 500);
+            ps.setString(2, "duplicate");
+            ps.addBatch();
+            for (int i = 1000; i < 1100; i++) {
+                ps.setInt(1, i);
+                ps.setString(2, "after" + i);
+                ps.addBatch();
+            }
+            int executedAfterError = 0;
+            try {
+                ps.executeBatch();
+                fail("duplicate key must throw BatchUpdateException");
+            } catch (BatchUpdateException bue) {
+                //no command is sent after error, but commands already sent (at most 6 after the failed one) are executed
+                int[] updateCounts = bue.getUpdateCounts();
+                assertTrue(updateCounts.length > 1000 && updateCounts.length <= 1007);
+                assertEquals(1, updateCounts[0]);
+                assertEquals(1, updateCounts[999]);
+                assertEquals(Statement.EXECUTE_FAILED, updateCounts[1000]);
+                for (int i = 1001; i < updateCounts.length; i++) {
+                    assertEquals(1, updateCounts[i]);
+                    executedAfterError++;
+                }
+            }
+            //update counts match rows existing in table
+            ResultSet rs = connection.createStatement().executeQuery("SELECT count(*), max(id) FROM ServerPrepareStatementMultiSend");
+            assertTrue(rs.next());
+            assertEquals(1000 + executedAfterError, rs.getInt(1));
+            assertEquals(999 + executedAfterError, rs.getInt(2));
+            rs = connection.createStatement().executeQuery("SELECT test FROM ServerPrepareStatementMultiSend WHERE id = 500");
+            assertTrue(rs.next());
+            assertEquals("test500", rs.getString(1));
+        }
+    }
+
+    @Test
+    public void cursorFetch() throws Throwable {
+        try (Connection connection = setConnection("&useCursorFetch=true")) {
+            PreparedStatement insert = connection.prepareStatement("INSERT INTO ServerPrepareStatementCursor(id, test) VALUES (?, ?)");
+            for (int i = 0; i < 100; i++) {
+                insert.setInt(1, i);
+                insert.setString(2, "test" + i);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+
+            PreparedStatement ps = connection.prepareStatement("SELECT id, test FROM ServerPrepareStatementCursor WHERE id >= ? ORDER BY id",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            assertEquals(ResultSet.TYPE_FORWARD_ONLY, ps.getResultSetType());
+            ps.setFetchSize(7);
+            ps.setInt(1, 0);
+            ResultSet rs = ps.executeQuery();
+            assertEquals(ResultSet.TYPE_FORWARD_ONLY, rs.getType());
+            Statement other = connection.createStatement();
+            for (int i = 0; i < 100; i++) {
+                assertTrue(rs.next());
+                assertEquals(i + 1, rs.getRow());
+                assertEquals(i, rs.getInt(1));
+                assertEquals("test" + i, rs.getString(2));
+                if (i % 10 == 0) {
+                    //connection can be used between fetches
+                    ResultSet otherRs = other.executeQuery("SELECT " + i);
+                    assertTrue(otherRs.next());
+                    assertEquals(i, otherRs.getInt(1));
+                }
+            }
+            assertFalse(rs.next());
+            rs.close();
+
+            //statement closed before reading all rows
+            ps.setInt(1, 50);
+            rs = ps.executeQuery();
+            assertTrue(rs.next());
+            assertEquals(50, rs.getInt(1));
+            rs.close();
+            ps.close();
+        }
+    }
+
+    @Test
+    public void cursorFetchForwardOnly() throws Throwable {
+        try (Connection connection = setConnection("&useCursorFetch=true")) {
+            Statement stmt = connection.createStatement();
+            for (int i = 300; i < 310; i++) {
+                stmt.execute("INSERT INTO ServerPrepareStatementCursor(id, test) VALUES (" + i + ", 'test')");
+            }
+            PreparedStatement ps = connection.prepareStatement("SELECT id FROM ServerPrepareStatementCursor WHERE id >= ? ORDER BY id",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(3);
+            ps.setInt(1, 300);
+            ResultSet rs = ps.executeQuery();
+            assertTrue(rs.next());
+            assertTrue(rs.next());
+            assertEquals(2, rs.getRow());
+            try {
+                rs.previous();
+                fail("cursor result set must be forward only");
+            } catch (SQLException sqle) {
+                assertTrue(sqle.getMessage().contains("TYPE_FORWARD_ONLY"));
+            }
+            try {
+                rs.absolute(1);
+                fail("cursor result set must be forward only");
+            } catch (SQLException sqle) {
+                assertTrue(sqle.getMessage().contains("TYPE_FORWARD_ONLY"));
+            }
+            try {
+                rs.last();
+                fail("cursor result set must be forward only");
+            } catch (SQLException sqle) {
+                assertTrue(sqle.getMessage().contains("TYPE_FORWARD_ONLY"));
+            }
+            try {
+                rs.beforeFirst();
+                fail("cursor result set must be forward only");
+            } catch (SQLException sqle) {
+                assertTrue(sqle.getMessage().contains("TYPE_FORWARD_ONLY"));
+            }
+            //position is unchanged
+            assertEquals(2, rs.getRow());
+            assertEquals(301, rs.getInt(1));
+            rs.close();
+        }
+    }
+
+    @Test
+    public void cursorFetchNotUsedForScrollableStatement() throws Throwable {
+        try (Connection connection = setConnection("&useCursorFetch=true")) {
+            Statement stmt = connection.createStatement();
+            for (int i = 400; i < 410; i++) {
+                stmt.execute("INSERT INTO ServerPrepareStatementCursor(id, test) VALUES (" + i + ", 'test')");
+            }
+            //statement prepared without result set type : fetch size is only a hint, result set stay scrollable
+            PreparedStatement ps = connection.prepareStatement("SELECT id FROM ServerPrepareStatementCursor WHERE id >= ? ORDER BY id");
+            ps.setFetchSize(3);
+            ps.setInt(1, 400);
+            ResultSet rs = ps.executeQuery();
+            assertEquals(ResultSet.TYPE_SCROLL_INSENSITIVE, rs.getType());
+            assertTrue(rs.last());
+            assertEquals(409, rs.getInt(1));
+            assertEquals(10, rs.getRow());
+            assertTrue(rs.previous());
+            assertEquals(408, rs.getInt(1));
+            assertTrue(rs.first());
+            assertEquals(400, rs.getInt(1));
+            rs.close();
+        }
+        //cursor fetch is disabled by default
+        try (Connection connection = setConnection("")) {
+            PreparedStatement ps = connection.prepareStatement("SELECT id FROM ServerPrepareStatementCursor WHERE id >= ? ORDER BY id",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(3);
+            ps.setInt(1, 400);
+            ResultSet rs = ps.executeQuery();
+            assertEquals(ResultSet.TYPE_SCROLL_INSENSITIVE, rs.getType());
+            assertTrue(rs.last());
+            assertEquals(409, rs.getInt(1));
+            rs.close();
+        }
+    }
+
+    @Test
+    public void cursorFetchSharedStatement() throws Throwable {
+        try (Connection connection = setConnection("&useCursorFetch=true&cachePrepStmts=true")) {
+            Statement stmt = connection.createStatement();
+            for (int i = 200; i < 220; i++) {
+                stmt.execute("INSERT INTO ServerPrepareStatementCursor(id, test) VALUES (" + i + ", 'test')");
+            }
+            String sql = "SELECT id FROM ServerPrepareStatementCursor WHERE id >= ? AND id < 220 ORDER BY id";
+            PreparedStatement ps1 = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            PreparedStatement ps2 = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps1.setFetchSize(3);
+            ps2.setFetchSize(3);
+            ps1.setInt(1, 200);
+            ps2.setInt(1, 210);
+            ResultSet rs1 = ps1.executeQuery();
+            assertTrue(rs1.next());
+            assertEquals(200, rs1.getInt(1));
+
+            //same cached server statement : rs1 cursor is closed, remaining rows are not buffered
+            ResultSet rs2 = ps2.executeQuery();
+            for (int i = 210; i < 220; i++) {
+                assertTrue(rs2.next());
+                assertEquals(i, rs2.getInt(1));
+            }
+            assertFalse(rs2.next());
+
+            //rows of the chunk already fetched can still be read
+            assertTrue(rs1.next());
+            assertEquals(201, rs1.getInt(1));
+            assertTrue(rs1.next());
+            assertEquals(202, rs1.getInt(1));
+            try {
+                rs1.next();
+                fail("cursor must have been closed");
+            } catch (SQLException sqle) {
+                assertTrue(sqle.getMessage().contains("Cursor has been closed"));
+            }
+        }
+    }
 }
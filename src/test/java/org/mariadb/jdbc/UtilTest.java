@@ -1,11 +1,14 @@
 package org.mariadb.jdbc;
 
 import org.junit.Test;
+import org.mariadb.jdbc.internal.util.NativeSqlCache;
 import org.mariadb.jdbc.internal.util.Utils;
 
 import java.sql.SQLException;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 
 public class UtilTest {
@@ -45,4 +48,40 @@ public class UtilTest {
             assertEquals(Utils.nativeSql(inputs[i], false), outputs[i]);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void escapeCache() throws SQLException {
+        NativeSqlCache cache = NativeSqlCache.getInstance();
+        String noEscape = "SELECT * FROM t WHERE a = ?";
+        long misses = cache.getMisses();
+        assertSame(noEscape, Utils.nativeSql(noEscape, false));
+        assertEquals(misses, cache.getMisses());
+
+        //braces only in strings or comments : same string returned
+        String quoted = "SELECT '{not an escape}', \"{neither}\" /* {comment} */ FROM t" + System.nanoTime();
+        assertSame(quoted, Utils.nativeSql(quoted, false));
+
+        String escaped = "SELECT {fn now()}, {d '2016-01-01'} FROM t" + System.nanoTime();
+        String expected = "SELECT now(), '2016-01-01' FROM t" + escaped.substring(escaped.indexOf(" FROM t") + 7);
+        long hits = cache.getHits();
+        String first = Utils.nativeSql(escaped, false);
+        assertEquals(expected, first);
+        assertSame(first, Utils.nativeSql(new String(escaped), false));
+        assertTrue(cache.getHits() > hits);
+        assertEquals(expected, Utils.nativeSql(escaped, true));
+    }
+
+    @Test
+    public void escapeCacheBounded() {
+        NativeSqlCache cache = new NativeSqlCache(10);
+        for (int i = 0; i < 100; i++) {
+            cache.put("SELECT {fn now()} + " + i, false, "SELECT now() + " + i);
+        }
+        assertEquals(10, cache.size());
+        assertEquals("SELECT now() + 99", cache.get("SELECT {fn now()} + 99", false));
+        assertEquals(null, cache.get("SELECT {fn now()} + 0", false));
+        assertEquals(null, cache.get("SELECT {fn now()} + 99", true));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+}
@@ -0,0 +1,70 @@
+package org.mariadb.jdbc.internal.packet.dao.parameters;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.Test;
+import org.mariadb.jdbc.internal.util.Options;
+
+public class ParameterWriterTest {
+
+    private static String text(ParameterHolder parameter) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        parameter.writeTo(out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void dateTimeSameAsSimpleDateFormat() throws IOException {
+        TimeZone defaultTimeZone = TimeZone.getDefault();
+        try {
+            TimeZone.setDefault(TimeZone.getTimeZone("Europe/Paris"));
+            Calendar sessionCalendar = Calendar.getInstance(TimeZone.getTimeZone("America/New_York"));
+            SimpleDateFormat timestampFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+            timestampFormat.setCalendar(sessionCalendar);
+            SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+            SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss");
+            timeFormat.setCalendar(sessionCalendar);
+
+            Random random = new Random(0);
+            for (int i = 0; i < 20000; i++) {
+                //from year 1000 to 9999
+                long epochMillis = -30610224000000L + (long) (random.nextDouble() * 283996800000000L);
+                Timestamp timestamp = new Timestamp(epochMillis);
+                timestamp.setNanos(random.nextInt(1000000) * 1000);
+                String micros = String.valueOf(timestamp.getNanos() / 1000 + 1000000).substring(1).replaceAll("0+$", "");
+                assertEquals("'" + timestampFormat.format(timestamp) + (micros.isEmpty() ? "" : "." + micros) + "'",
+                        text(new TimestampParameter(timestamp, sessionCalendar, true, new Options())));
+
+                Date date = new Date(epochMillis);
+                assertEquals("'" + dateFormat.format(date) + "'", text(new DateParameter(date, sessionCalendar, new Options())));
+
+                Time time = new Time(epochMillis);
+                assertEquals("'" + (epochMillis < 0 ? "-" : "") + timeFormat.format(time),
+                        text(new TimeParameter(time, sessionCalendar, false)).substring(0, epochMillis < 0 ? 10 : 9));
+            }
+        } finally {
+            TimeZone.setDefault(defaultTimeZone);
+        }
+    }
+
+    @Test
+    public void digits() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ParameterWriter.writeDigits(out, 5, 4);
+        ParameterWriter.writeDigits(out, 12345, 4);
+        ParameterWriter.writeDigits(out, 0, 2);
+        ParameterWriter.writeDigits(out, 2147483647, 1);
+        assertEquals("000512345002147483647", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,72 @@
+package org.mariadb.jdbc.internal.packet.read;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ReadAheadInputStreamTest {
+
+    /**
+     * Endless result set : row packets of 10 bytes, never followed by an EOF packet.
+     */
+    private static class EndlessRows extends InputStream {
+        private static final byte[] PACKET = {10, 0, 0, 1, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        private final CountDownLatch closed = new CountDownLatch(1);
+        private long position;
+
+        @Override
+        public int read() {
+            return PACKET[(int) (position++ % PACKET.length)] & 0xff;
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+    }
+
+    private static void readAndAbandon(EndlessRows source, ReadBufferPool pool) throws IOException {
+        ReadAheadInputStream stream = new ReadAheadInputStream(source, 5, pool);
+        byte[] packet = new byte[14];
+        assertEquals(14, stream.read(packet, 0, 14));
+        assertEquals(10, packet[0]);
+    }
+
+    @Test
+    public void abandonedStream() throws Exception {
+        EndlessRows source = new EndlessRows();
+        readAndAbandon(source, new ReadBufferPool(1024 * 1024));
+        //reader task is waiting for the queue : it must stop and close source once stream is garbage collected
+        for (int i = 0; i < 100 && source.closed.getCount() > 0; i++) {
+            System.gc();
+            source.closed.await(100, TimeUnit.MILLISECONDS);
+        }
+        assertEquals(0, source.closed.getCount());
+    }
+
+    @Test
+    public void pooledPacketBuffers() throws IOException {
+        ReadBufferPool pool = new ReadBufferPool(1024 * 1024);
+        EndlessRows source = new EndlessRows();
+        ReadAheadInputStream stream = new ReadAheadInputStream(source, 5, pool);
+        byte[] packet = new byte[14];
+        for (int i = 0; i < 1000; i++) {
+            int off = 0;
+            while (off < 14) {
+                off += stream.read(packet, off, 14 - off);
+            }
+            assertEquals(9, packet[13]);
+        }
+        //consumed buffers are reused : only buffers of queued packets have been allocated
+        assertTrue(pool.getMisses() <= 8);
+        assertTrue(pool.getHits() >= 990);
+
+        stream.close();
+        assertEquals(0, source.closed.getCount());
+    }
+}
@@ -0,0 +1,70 @@
+package org.mariadb.jdbc.internal.packet.read;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+public class ReadBufferPoolTest {
+
+    @Test
+    public void sizeClasses() {
+        ReadBufferPool pool = new ReadBufferPool(1024 * 1024);
+        assertEquals(1024, pool.acquire(10).length);
+        assertEquals(2048, pool.acquire(1025).length);
+        assertEquals(16 * 1024 * 1024, pool.acquire(0xffffff).length);
+        assertEquals(3, pool.getMisses());
+
+        byte[] buffer = pool.acquire(3000);
+        pool.release(buffer);
+        assertSame(buffer, pool.acquire(4096));
+        assertEquals(1, pool.getHits());
+    }
+
+    @Test
+    public void poolBounded() {
+        ReadBufferPool pool = new ReadBufferPool(4096);
+        pool.release(new byte[4096]);
+        pool.release(new byte[4096]);
+        assertEquals(4096, pool.getPooledBytes());
+        //not a pooled size
+        pool.release(new byte[3000]);
+        assertEquals(4096, pool.getPooledBytes());
+    }
+
+    @Test
+    public void fetcherReusePooledBuffers() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < 10; i++) {
+            writePacket(out, 2000 + i, (byte) i);
+        }
+        ReadBufferPool pool = new ReadBufferPool(1024 * 1024);
+        ReadPacketFetcher fetcher = new ReadPacketFetcher(new ByteArrayInputStream(out.toByteArray()), pool);
+        for (int i = 0; i < 10; i++) {
+            ByteBuffer buffer;
+            if (i % 2 == 0) {
+                buffer = fetcher.getReusableBuffer();
+            } else {
+                buffer = fetcher.getReusableRawPacket().getByteBuffer();
+            }
+            assertEquals(2000 + i, buffer.remaining());
+            assertEquals(i, buffer.get(1999));
+        }
+        assertEquals(1, pool.getMisses());
+        assertEquals(9, pool.getHits());
+    }
+
+    private static void writePacket(ByteArrayOutputStream out, int length, byte value) {
+        out.write(length & 0xff);
+        out.write((length >> 8) & 0xff);
+        out.write((length >> 16) & 0xff);
+        out.write(0);
+        for (int i = 0; i < length; i++) {
+            out.write(value);
+        }
+    }
+}
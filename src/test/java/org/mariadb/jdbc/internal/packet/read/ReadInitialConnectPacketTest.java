@@ -0,0 +1,58 @@
+package org.mariadb.jdbc.internal.packet.read;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.mariadb.jdbc.internal.MariaDbServerCapabilities;
+
+/**
+ * Check handshake parsing, using handshake packets as sent by servers.
+ */
+public class ReadInitialConnectPacketTest {
+
+    private static ReadInitialConnectPacket handshake(String version, int capabilities, int extendedCapabilities) throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(200).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(4);
+        buffer.put((byte) 10);
+        buffer.put(version.getBytes(StandardCharsets.US_ASCII)).put((byte) 0);
+        buffer.putInt(1234);
+        buffer.put("12345678".getBytes(StandardCharsets.US_ASCII)).put((byte) 0);
+        buffer.putShort((short) capabilities);
+        buffer.put((byte) 33);
+        buffer.putShort((short) 2);
+        buffer.putShort((short) (capabilities >>> 16));
+        buffer.put((byte) 21);
+        buffer.put(new byte[6]);
+        buffer.putInt(extendedCapabilities);
+        buffer.put("abcdefghijkl".getBytes(StandardCharsets.US_ASCII)).put((byte) 0);
+        buffer.put("mysql_native_password".getBytes(StandardCharsets.US_ASCII)).put((byte) 0);
+        int length = buffer.position() - 4;
+        buffer.put(0, (byte) length);
+        return new ReadInitialConnectPacket(new ReadPacketFetcher(
+                new ByteArrayInputStream(buffer.array(), 0, buffer.position())));
+    }
+
+    @Test
+    public void mariaDbExtendedCapabilities() throws Exception {
+        ReadInitialConnectPacket packet = handshake("10.2.7-MariaDB", MariaDbServerCapabilities.PLUGIN_AUTH,
+                MariaDbServerCapabilities.MARIADB_CLIENT_STMT_BULK_OPERATIONS);
+        assertEquals("10.2.7-MariaDB", packet.getServerVersion());
+        assertEquals(1234, packet.getServerThreadId());
+        assertEquals("12345678abcdefghijkl", new String(packet.getSeed(), StandardCharsets.US_ASCII));
+        assertEquals(MariaDbServerCapabilities.MARIADB_CLIENT_STMT_BULK_OPERATIONS, packet.getMariaDbExtendedCapabilities());
+    }
+
+    @Test
+    public void mysqlServerHasNoExtendedCapabilities() throws Exception {
+        ReadInitialConnectPacket packet = handshake("5.7.18", MariaDbServerCapabilities.CLIENT_MYSQL
+                | MariaDbServerCapabilities.PLUGIN_AUTH, MariaDbServerCapabilities.MARIADB_CLIENT_STMT_BULK_OPERATIONS);
+        assertEquals("5.7.18", packet.getServerVersion());
+        assertEquals("12345678abcdefghijkl", new String(packet.getSeed(), StandardCharsets.US_ASCII));
+        assertEquals(0, packet.getMariaDbExtendedCapabilities());
+    }
+}
@@ -0,0 +1,141 @@
+package org.mariadb.jdbc.internal.packet.read;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class ReadPacketFetcherTest {
+
+    private static void writePacket(ByteArrayOutputStream out, int seq, byte[] payload) {
+        out.write(payload.length & 0xff);
+        out.write((payload.length >> 8) & 0xff);
+        out.write((payload.length >> 16) & 0xff);
+        out.write(seq);
+        out.write(payload, 0, payload.length);
+    }
+
+    private static byte[] eofPacket() {
+        return new byte[] {(byte) 0xfe, 0, 0, 0x22, 0};
+    }
+
+    @Test
+    public void skipRowPackets() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int seq = 1;
+        for (int i = 0; i < 100; i++) {
+            writePacket(out, seq++, new byte[] {3, 'a', 'b', 'c'});
+        }
+        //row bigger than a packet, continuation packet starting like an EOF packet
+        byte[] large = new byte[0xffffff];
+        large[0] = (byte) 0xfe;
+        writePacket(out, seq++, large);
+        writePacket(out, seq++, eofPacket());
+        writePacket(out, seq++, new byte[] {1, 'x'});
+        writePacket(out, seq++, eofPacket());
+        writePacket(out, 1, new byte[] {1, 'y'});
+
+        ReadPacketFetcher fetcher = new ReadPacketFetcher(new ByteArrayInputStream(out.toByteArray()));
+        ByteBuffer buffer = fetcher.skipRowPackets(Long.MAX_VALUE);
+        assertNotNull(buffer);
+        assertEquals(5, buffer.remaining());
+        assertEquals((byte) 0xfe, buffer.get(0));
+        assertEquals(0x22, buffer.get(3));
+
+        //stream is synchronized on next packet
+        ByteBuffer next = fetcher.getReusableBuffer();
+        assertEquals(2, next.remaining());
+        assertEquals('y', next.get(1));
+    }
+
+    @Test
+    public void skipRowPacketsUntilError() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writePacket(out, 1, new byte[] {3, 'a', 'b', 'c'});
+        byte[] error = Arrays.copyOf(new byte[] {(byte) 0xff, 0x25, 0x05, '#', '7', '0', '1', '0', '0'}, 30);
+        writePacket(out, 2, error);
+
+        ReadPacketFetcher fetcher = new ReadPacketFetcher(new ByteArrayInputStream(out.toByteArray()));
+        ByteBuffer buffer = fetcher.skipRowPackets(Long.MAX_VALUE);
+        assertEquals(30, buffer.remaining());
+        assertEquals((byte) 0xff, buffer.get(0));
+    }
+
+    @Test
+    public void skipRowPacketsLimit() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < 100; i++) {
+            writePacket(out, i, new byte[] {9, 'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i'});
+        }
+        writePacket(out, 100, eofPacket());
+
+        ReadPacketFetcher fetcher = new ReadPacketFetcher(new ByteArrayInputStream(out.toByteArray()));
+        assertNull(fetcher.skipRowPackets(100));
+        ByteBuffer buffer = fetcher.skipRowPackets(Long.MAX_VALUE);
+        assertEquals((byte) 0xfe, buffer.get(0));
+    }
+
+    @Test
+    public void readAhead() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < 1000; i++) {
+            writePacket(out, i & 0xff, new byte[] {0, (byte) i, (byte) (i >> 8)});
+        }
+        writePacket(out, 0, eofPacket());
+        //next command response, must be read after read-ahead end
+        writePacket(out, 1, new byte[] {0, 0, 0, 2, 0, 0, 0});
+
+        ReadPacketFetcher fetcher = new ReadPacketFetcher(new ByteArrayInputStream(out.toByteArray()));
+        fetcher.startReadAhead(10);
+        for (int i = 0; i < 1000; i++) {
+            ByteBuffer buffer = fetcher.getReusableBuffer();
+            assertEquals(3, buffer.remaining());
+            assertEquals(i, (buffer.get(1) & 0xff) + ((buffer.get(2) & 0xff) << 8));
+        }
+        assertEquals((byte) 0xfe, fetcher.getReusableBuffer().get(0));
+        ByteBuffer ok = fetcher.getReusableBuffer();
+        assertEquals(7, ok.remaining());
+        assertEquals(0, ok.get(0));
+
+        //a new read-ahead can be started
+        fetcher.startReadAhead(10);
+    }
+
+    @Test
+    public void readAheadBackpressure() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < 100; i++) {
+            writePacket(out, i, new byte[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9});
+        }
+        writePacket(out, 100, eofPacket());
+        final byte[] data = out.toByteArray();
+        final int[] readBytes = new int[1];
+        InputStream source = new ByteArrayInputStream(data) {
+            @Override
+            public synchronized int read(byte[] bytes, int off, int len) {
+                int count = super.read(bytes, off, len);
+                readBytes[0] += Math.max(count, 0);
+                return count;
+            }
+        };
+
+        ReadPacketFetcher fetcher = new ReadPacketFetcher(source);
+        fetcher.startReadAhead(5);
+        Thread.sleep(200);
+        synchronized (source) {
+            //queue holds 5 packets, plus the one waiting to be put
+            assertTrue(readBytes[0] <= 7 * 14);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(10, fetcher.getReusableBuffer().remaining());
+        }
+        assertEquals((byte) 0xfe, fetcher.getReusableBuffer().get(0));
+        assertEquals(data.length, readBytes[0]);
+    }
+}
@@ -0,0 +1,119 @@
+package org.mariadb.jdbc.internal.packet.send;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.mariadb.jdbc.internal.MariaDbType;
+import org.mariadb.jdbc.internal.packet.dao.parameters.IntParameter;
+import org.mariadb.jdbc.internal.packet.dao.parameters.NullParameter;
+import org.mariadb.jdbc.internal.packet.dao.parameters.ParameterHolder;
+import org.mariadb.jdbc.internal.packet.dao.parameters.StreamParameter;
+import org.mariadb.jdbc.internal.packet.dao.parameters.StringParameter;
+import org.mariadb.jdbc.internal.packet.read.ReadPacketFetcher;
+import org.mariadb.jdbc.internal.stream.PacketOutputStream;
+
+/**
+ * Check COM_STMT_BULK_EXECUTE serialization, decoding what a server would receive.
+ */
+public class SendBulkExecutePacketTest {
+
+    @Test
+    public void allRowsInOneCommand() throws IOException {
+        List<ParameterHolder[]> rows = new ArrayList<>();
+        rows.add(new ParameterHolder[] {new IntParameter(1), new NullParameter()});
+        rows.add(new ParameterHolder[] {new IntParameter(2), new StringParameter("ab", false)});
+        rows.add(new ParameterHolder[] {new NullParameter(), new StringParameter("c", false)});
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(out);
+        writer.setMaxAllowedPacket(16 * 1024 * 1024);
+        assertEquals(3, new SendBulkExecutePacket(42, 2).send(writer, rows, 0));
+
+        ByteBuffer packet = new ReadPacketFetcher(new ByteArrayInputStream(out.toByteArray())).getReusableBuffer();
+        packet.order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(SendBulkExecutePacket.COM_STMT_BULK_EXECUTE, packet.get());
+        assertEquals(42, packet.getInt());
+        assertEquals(128, packet.getShort());
+        //types : first non null value of each parameter
+        assertEquals(MariaDbType.INTEGER.getType(), packet.getShort());
+        assertEquals(MariaDbType.VARCHAR.getType(), packet.getShort());
+
+        //row 1
+        assertEquals(0, packet.get());
+        assertEquals(1, packet.getInt());
+        assertEquals(1, packet.get());
+        //row 2
+        assertEquals(0, packet.get());
+        assertEquals(2, packet.getInt());
+        assertEquals(0, packet.get());
+        assertEquals(2, packet.get());
+        assertEquals('a', packet.get());
+        assertEquals('b', packet.get());
+        //row 3
+        assertEquals(1, packet.get());
+        assertEquals(0, packet.get());
+        assertEquals(1, packet.get());
+        assertEquals('c', packet.get());
+        assertEquals(0, packet.remaining());
+    }
+
+    @Test
+    public void typeChangeStartNewCommand() throws IOException {
+        List<ParameterHolder[]> rows = new ArrayList<>();
+        rows.add(new ParameterHolder[] {new IntParameter(1)});
+        rows.add(new ParameterHolder[] {new IntParameter(2)});
+        rows.add(new ParameterHolder[] {new StringParameter("3", false)});
+
+        PacketOutputStream writer = new PacketOutputStream(new ByteArrayOutputStream());
+        writer.setMaxAllowedPacket(16 * 1024 * 1024);
+        SendBulkExecutePacket packet = new SendBulkExecutePacket(1, 1);
+        assertEquals(2, packet.send(writer, rows, 0));
+        assertEquals(1, packet.send(writer, rows, 2));
+    }
+
+    @Test
+    public void maxAllowedPacketSplitCommands() throws IOException {
+        List<ParameterHolder[]> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(new ParameterHolder[] {new IntParameter(i), new StringParameter("some text value", false)});
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(out);
+        writer.setMaxAllowedPacket(4096);
+        SendBulkExecutePacket packet = new SendBulkExecutePacket(1, 2);
+
+        int sent = 0;
+        int commands = 0;
+        while (sent < rows.size()) {
+            int rowCount = packet.send(writer, rows, sent);
+            assertTrue(rowCount > 0);
+            sent += rowCount;
+            commands++;
+        }
+        assertTrue(commands > 1);
+
+        ReadPacketFetcher fetcher = new ReadPacketFetcher(new ByteArrayInputStream(out.toByteArray()));
+        for (int i = 0; i < commands; i++) {
+            ByteBuffer buffer = fetcher.getReusableBuffer();
+            assertTrue(buffer.remaining() < 4096);
+        }
+    }
+
+    @Test
+    public void longDataNotBulk() {
+        List<ParameterHolder[]> rows = new ArrayList<>();
+        rows.add(new ParameterHolder[] {new IntParameter(1)});
+        assertTrue(SendBulkExecutePacket.canSendBulk(rows));
+        rows.add(new ParameterHolder[] {new StreamParameter(
+                new ByteArrayInputStream(new byte[10]), 10, false)});
+        assertFalse(SendBulkExecutePacket.canSendBulk(rows));
+    }
+}
@@ -0,0 +1,206 @@
+package org.mariadb.jdbc.internal.protocol;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.Test;
+import org.mariadb.jdbc.UrlParser;
+import org.mariadb.jdbc.internal.MariaDbType;
+import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
+import org.mariadb.jdbc.internal.packet.dao.parameters.IntParameter;
+import org.mariadb.jdbc.internal.packet.dao.parameters.ParameterHolder;
+import org.mariadb.jdbc.internal.packet.read.RawPacket;
+import org.mariadb.jdbc.internal.packet.read.ReadPacketFetcher;
+import org.mariadb.jdbc.internal.queryresults.ModifyQueryResult;
+import org.mariadb.jdbc.internal.queryresults.PreparedBatchResult;
+import org.mariadb.jdbc.internal.stream.MaxAllowedPacketException;
+import org.mariadb.jdbc.internal.stream.PacketOutputStream;
+import org.mariadb.jdbc.internal.util.dao.PrepareResult;
+
+/**
+ * Protocol exchanges against a wire-protocol stand-in : server responses are prepared in advance, and commands sent by
+ * client are decoded afterward.
+ */
+public class AbstractQueryProtocolTest {
+
+    private static ByteArrayInputStream serverResponses(byte[]... payloads) throws IOException {
+        ByteArrayOutputStream responses = new ByteArrayOutputStream();
+        for (byte[] payload : payloads) {
+            responses.write(payload.length & 0xff);
+            responses.write((payload.length >> 8) & 0xff);
+            responses.write((payload.length >> 16) & 0xff);
+            responses.write(1);
+            responses.write(payload);
+        }
+        return new ByteArrayInputStream(responses.toByteArray());
+    }
+
+    private static AbstractQueryProtocol protocol(String options, ByteArrayInputStream serverResponses,
+                                                  ByteArrayOutputStream clientCommands) throws Exception {
+        AbstractQueryProtocol protocol = new AbstractQueryProtocol(UrlParser.parse("jdbc:mariadb://localhost/test" + options),
+                new ReentrantLock());
+        protocol.writer = new PacketOutputStream(clientCommands);
+        protocol.packetFetcher = new ReadPacketFetcher(serverResponses);
+        protocol.connected = true;
+        return protocol;
+    }
+
+    private static byte[] okPacket(int affectedRows) {
+        return new byte[] {0x00, (byte) affectedRows, 0, 0x02, 0, 0, 0, 0};
+    }
+
+    private static byte[] errorPacket(int errorNumber, String sqlState, String message) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0xff);
+        out.write(errorNumber & 0xff);
+        out.write((errorNumber >> 8) & 0xff);
+        out.write('#');
+        byte[] state = sqlState.getBytes(StandardCharsets.US_ASCII);
+        out.write(state, 0, state.length);
+        byte[] msg = message.getBytes(StandardCharsets.UTF_8);
+        out.write(msg, 0, msg.length);
+        return out.toByteArray();
+    }
+
+    /**
+     * Decode commands received by server.
+     * @param sent client output
+     * @return first byte of each command
+     * @throws IOException if output is malformed
+     */
+    private static List<Byte> commands(ByteArrayOutputStream sent) throws IOException {
+        ReadPacketFetcher fetcher = new ReadPacketFetcher(new ByteArrayInputStream(sent.toByteArray()));
+        List<Byte> commands = new ArrayList<>();
+        try {
+            while (true) {
+                RawPacket packet = fetcher.getReusableRawPacket();
+                if (packet.getPacketSeq() == 0) {
+                    commands.add(packet.getByteBuffer().get(0));
+                }
+            }
+        } catch (EOFException e) {
+            //all commands read
+        }
+        return commands;
+    }
+
+    private static List<ParameterHolder[]> rows(int size) {
+        List<ParameterHolder[]> rows = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            rows.add(new ParameterHolder[] {new IntParameter(i)});
+        }
+        return rows;
+    }
+
+    private static PrepareResult prepareResult() {
+        return new PrepareResult(42, new ColumnInformation[0], new ColumnInformation[1]);
+    }
+
+    @Test
+    public void pipelinedBatchStopsAtFirstError() throws Exception {
+        //window of 7 commands : when error of 6th command is read, 6 following commands have already been sent
+        byte[][] responses = new byte[12][];
+        for (int i = 0; i < 12; i++) {
+            responses[i] = (i == 5 || i == 8) ? errorPacket(1062, "23000", "Duplicate entry " + i) : okPacket(1);
+        }
+        ByteArrayInputStream received = serverResponses(responses);
+        ByteArrayOutputStream sent = new ByteArrayOutputStream();
+        AbstractQueryProtocol protocol = protocol("?useBatchMultiSendNumber=7", received, sent);
+
+        PreparedBatchResult batchResult = new PreparedBatchResult(20);
+        protocol.executePreparedBatch("INSERT INTO t VALUES (?)", rows(20), prepareResult(), new MariaDbType[1], batchResult);
+
+        //no command sent after error, and all in-flight results have been read
+        assertEquals(12, commands(sent).size());
+        assertEquals(0, received.available());
+
+        //commands sent after the failed one have been executed by server : their results are kept
+        assertEquals(12, batchResult.getExecuted());
+        for (int i = 0; i < 12; i++) {
+            if (i == 5 || i == 8) {
+                assertNull(batchResult.getResult(i));
+                assertEquals(1062, batchResult.getException(i).getErrorCode());
+            } else {
+                assertEquals(1, ((ModifyQueryResult) batchResult.getResult(i)).getUpdateCount());
+                assertNull(batchResult.getException(i));
+            }
+        }
+        assertSame(batchResult.getFirstException(), batchResult.getException(5));
+    }
+
+    @Test
+    public void pipelinedBatchCommandTooBig() throws Exception {
+        ByteArrayInputStream received = serverResponses();
+        ByteArrayOutputStream sent = new ByteArrayOutputStream();
+        AbstractQueryProtocol protocol = protocol("", received, sent);
+        protocol.writer.setMaxAllowedPacket(10);
+
+        PreparedBatchResult batchResult = new PreparedBatchResult(5);
+        protocol.executePreparedBatch("INSERT INTO t VALUES (?)", rows(5), prepareResult(), new MariaDbType[1], batchResult);
+
+        //first command has not been sent : error is kept, connection is not reset
+        assertEquals(0, sent.size());
+        assertEquals(1, batchResult.getExecuted());
+        assertTrue(batchResult.getFirstException().getCause() instanceof MaxAllowedPacketException);
+        assertTrue(protocol.isConnected());
+    }
+
+    @Test
+    public void bulkExecute() throws Exception {
+        ByteArrayInputStream received = serverResponses(okPacket(3));
+        ByteArrayOutputStream sent = new ByteArrayOutputStream();
+        AbstractQueryProtocol protocol = protocol("?useBulkStmts=true", received, sent);
+
+        PreparedBatchResult batchResult = new PreparedBatchResult(3);
+        protocol.executeBulkPrepared("INSERT INTO t VALUES (?)", rows(3), prepareResult(), batchResult);
+
+        //one COM_STMT_BULK_EXECUTE command, one response for all rows
+        List<Byte> commands = commands(sent);
+        assertEquals(1, commands.size());
+        assertEquals((byte) 0xfa, (byte) commands.get(0));
+        assertEquals(3, batchResult.getExecuted());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(3, ((ModifyQueryResult) batchResult.getResult(i)).getUpdateCount());
+        }
+        assertNull(batchResult.getFirstException());
+        assertEquals(0, received.available());
+    }
+
+    @Test
+    public void bulkExecuteError() throws Exception {
+        ByteArrayInputStream received = serverResponses(okPacket(100), errorPacket(1062, "23000", "Duplicate entry"));
+        ByteArrayOutputStream sent = new ByteArrayOutputStream();
+        AbstractQueryProtocol protocol = protocol("?useBulkStmts=true", received, sent);
+        //rows are split in many commands
+        protocol.writer.setMaxAllowedPacket(1024);
+
+        PreparedBatchResult batchResult = new PreparedBatchResult(2000);
+        protocol.executeBulkPrepared("INSERT INTO t VALUES (?)", rows(2000), prepareResult(), batchResult);
+
+        //no command sent after the failed one
+        List<Byte> commands = commands(sent);
+        assertEquals(2, commands.size());
+        assertEquals((byte) 0xfa, (byte) commands.get(1));
+        assertEquals(0, received.available());
+
+        //rows of first command have its result, rows of failed command have the error
+        int firstCommandRows = 0;
+        while (batchResult.getResult(firstCommandRows) != null) {
+            firstCommandRows++;
+        }
+        assertTrue(firstCommandRows > 0);
+        assertTrue(batchResult.getExecuted() > firstCommandRows);
+        assertTrue(batchResult.getExecuted() < 2000);
+        for (int i = firstCommandRows; i < batchResult.getExecuted(); i++) {
+            assertEquals(1062, batchResult.getException(i).getErrorCode());
+        }
+    }
+}
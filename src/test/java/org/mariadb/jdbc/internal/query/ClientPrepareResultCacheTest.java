@@ -0,0 +1,77 @@
+package org.mariadb.jdbc.internal.query;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class ClientPrepareResultCacheTest {
+
+    @Test
+    public void parseResult() throws Exception {
+        String sql = "INSERT INTO t(a,b,c) VALUES (9, ?, '?', ?, 8) ON DUPLICATE KEY UPDATE a=a+10";
+        ClientPrepareResult result = ClientPrepareResult.parse(sql, false, sql.indexOf("("));
+        assertEquals(2, result.getParamCount());
+        assertEquals(3, result.getQueryParts().length);
+        assertArrayEquals("INSERT INTO t(a,b,c) VALUES (9, ".getBytes("UTF-8"), result.getQueryParts()[0]);
+        assertArrayEquals(", '?', ".getBytes("UTF-8"), result.getQueryParts()[1]);
+        assertArrayEquals("a,b,c) VALUES (9, ".getBytes("UTF-8"), result.getRewriteFirstPart());
+        assertArrayEquals(", 8".getBytes("UTF-8"), result.getRewriteRepeatLastPart());
+        assertArrayEquals(" ON DUPLICATE KEY UPDATE a=a+10".getBytes("UTF-8"), result.getRewriteNotRepeatLastPart());
+
+        ClientPrepareResult noRewrite = ClientPrepareResult.parse("SELECT ?", false, -1);
+        assertEquals(1, noRewrite.getParamCount());
+        assertNull(noRewrite.getRewriteFirstPart());
+    }
+
+    @Test
+    public void cacheHits() {
+        ClientPrepareResultCache cache = new ClientPrepareResultCache(64, ClientPrepareResultCache.DEFAULT_MAX_QUERY_LENGTH);
+        ClientPrepareResult first = cache.get("SELECT * FROM t WHERE a = ?", false, -1);
+        assertSame(first, cache.get("SELECT * FROM t WHERE a = ?", false, -1));
+        assertNotSame(first, cache.get("SELECT * FROM t WHERE a = ?", true, -1));
+        assertNotSame(first, cache.get("SELECT * FROM t WHERE a = ?", false, 10));
+        assertEquals(1, cache.getHits());
+        assertEquals(3, cache.getMisses());
+        assertEquals(0.25d, cache.getHitRate(), 0.0001);
+        assertEquals(3, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits());
+        assertEquals(0d, cache.getHitRate(), 0);
+    }
+
+    @Test
+    public void bounded() {
+        ClientPrepareResultCache cache = new ClientPrepareResultCache(32, ClientPrepareResultCache.DEFAULT_MAX_QUERY_LENGTH);
+        for (int i = 0; i < 1000; i++) {
+            cache.get("SELECT " + i + ", ?", false, -1);
+        }
+        assertTrue(cache.size() <= 32);
+
+        StringBuilder sb = new StringBuilder("SELECT ?");
+        while (sb.length() <= ClientPrepareResultCache.DEFAULT_MAX_QUERY_LENGTH) {
+            sb.append(", ?");
+        }
+        String longQuery = sb.toString();
+        assertNotSame(cache.get(longQuery, false, -1), cache.get(longQuery, false, -1));
+    }
+
+    @Test
+    public void maxQueryLength() {
+        ClientPrepareResultCache cache = new ClientPrepareResultCache(32, 20);
+        assertSame(cache.get("SELECT ?, ?", false, -1), cache.get("SELECT ?, ?", false, -1));
+        assertNotSame(cache.get("SELECT ?, ?, ?, ?, ?, ?", false, -1), cache.get("SELECT ?, ?, ?, ?, ?, ?", false, -1));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void sharedResultIsNotModifiedByQueries() throws Exception {
+        ClientPrepareResultCache cache = new ClientPrepareResultCache(16, ClientPrepareResultCache.DEFAULT_MAX_QUERY_LENGTH);
+        MariaDbClientParameterizeQuery query1 = new MariaDbClientParameterizeQuery(cache.get("SELECT ?, ?", false, -1));
+        MariaDbClientParameterizeQuery query2 = new MariaDbClientParameterizeQuery(cache.get("SELECT ?, ?", false, -1));
+        assertSame(query1.getQueryPartsArray(), query2.getQueryPartsArray());
+        assertEquals(2, query1.getParamCount());
+        assertEquals(2, query2.getParamCount());
+    }
+}
@@ -0,0 +1,174 @@
+package org.mariadb.jdbc.internal.queryresults;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.mariadb.jdbc.internal.packet.result.TextRowPacket;
+
+public class ArenaRowStoreTest {
+
+    private static RowView row(String... values) {
+        RowView row = new RowView(values.length);
+        StringBuilder sb = new StringBuilder();
+        for (String value : values) {
+            if (value != null) {
+                sb.append(value);
+            }
+        }
+        row.setBuffer(sb.toString().getBytes(StandardCharsets.UTF_8));
+        int offset = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                row.setNull(i);
+            } else {
+                row.setValue(i, offset, values[i].length());
+                offset += values[i].length();
+            }
+        }
+        return row;
+    }
+
+    private static ByteBuffer textRowPacket(String... values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (String value : values) {
+            if (value == null) {
+                out.write(0xfb);
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.write(bytes.length);
+                out.write(bytes, 0, bytes.length);
+            }
+        }
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    private static String value(ArenaRowStore store, int row, int column) throws IOException {
+        if (store.isSpilled(row)) {
+            byte[] bytes = store.readSpilledValue(row, column);
+            return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+        }
+        int length = store.getLength(row, column);
+        return length == -1 ? null : new String(store.getArena(row), store.getOffset(row, column), length, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void inMemory() throws IOException {
+        ArenaRowStore store = new ArenaRowStore(2);
+        for (int i = 0; i < 1000; i++) {
+            store.add(row("a" + i, (i % 3 == 0) ? null : "b" + i));
+        }
+        assertEquals(1000, store.size());
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(store.isSpilled(i));
+            assertEquals("a" + i, value(store, i, 0));
+            assertEquals((i % 3 == 0) ? null : "b" + i, value(store, i, 1));
+        }
+    }
+
+    @Test
+    public void arenaPages() throws IOException {
+        ArenaRowStore store = new ArenaRowStore(2);
+        char[] chars = new char[10000];
+        for (int i = 0; i < 500; i++) {
+            Arrays.fill(chars, (char) ('a' + i % 26));
+            store.add(row(new String(chars), "b" + i));
+        }
+        //row bigger than a page
+        char[] large = new char[3 * 1024 * 1024];
+        Arrays.fill(large, 'z');
+        store.add(row("large", new String(large)));
+        store.add(row("last", null));
+        assertTrue(store.getArenaCapacity() > 5000000);
+        assertTrue(store.getArena(0) != store.getArena(499));
+
+        for (int i = 0; i < 500; i++) {
+            Arrays.fill(chars, (char) ('a' + i % 26));
+            assertEquals(new String(chars), value(store, i, 0));
+            assertEquals("b" + i, value(store, i, 1));
+        }
+        assertEquals(new String(large), value(store, 500, 1));
+        assertEquals("last", value(store, 501, 0));
+        assertNull(value(store, 501, 1));
+    }
+
+    @Test
+    public void spillToDisk() throws IOException {
+        ArenaRowStore store = new ArenaRowStore(2, 4096);
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            large.append('x');
+        }
+        for (int i = 0; i < 5000; i++) {
+            store.add(row("value" + i, (i % 3 == 0) ? null : (i % 1000 == 1) ? large.toString() : "b" + i));
+        }
+        assertEquals(5000, store.size());
+        assertFalse(store.isSpilled(0));
+        assertTrue(store.isSpilled(4999));
+        assertTrue(store.getArenaCapacity() <= 4096);
+
+        //random access, from the end
+        for (int i = 4999; i >= 0; i--) {
+            assertEquals("value" + i, value(store, i, 0));
+            assertEquals((i % 3 == 0) ? null : (i % 1000 == 1) ? large.toString() : "b" + i, value(store, i, 1));
+        }
+
+        //rows can still be added after read
+        store.add(row("last", "row"));
+        assertEquals("last", value(store, 5000, 0));
+        assertEquals("row", value(store, 5000, 1));
+
+        store.close();
+        assertFalse(store.isSpilled(4999));
+    }
+
+    @Test
+    public void spillFileReleased() throws IOException {
+        ArenaRowStore store = new ArenaRowStore(1, 1024);
+        for (int i = 0; i < 1000; i++) {
+            store.add(row("value" + i));
+        }
+        Path file = store.getSpillFile();
+        assertNotNull(file);
+        if (Files.getFileStore(file).supportsFileAttributeView(PosixFileAttributeView.class)) {
+            //result data must not be readable by other users
+            assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(file));
+        }
+        assertEquals("value999", value(store, 999, 0));
+        store.close();
+        assertFalse(Files.exists(file));
+        assertNull(store.getSpillFile());
+    }
+
+    private static void decodeRawRows(int threshold) throws IOException {
+        ArenaRowStore store = new ArenaRowStore(2);
+        for (int i = 0; i < 20000; i++) {
+            store.addRaw(textRowPacket("a" + i, (i % 3 == 0) ? null : "b" + i));
+        }
+        ParallelRowDecoder.decode(store, new TextRowPacket(2), threshold);
+        assertEquals(20000, store.size());
+        for (int i = 0; i < 20000; i++) {
+            assertEquals("a" + i, value(store, i, 0));
+            assertEquals((i % 3 == 0) ? null : "b" + i, value(store, i, 1));
+        }
+    }
+
+    @Test
+    public void rawRowsParallelDecoding() throws IOException {
+        decodeRawRows(1);
+    }
+
+    @Test
+    public void rawRowsSequentialDecoding() throws IOException {
+        decodeRawRows(Integer.MAX_VALUE);
+    }
+}
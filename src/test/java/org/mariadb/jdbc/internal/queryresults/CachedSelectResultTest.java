@@ -0,0 +1,60 @@
+package org.mariadb.jdbc.internal.queryresults;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+import org.junit.Test;
+import org.mariadb.jdbc.internal.MariaDbType;
+import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
+import org.mariadb.jdbc.internal.util.Options;
+import org.mariadb.jdbc.internal.util.dao.QueryException;
+
+public class CachedSelectResultTest {
+
+    private static CachedSelectResult spilledResult(ArenaRowStore store) throws IOException {
+        for (int i = 0; i < 100; i++) {
+            byte[] value = ("value" + i).getBytes(StandardCharsets.UTF_8);
+            RowView row = new RowView(1);
+            row.setBuffer(value);
+            row.setValue(0, 0, value.length);
+            store.add(row);
+        }
+        return new CachedSelectResult(new ColumnInformation[] {ColumnInformation.create("col", MariaDbType.VARCHAR)}, store, (short) 0,
+                false, new Options());
+    }
+
+    @Test
+    public void readSpilledRows() throws IOException, QueryException, SQLException {
+        ArenaRowStore store = new ArenaRowStore(1, 256);
+        CachedSelectResult result = spilledResult(store);
+        assertTrue(store.isSpilled(99));
+        for (int i = 0; i < 100; i++) {
+            assertTrue(result.next());
+            assertEquals("value" + i, result.getValueObject(0).getString());
+        }
+        result.close();
+    }
+
+    @Test
+    public void spillFileReadError() throws IOException, QueryException {
+        ArenaRowStore store = new ArenaRowStore(1, 256);
+        CachedSelectResult result = spilledResult(store);
+        result.moveRowPointerTo(99);
+        //interrupted thread makes temporary file channel be closed on first access
+        Thread.currentThread().interrupt();
+        try {
+            result.getValueObject(0);
+            fail("must have thrown an exception");
+        } catch (QueryException qe) {
+            assertEquals("HY000", qe.getSqlState());
+            assertTrue(qe.getMessage().contains("Could not read result set temporary file"));
+            assertTrue(qe.getCause() instanceof IOException);
+        } finally {
+            Thread.interrupted();
+            result.close();
+        }
+    }
+}
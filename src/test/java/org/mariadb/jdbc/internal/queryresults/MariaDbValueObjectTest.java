@@ -0,0 +1,174 @@
+package org.mariadb.jdbc.internal.queryresults;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.text.ParseException;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.Test;
+import org.mariadb.jdbc.internal.MariaDbType;
+import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
+import org.mariadb.jdbc.internal.util.Options;
+
+public class MariaDbValueObjectTest {
+
+    private static MariaDbValueObject value(String text, MariaDbType type) {
+        //value in the middle of a larger buffer, like in a row packet
+        byte[] bytes = ("xx" + text + "yy").getBytes(StandardCharsets.UTF_8);
+        return new MariaDbValueObject(bytes, 2, bytes.length - 4, ColumnInformation.create("col", type), false, new Options());
+    }
+
+    @Test
+    public void integerValues() throws SQLException {
+        assertEquals(0, value("0", MariaDbType.INTEGER).getInt());
+        assertEquals(-123, value("-123", MariaDbType.INTEGER).getInt());
+        assertEquals(12, value("12.0000", MariaDbType.DECIMAL).getInt());
+        assertEquals(-12, value("-12.0", MariaDbType.DECIMAL).getShort());
+        assertEquals(Byte.MIN_VALUE, value("-128", MariaDbType.TINYINT).getByte());
+        assertEquals(Short.MAX_VALUE, value("32767", MariaDbType.SMALLINT).getShort());
+        assertEquals(Integer.MIN_VALUE, value("-2147483648", MariaDbType.INTEGER).getInt());
+        assertEquals(Long.MAX_VALUE, value("9223372036854775807", MariaDbType.BIGINT).getLong());
+        assertEquals(Long.MIN_VALUE, value("-9223372036854775808", MariaDbType.BIGINT).getLong());
+        assertEquals(5, value("+5", MariaDbType.INTEGER).getInt());
+    }
+
+    @Test
+    public void integerOutOfRange() {
+        checkOutOfRange(value("128", MariaDbType.SMALLINT), "Byte");
+        checkOutOfRange(value("-32769", MariaDbType.INTEGER), "Short");
+        checkOutOfRange(value("2147483648", MariaDbType.BIGINT), "Integer");
+        checkOutOfRange(value("9223372036854775808", MariaDbType.BIGINT), "Long");
+        checkOutOfRange(value("-9223372036854775809", MariaDbType.BIGINT), "Long");
+        checkOutOfRange(value("99999999999999999999999", MariaDbType.DECIMAL), "Long");
+        checkOutOfRange(value("1.5", MariaDbType.DECIMAL), "Integer");
+        checkOutOfRange(value("1.", MariaDbType.DECIMAL), "Integer");
+    }
+
+    private void checkOutOfRange(MariaDbValueObject value, String type) {
+        try {
+            switch (type) {
+                case "Byte":
+                    value.getByte();
+                    break;
+                case "Short":
+                    value.getShort();
+                    break;
+                case "Integer":
+                    value.getInt();
+                    break;
+                default:
+                    value.getLong();
+            }
+            fail("must have thrown an exception");
+        } catch (SQLException sqle) {
+            assertEquals("22003", sqle.getSQLState());
+            assertTrue(sqle.getMessage().contains("is not in " + type + " range"));
+        }
+    }
+
+    @Test
+    public void decimalValuesSameAsStringParsing() throws SQLException {
+        String[] values = {"0", "-0", "0.0", "-0.00", "1", "0.1", "0.3", "123.456", "-98765.4321", "9007199254740991",
+            "9007199254740993", "0.0000000000000000000001", "123456789012345678", "1234567890123456789", "1e10", "-1.5E-3",
+            "3.4028235E38", "16777217", "0.30000001"};
+        for (String text : values) {
+            checkDecimal(text);
+        }
+        Random random = new Random(0);
+        for (int i = 0; i < 100000; i++) {
+            long unscaled = random.nextLong() >> random.nextInt(64);
+            BigDecimal decimal = BigDecimal.valueOf(unscaled, random.nextInt(25));
+            checkDecimal(decimal.toPlainString());
+        }
+    }
+
+    private void checkDecimal(String text) throws SQLException {
+        assertEquals(text, Double.doubleToRawLongBits(Double.valueOf(text)),
+                Double.doubleToRawLongBits(value(text, MariaDbType.DOUBLE).getDouble()));
+        assertEquals(text, Float.floatToRawIntBits(Float.valueOf(text)), Float.floatToRawIntBits(value(text, MariaDbType.FLOAT).getFloat()));
+        assertEquals(text, new BigDecimal(text), value(text, MariaDbType.DECIMAL).getBigDecimal());
+    }
+
+    private static long millis(TimeZone timeZone, int year, int month, int day, int hour, int minutes, int seconds, int millis) {
+        Calendar calendar = new GregorianCalendar(timeZone);
+        calendar.clear();
+        calendar.set(year, month - 1, day, hour, minutes, seconds);
+        calendar.set(Calendar.MILLISECOND, millis);
+        return calendar.getTimeInMillis();
+    }
+
+    @Test
+    public void textDateTimeValues() throws ParseException {
+        TimeZone defaultTimeZone = TimeZone.getDefault();
+        try {
+            TimeZone paris = TimeZone.getTimeZone("Europe/Paris");
+            TimeZone.setDefault(paris);
+            Calendar sessionCalendar = Calendar.getInstance(TimeZone.getTimeZone("America/New_York"));
+
+            Timestamp timestamp = value("2016-03-27 02:30:15.123456", MariaDbType.TIMESTAMP).getTimestamp(sessionCalendar);
+            assertEquals(millis(sessionCalendar.getTimeZone(), 2016, 3, 27, 2, 30, 15, 123), timestamp.getTime());
+            assertEquals(123456000, timestamp.getNanos());
+
+            timestamp = value("2016-11-06 01:30:00", MariaDbType.DATETIME).getTimestamp(sessionCalendar);
+            assertEquals(millis(sessionCalendar.getTimeZone(), 2016, 11, 6, 1, 30, 0, 0), timestamp.getTime());
+            assertEquals(0, timestamp.getNanos());
+
+            timestamp = value("2016-03-27 02:30:15.1", MariaDbType.TIMESTAMP).getTimestamp(null);
+            assertEquals(millis(paris, 2016, 3, 27, 2, 30, 15, 100), timestamp.getTime());
+
+            assertNull(value("0000-00-00 00:00:00", MariaDbType.TIMESTAMP).getTimestamp(sessionCalendar));
+
+            Date date = value("2016-03-27", MariaDbType.DATE).getDate(sessionCalendar);
+            assertEquals(millis(paris, 2016, 3, 27, 0, 0, 0, 0), date.getTime());
+            assertEquals("2016-03-27", date.toString());
+            assertNull(value("0000-00-00", MariaDbType.DATE).getDate(sessionCalendar));
+            assertEquals(millis(sessionCalendar.getTimeZone(), 2016, 3, 27, 0, 0, 0, 0),
+                    value("2016-03-27", MariaDbType.VARCHAR).getDate(sessionCalendar).getTime());
+
+            Time time = value("12:34:56.789", MariaDbType.TIME).getTime(sessionCalendar);
+            assertEquals(millis(paris, 1970, 1, 1, 12, 34, 56, 789), time.getTime());
+            assertEquals("12:34:56", time.toString());
+            assertEquals(millis(paris, 1970, 1, 1, 120, 0, 0, 0), value("120:00:00", MariaDbType.TIME).getTime(sessionCalendar).getTime());
+        } finally {
+            TimeZone.setDefault(defaultTimeZone);
+        }
+    }
+
+    @Test
+    public void binaryDateTimeValues() throws ParseException {
+        TimeZone defaultTimeZone = TimeZone.getDefault();
+        try {
+            TimeZone paris = TimeZone.getTimeZone("Europe/Paris");
+            TimeZone.setDefault(paris);
+            Calendar sessionCalendar = Calendar.getInstance(TimeZone.getTimeZone("America/New_York"));
+
+            byte[] datetime = new byte[] {(byte) 0xe0, 0x07, 3, 27, 2, 30, 15, 0x40, (byte) 0xe2, 0x01, 0x00};
+            Timestamp timestamp = new MariaDbValueObject(datetime, ColumnInformation.create("col", MariaDbType.DATETIME), true,
+                    new Options()).getTimestamp(sessionCalendar);
+            assertEquals(millis(sessionCalendar.getTimeZone(), 2016, 3, 27, 2, 30, 15, 123), timestamp.getTime());
+            assertEquals(123456000, timestamp.getNanos());
+
+            byte[] dateBytes = new byte[] {(byte) 0xe0, 0x07, 3, 27};
+            Date date = new MariaDbValueObject(dateBytes, ColumnInformation.create("col", MariaDbType.DATE), true,
+                    new Options()).getDate(sessionCalendar);
+            assertEquals(millis(paris, 2016, 3, 27, 0, 0, 0, 0), date.getTime());
+
+            //negative time : -1 day 02:03:04.005
+            byte[] timeBytes = new byte[] {1, 1, 0, 0, 0, 2, 3, 4, (byte) 0x88, 0x13, 0, 0};
+            Time time = new MariaDbValueObject(timeBytes, ColumnInformation.create("col", MariaDbType.TIME), true,
+                    new Options()).getTime(sessionCalendar);
+            assertEquals(millis(paris, 1970, 1, 0, -2, 3, 4, 5), time.getTime());
+        } finally {
+            TimeZone.setDefault(defaultTimeZone);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.mariadb.jdbc.internal.stream;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.channels.SocketChannel;
+
+import org.junit.Test;
+
+public class ChannelInputStreamTest {
+
+    @Test
+    public void readTimeout() throws IOException {
+        try (ServerSocket server = new ServerSocket(0)) {
+            SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", server.getLocalPort()));
+            channel.configureBlocking(false);
+            try (Socket peer = server.accept()) {
+                channel.socket().setSoTimeout(200);
+                ChannelInputStream in = new ChannelInputStream(channel, 1024);
+                OutputStream out = peer.getOutputStream();
+                out.write(new byte[] {1, 2, 3});
+                out.flush();
+                byte[] received = new byte[10];
+                int count = 0;
+                while (count < 3) {
+                    count += in.read(received, count, 10 - count);
+                }
+                assertEquals(3, received[2]);
+
+                //peer send nothing more
+                long start = System.nanoTime();
+                try {
+                    in.read(received, 0, 10);
+                    fail("Must have thrown SocketTimeoutException");
+                } catch (SocketTimeoutException e) {
+                    assertEquals("Read timed out", e.getMessage());
+                    assertTrue(System.nanoTime() - start >= 150 * 1000000L);
+                }
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.mariadb.jdbc.internal.stream;
+
+import static org.junit.Assert.*;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.channels.SocketChannel;
+
+import org.junit.Test;
+
+public class ChannelOutputStreamTest {
+
+    private static SocketChannel connect(ServerSocket server) throws IOException {
+        SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", server.getLocalPort()));
+        channel.configureBlocking(false);
+        return channel;
+    }
+
+    @Test
+    public void largeWrite() throws IOException {
+        try (ServerSocket server = new ServerSocket(0)) {
+            final SocketChannel channel = connect(server);
+            try (Socket peer = server.accept()) {
+                final byte[] data = new byte[4 * 1024 * 1024];
+                for (int i = 0; i < data.length; i++) {
+                    data[i] = (byte) i;
+                }
+                Thread writer = new Thread(new Runnable() {
+                    public void run() {
+                        try {
+                            new ChannelOutputStream(channel).write(data, 0, data.length);
+                        } catch (IOException e) {
+                            //checked by reader
+                        }
+                    }
+                });
+                writer.start();
+                byte[] received = new byte[data.length];
+                new DataInputStream(peer.getInputStream()).readFully(received);
+                assertArrayEquals(data, received);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    @Test
+    public void writeTimeout() throws IOException {
+        try (ServerSocket server = new ServerSocket(0)) {
+            SocketChannel channel = connect(server);
+            try (Socket peer = server.accept()) {
+                //peer never reads : socket buffers fill up
+                channel.socket().setSoTimeout(200);
+                ChannelOutputStream out = new ChannelOutputStream(channel);
+                byte[] data = new byte[1024 * 1024];
+                try {
+                    for (int i = 0; i < 1024; i++) {
+                        out.write(data, 0, data.length);
+                    }
+                    fail("Must have thrown SocketTimeoutException");
+                } catch (SocketTimeoutException e) {
+                    assertEquals("Write timed out", e.getMessage());
+                }
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,456 @@
+package org.mariadb.jdbc.internal.stream;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.mariadb.jdbc.internal.packet.read.RawPacket;
+import org.mariadb.jdbc.internal.packet.read.ReadPacketFetcher;
+
+public class PacketOutputStreamTest {
+    private static final int MAX_PACKET_LENGTH = 0x00ffffff;
+
+    /**
+     * Output stream standing for server socket, counting write calls (one system call each on a socket stream).
+     */
+    private static class CountingOutputStream extends ByteArrayOutputStream {
+        int writes;
+
+        @Override
+        public synchronized void write(byte[] bytes, int off, int len) {
+            writes++;
+            super.write(bytes, off, len);
+        }
+
+        @Override
+        public synchronized void write(int value) {
+            writes++;
+            super.write(value);
+        }
+    }
+
+    @Test
+    public void packetSentInOneWrite() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(out);
+        for (int i = 0; i < 1000; i++) {
+            writer.startPacket(0);
+            writer.write(0x03);
+            writer.write("SELECT 1".getBytes());
+            writer.finishPacket();
+        }
+        assertEquals(1000, out.writes);
+
+        ReadPacketFetcher fetcher = new ReadPacketFetcher(new ByteArrayInputStream(out.toByteArray()));
+        RawPacket packet = fetcher.getReusableRawPacket();
+        assertEquals(0, packet.getPacketSeq());
+        assertEquals(9, packet.getByteBuffer().remaining());
+        assertEquals(0x03, packet.getByteBuffer().get(0));
+    }
+
+    @Test
+    public void splitPacketsSentInOneWriteEach() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(out);
+        byte[] datas = new byte[MAX_PACKET_LENGTH + 100];
+        for (int i = 0; i < datas.length; i++) {
+            datas[i] = (byte) i;
+        }
+        writer.startPacket(0, false);
+        writer.write(datas);
+        writer.finishPacket();
+        assertEquals(2, out.writes);
+        checkPackets(out.toByteArray(), datas, new int[]{MAX_PACKET_LENGTH, 100});
+
+        //packet of exactly max size must be followed by an empty packet
+        out = new CountingOutputStream();
+        writer = new PacketOutputStream(out);
+        writer.startPacket(0, false);
+        writer.write(datas, 0, MAX_PACKET_LENGTH);
+        writer.finishPacket();
+        assertEquals(2, out.writes);
+        checkPackets(out.toByteArray(), datas, new int[]{MAX_PACKET_LENGTH, 0});
+    }
+
+    @Test
+    public void compressedPackets() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(out);
+        writer.setUseCompression(true);
+        byte[] datas = new byte[100000];
+        for (int i = 0; i < datas.length; i++) {
+            datas[i] = (byte) (i % 10);
+        }
+        writer.startPacket(0);
+        writer.write(datas);
+        writer.finishPacket();
+        writer.startPacket(0);
+        writer.write(datas, 0, 10);
+        writer.finishPacket();
+        assertEquals(2, out.writes);
+
+        ReadPacketFetcher fetcher = new ReadPacketFetcher(new DecompressInputStream(new ByteArrayInputStream(out.toByteArray())));
+        ByteBuffer buffer = fetcher.getReusableBuffer();
+        assertEquals(datas.length, buffer.remaining());
+        for (int i = 0; i < datas.length; i++) {
+            assertEquals(datas[i], buffer.get(i));
+        }
+        assertEquals(10, fetcher.getReusableBuffer().remaining());
+    }
+
+    @Test
+    public void compressionReuse() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(out);
+        writer.setUseCompression(true);
+        writer.setCompressionOptions(9, 100);
+        byte[] text = new byte[5000];
+        for (int i = 0; i < text.length; i++) {
+            text[i] = (byte) ('a' + i % 26);
+        }
+        byte[] random = new byte[5000];
+        new java.util.Random(0).nextBytes(random);
+        for (int i = 0; i < 10; i++) {
+            writer.startPacket(0);
+            writer.write(i % 2 == 0 ? text : random);
+            writer.finishPacket();
+        }
+        //text must have been compressed
+        assertTrue(out.size() < 6 * random.length);
+
+        ReadPacketFetcher fetcher = new ReadPacketFetcher(new DecompressInputStream(new ByteArrayInputStream(out.toByteArray())));
+        for (int i = 0; i < 10; i++) {
+            byte[] expected = i % 2 == 0 ? text : random;
+            ByteBuffer buffer = fetcher.getReusableBuffer();
+            assertEquals(expected.length, buffer.remaining());
+            for (int j = 0; j < expected.length; j++) {
+                assertEquals(expected[j], buffer.get(j));
+            }
+        }
+    }
+
+    @Test
+    public void adaptiveCompression() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(out);
+        CompressionPolicy policy = new CompressionPolicy(true);
+        writer.setUseCompression(true);
+        writer.setCompressionOptions(-1, 100);
+        writer.setCompressionPolicy(policy);
+        byte[] random = new byte[5000];
+        new java.util.Random(0).nextBytes(random);
+        for (int i = 0; i < 20; i++) {
+            writer.startPacket(0);
+            writer.write(random);
+            writer.finishPacket();
+        }
+        //after 4 incompressible packets, compression is not tried for the next 8 packets,
+        //then a new failing attempt doubles the number of packets not tried.
+        assertEquals(5, policy.getCompressionAttempts());
+        assertEquals(15, policy.getSkippedPackets());
+        assertEquals(0, policy.getCompressedPackets());
+        assertEquals(out.size(), policy.getSentBytes());
+        assertEquals(20 * (random.length + 4), policy.getSentUncompressedBytes());
+
+        CompressionPolicy readPolicy = new CompressionPolicy(false);
+        ReadPacketFetcher fetcher = new ReadPacketFetcher(new DecompressInputStream(new ByteArrayInputStream(out.toByteArray()), readPolicy));
+        for (int i = 0; i < 20; i++) {
+            assertEquals(random.length, fetcher.getReusableBuffer().remaining());
+        }
+        assertEquals(out.size(), readPolicy.getReceivedBytes());
+        assertEquals(policy.getSentUncompressedBytes(), readPolicy.getReceivedUncompressedBytes());
+
+        //a compressible packet resets skipping
+        byte[] text = new byte[5000];
+        for (int i = 0; i < text.length; i++) {
+            text[i] = (byte) ('a' + i % 26);
+        }
+        for (int i = 0; i < 11; i++) {
+            writer.startPacket(0);
+            writer.write(text);
+            writer.finishPacket();
+        }
+        assertEquals(24, policy.getSkippedPackets());
+        assertEquals(2, policy.getCompressedPackets());
+    }
+
+    @Test
+    public void streamingLargeCommand() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(out);
+        byte[] datas = new byte[3 * MAX_PACKET_LENGTH + 10];
+        for (int i = 0; i < datas.length; i++) {
+            datas[i] = (byte) (i / 7);
+        }
+        writer.startPacket(0, false);
+        int chunk = 1024 * 1024;
+        for (int off = 0; off < datas.length; off += chunk) {
+            writer.write(datas, off, Math.min(chunk, datas.length - off));
+            //full packets are sent as soon as filled : buffer stay under one packet size
+            assertTrue(writer.buffer.capacity() <= MAX_PACKET_LENGTH + 4);
+        }
+        assertEquals(3 * (MAX_PACKET_LENGTH + 4), out.size());
+        writer.finishPacket();
+        checkPackets(out.toByteArray(), datas, new int[]{MAX_PACKET_LENGTH, MAX_PACKET_LENGTH, MAX_PACKET_LENGTH, 10});
+    }
+
+    @Test
+    public void streamingMaxAllowedPacket() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(out);
+        writer.setMaxAllowedPacket(1000);
+        writer.startPacket(0);
+        try {
+            writer.write(new byte[2000]);
+            fail("max_allowed_packet must have been exceeded");
+        } catch (MaxAllowedPacketException e) {
+            //nothing must have been sent : connection can still be used
+            assertEquals(0, out.size());
+            assertFalse(e.isMustReconnect());
+        }
+        writer.startPacket(0);
+        writer.write(0x03);
+        writer.finishPacket();
+        assertEquals(5, out.size());
+    }
+
+    @Test
+    public void streamingMaxAllowedPacketAfterSentPackets() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(out);
+        writer.setMaxAllowedPacket(MAX_PACKET_LENGTH + 100);
+        writer.startPacket(0);
+        try {
+            writer.write(new byte[MAX_PACKET_LENGTH + 10]);
+            writer.write(new byte[1000]);
+            writer.finishPacket();
+            fail("max_allowed_packet must have been exceeded");
+        } catch (MaxAllowedPacketException e) {
+            //first packet has already been sent : server waits for the end of command
+            assertTrue(out.size() > 0);
+            assertTrue(e.isMustReconnect());
+        }
+    }
+
+    private static byte[] escape(byte[] bytes, boolean noBackslashEscapes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte value : bytes) {
+            if (value == '\'' || (!noBackslashEscapes && (value == '\\' || value == '"' || value == 0))) {
+                out.write(noBackslashEscapes ? '\'' : '\\');
+            }
+            out.write(value);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] payload(byte[] sent) throws IOException {
+        if (sent.length == 0) {
+            //empty packets are not sent
+            return sent;
+        }
+        ByteBuffer buffer = new ReadPacketFetcher(new ByteArrayInputStream(sent)).getReusableBuffer();
+        byte[] payload = new byte[buffer.remaining()];
+        buffer.get(payload);
+        return payload;
+    }
+
+    @Test
+    public void utf8EscapedString() throws IOException {
+        String[] values = {"", "abc", "it's a \"test\" \\ \u0000 end", "\u00e9t\u00e9 \u20ac \ud83d\ude00 \u4e2d\u6587",
+            "lone \ud83d surrogate", "lone \ude00 low", "\ud83d", "\uffff\u0800\u07ff\u0080\u007f"};
+        for (String value : values) {
+            for (boolean noBackslashEscapes : new boolean[] {false, true}) {
+                CountingOutputStream out = new CountingOutputStream();
+                PacketOutputStream writer = new PacketOutputStream(out);
+                writer.startPacket(0);
+                writer.writeEscaped(value, noBackslashEscapes);
+                writer.finishPacket();
+                assertArrayEquals(escape(value.getBytes(StandardCharsets.UTF_8), noBackslashEscapes), payload(out.toByteArray()));
+
+                out = new CountingOutputStream();
+                writer = new PacketOutputStream(out);
+                writer.startPacket(0);
+                writer.writeStringLength(value);
+                writer.writeString(value);
+                writer.finishPacket();
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                byte[] payload = payload(out.toByteArray());
+                assertEquals(bytes.length, payload[0]);
+                assertEquals(1 + 2 * bytes.length, payload.length);
+            }
+        }
+    }
+
+    @Test
+    public void utf8ReaderSplitSurrogates() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            sb.append(i % 3 == 0 ? "\ud83d\ude00" : (i % 3 == 1 ? "'a" : "\u00e9"));
+        }
+        final String value = sb.toString();
+        //reader returning few chars at a time, so surrogate pairs are split between reads
+        Reader reader = new StringReader(value) {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                return super.read(cbuf, off, Math.min(len, 7));
+            }
+        };
+        CountingOutputStream out = new CountingOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(out);
+        writer.startPacket(0);
+        writer.writeEscaped(reader, Long.MAX_VALUE, false);
+        writer.finishPacket();
+        assertArrayEquals(escape(value.getBytes(StandardCharsets.UTF_8), false), payload(out.toByteArray()));
+
+        out = new CountingOutputStream();
+        writer = new PacketOutputStream(out);
+        writer.startPacket(0);
+        writer.sendStream(new StringReader(value), 10);
+        writer.finishPacket();
+        assertArrayEquals(value.substring(0, 10).getBytes(StandardCharsets.UTF_8), payload(out.toByteArray()));
+    }
+
+    @Test
+    public void streamingLargeString() throws IOException {
+        char[] chars = new char[MAX_PACKET_LENGTH + 10];
+        java.util.Arrays.fill(chars, 'a');
+        String value = new String(chars);
+        CountingOutputStream out = new CountingOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(out);
+        writer.startPacket(0, false);
+        writer.writeEscaped(value, false);
+        //full packet is sent as soon as filled
+        assertEquals(MAX_PACKET_LENGTH + 4, out.size());
+        writer.finishPacket();
+        checkPackets(out.toByteArray(), value.getBytes(StandardCharsets.UTF_8), new int[]{MAX_PACKET_LENGTH, 10});
+    }
+
+    private static void checkPackets(byte[] sent, byte[] datas, int[] lengths) throws IOException {
+        ReadPacketFetcher fetcher = new ReadPacketFetcher(new ByteArrayInputStream(sent));
+        int offset = 0;
+        for (int i = 0; i < lengths.length; i++) {
+            RawPacket packet = fetcher.getReusableRawPacket();
+            assertEquals(i, packet.getPacketSeq());
+            ByteBuffer buffer = packet.getByteBuffer();
+            assertEquals(lengths[i], buffer.remaining());
+            if (lengths[i] > 0) {
+                assertEquals(datas[offset], buffer.get(0));
+                assertEquals(datas[offset + lengths[i] - 1], buffer.get(lengths[i] - 1));
+            }
+            offset += lengths[i];
+        }
+    }
+
+    @Test
+    public void deferredCommandsSentWithNextCommand() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(out);
+        for (int i = 1; i <= 3; i++) {
+            writer.writeDeferredCommand(new byte[] {0x19, (byte) i, 0, 0, 0});
+        }
+        assertEquals(0, out.writes);
+        assertEquals(3, writer.getDeferredCommands());
+
+        writer.startPacket(0);
+        writer.write(0x03);
+        writer.write("SELECT 1".getBytes());
+        writer.finishPacket();
+        assertEquals(1, out.writes);
+        assertEquals(0, writer.getDeferredCommands());
+
+        ReadPacketFetcher fetcher = new ReadPacketFetcher(new ByteArrayInputStream(out.toByteArray()));
+        for (int i = 1; i <= 3; i++) {
+            RawPacket packet = fetcher.getReusableRawPacket();
+            assertEquals(0, packet.getPacketSeq());
+            assertEquals(5, packet.getByteBuffer().remaining());
+            assertEquals(0x19, packet.getByteBuffer().get(0));
+            assertEquals(i, packet.getByteBuffer().get(1));
+        }
+        RawPacket packet = fetcher.getReusableRawPacket();
+        assertEquals(9, packet.getByteBuffer().remaining());
+        assertEquals(0x03, packet.getByteBuffer().get(0));
+    }
+
+    @Test
+    public void deferredCommandsLimit() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(out);
+        for (int i = 0; i < 16; i++) {
+            writer.writeDeferredCommand(new byte[] {0x19, (byte) i, 0, 0, 0});
+        }
+        assertEquals(1, out.writes);
+        assertEquals(16 * 9, out.size());
+        writer.writeDeferredCommand(new byte[] {0x19, 0, 0, 0, 0});
+        writer.flushDeferredCommands();
+        assertEquals(2, out.writes);
+        assertEquals(17 * 9, out.size());
+        writer.flushDeferredCommands();
+        assertEquals(2, out.writes);
+    }
+
+    @Test
+    public void deferredCommandsWithLargeCommand() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(out);
+        writer.writeDeferredCommand(new byte[] {0x19, 1, 0, 0, 0});
+        byte[] data = new byte[100000];
+        writer.startPacket(0);
+        writer.write(0x03);
+        writer.write(data);
+        writer.finishPacket();
+        assertEquals(2, out.writes);
+
+        ReadPacketFetcher fetcher = new ReadPacketFetcher(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(5, fetcher.getReusableRawPacket().getByteBuffer().remaining());
+        assertEquals(100001, fetcher.getReusableRawPacket().getByteBuffer().remaining());
+    }
+
+    @Test
+    public void deferredCommandsBeforeStreamedPackets() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(out);
+        writer.setMaxAllowedPacket(1025);
+        writer.writeDeferredCommand(new byte[] {0x19, 1, 0, 0, 0});
+        byte[] data = new byte[3000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        writer.startPacket(0, false);
+        writer.write(data);
+        writer.finishPacket();
+        assertEquals(0, writer.getDeferredCommands());
+
+        ReadPacketFetcher fetcher = new ReadPacketFetcher(new ByteArrayInputStream(out.toByteArray()));
+        RawPacket close = fetcher.getReusableRawPacket();
+        assertEquals(0, close.getPacketSeq());
+        assertEquals(5, close.getByteBuffer().remaining());
+        assertEquals(0x19, close.getByteBuffer().get(0));
+        int[] lengths = {1024, 1024, 952};
+        int offset = 0;
+        for (int i = 0; i < lengths.length; i++) {
+            RawPacket packet = fetcher.getReusableRawPacket();
+            assertEquals(i, packet.getPacketSeq());
+            assertEquals(lengths[i], packet.getByteBuffer().remaining());
+            assertEquals(data[offset], packet.getByteBuffer().get(0));
+            offset += lengths[i];
+        }
+        assertEquals(9 + 3 * 4 + data.length, out.size());
+    }
+
+    @Test
+    public void deferredCommandsWithCompression() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(out);
+        writer.setUseCompression(true);
+        writer.writeDeferredCommand(new byte[] {0x19, 1, 0, 0, 0});
+        assertEquals(1, out.writes);
+        assertEquals(0, writer.getDeferredCommands());
+    }
+}
@@ -0,0 +1,110 @@
+package org.mariadb.jdbc.internal.util;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
+import org.mariadb.jdbc.internal.protocol.Protocol;
+import org.mariadb.jdbc.internal.util.dao.PrepareResult;
+
+public class PrepareStatementCacheTest {
+
+    private final List<Integer> released = new ArrayList<>();
+
+    private Protocol protocol() {
+        return (Protocol) Proxy.newProxyInstance(Protocol.class.getClassLoader(), new Class[] {Protocol.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if ("forceReleasePrepareStatement".equals(method.getName())) {
+                            released.add((Integer) args[0]);
+                        }
+                        return null;
+                    }
+                });
+    }
+
+    private static PrepareResult result(int id) {
+        return new PrepareResult(id, new ColumnInformation[0], new ColumnInformation[0]);
+    }
+
+    /**
+     * Prepare statement like protocol does : use cached result, or add new one.
+     */
+    private static void prepare(PrepareStatementCache cache, int id) {
+        PrepareResult cached = cache.get("SELECT " + id);
+        if (cached == null || !cached.incrementShareCounter()) {
+            PrepareResult prepareResult = result(id);
+            cache.put("SELECT " + id, prepareResult);
+            //statement closed
+            prepareResult.decrementShareCounter();
+        } else {
+            cached.decrementShareCounter();
+        }
+    }
+
+    @Test
+    public void oneTimeStatementsDoNotEvictReusedOnes() {
+        PrepareStatementCache cache = PrepareStatementCache.newInstance(10, protocol());
+        for (int i = 0; i < 5; i++) {
+            prepare(cache, i);
+            prepare(cache, i);
+        }
+        for (int i = 100; i < 200; i++) {
+            prepare(cache, i);
+        }
+        for (int i = 0; i < 5; i++) {
+            assertTrue(cache.containsKey("SELECT " + i));
+        }
+        assertEquals(10, cache.size());
+        assertEquals(5, cache.getHits());
+        assertEquals(105, cache.getMisses());
+        assertEquals(95, cache.getEvictions());
+        assertEquals(95, released.size());
+        assertEquals(Integer.valueOf(100), released.get(0));
+        assertTrue(PrepareStatementCache.getTotalHits() >= 5);
+        assertTrue(PrepareStatementCache.getTotalEvictions() >= 95);
+    }
+
+    @Test
+    public void protectedSegmentOverflow() {
+        PrepareStatementCache cache = PrepareStatementCache.newInstance(5, protocol());
+        for (int i = 0; i < 5; i++) {
+            prepare(cache, i);
+        }
+        //protected segment holds 4 entries : first promoted one goes back to probation
+        for (int i = 0; i < 5; i++) {
+            prepare(cache, i);
+        }
+        assertEquals("PrepareStatementCache.map[\nSELECT 0-0\nSELECT 1-0\nSELECT 2-0\nSELECT 3-0\nSELECT 4-0]",
+                cache.toString());
+        prepare(cache, 5);
+        assertFalse(cache.containsKey("SELECT 0"));
+        assertEquals(Integer.valueOf(0), released.get(0));
+        assertEquals(5, cache.size());
+    }
+
+    @Test
+    public void sharedStatementNotReleased() {
+        PrepareStatementCache cache = PrepareStatementCache.newInstance(2, protocol());
+        PrepareResult used = result(1);
+        assertNull(cache.put("SELECT 1", used));
+        prepare(cache, 3);
+        prepare(cache, 4);
+        assertFalse(cache.containsKey("SELECT 1"));
+        //still used by a statement : not released
+        assertFalse(released.contains(1));
+        used.decrementShareCounter();
+        assertTrue(used.canBeDeallocate());
+
+        PrepareResult other = result(5);
+        assertSame(cache.get("SELECT 4"), cache.put("SELECT 4", other));
+        assertEquals(2, cache.size());
+    }
+}
@@ -0,0 +1,107 @@
+package org.mariadb.jdbc.internal.util;
+
+import static org.junit.Assert.*;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+public class TimeZoneOffsetCacheTest {
+    private static final String[] ZONES = {"UTC", "Europe/Paris", "America/New_York", "Australia/Lord_Howe", "Pacific/Apia",
+        "Asia/Kolkata", "America/Sao_Paulo", "GMT+05:30"};
+
+    private static long calendarMillis(TimeZone timeZone, int year, int month, int day, int hour, int minutes, int seconds, int millis) {
+        Calendar calendar = new GregorianCalendar(timeZone);
+        calendar.clear();
+        calendar.set(year, month - 1, day, hour, minutes, seconds);
+        calendar.set(Calendar.MILLISECOND, millis);
+        return calendar.getTimeInMillis();
+    }
+
+    @Test
+    public void sameAsCalendarEveryHour() {
+        for (String zone : ZONES) {
+            TimeZone timeZone = TimeZone.getTimeZone(zone);
+            TimeZoneOffsetCache cache = new TimeZoneOffsetCache(timeZone);
+            //every hour of some years, including DST transitions and Samoa skipping 2011-12-30
+            for (int year : new int[] {1970, 2011, 2016}) {
+                for (int day = 1; day <= 366; day++) {
+                    for (int hour = 0; hour < 24; hour++) {
+                        assertEquals(zone + " " + year + " day " + day + " " + hour + "h",
+                                calendarMillis(timeZone, year, 1, day, hour, 30, 15, 123),
+                                cache.getEpochMillis(year, 1, day, hour, 30, 15, 123));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void sameAsCalendarRandom() {
+        Random random = new Random(0);
+        for (String zone : ZONES) {
+            TimeZone timeZone = TimeZone.getTimeZone(zone);
+            TimeZoneOffsetCache cache = TimeZoneOffsetCache.getInstance(timeZone);
+            for (int i = 0; i < 20000; i++) {
+                int year = 1 + random.nextInt(9999);
+                int month = 1 + random.nextInt(12);
+                int day = 1 + random.nextInt(31);
+                int hour = random.nextInt(24);
+                int minutes = random.nextInt(60);
+                int seconds = random.nextInt(60);
+                assertEquals(zone + " " + year + "-" + month + "-" + day + " " + hour + ":" + minutes + ":" + seconds,
+                        calendarMillis(timeZone, year, month, day, hour, minutes, seconds, 0),
+                        cache.getEpochMillis(year, month, day, hour, minutes, seconds, 0));
+            }
+        }
+    }
+
+    @Test
+    public void fieldsSameAsCalendar() {
+        Random random = new Random(0);
+        for (String zone : ZONES) {
+            TimeZone timeZone = TimeZone.getTimeZone(zone);
+            TimeZoneOffsetCache cache = new TimeZoneOffsetCache(timeZone);
+            Calendar calendar = new GregorianCalendar(timeZone);
+            for (int i = 0; i < 100000; i++) {
+                //from year 1 to 9999, with more values around now
+                long epochMillis = (i % 2 == 0)
+                        ? -62135596800000L + (long) (random.nextDouble() * 315537897600000L)
+                        : 1293840000000L + (long) (random.nextDouble() * 315360000000L);
+                calendar.setTimeInMillis(epochMillis);
+                int[] fields = cache.getFields(epochMillis);
+                String message = zone + " " + epochMillis;
+                assertEquals(message, calendar.get(Calendar.YEAR), fields[0]);
+                assertEquals(message, calendar.get(Calendar.MONTH) + 1, fields[1]);
+                assertEquals(message, calendar.get(Calendar.DAY_OF_MONTH), fields[2]);
+                assertEquals(message, calendar.get(Calendar.HOUR_OF_DAY), fields[3]);
+                assertEquals(message, calendar.get(Calendar.MINUTE), fields[4]);
+                assertEquals(message, calendar.get(Calendar.SECOND), fields[5]);
+                assertEquals(message, calendar.get(Calendar.MILLISECOND), fields[6]);
+            }
+        }
+    }
+
+    @Test
+    public void lenientFields() {
+        TimeZone timeZone = TimeZone.getTimeZone("Europe/Paris");
+        TimeZoneOffsetCache cache = new TimeZoneOffsetCache(timeZone);
+        //binary TIME values are decoded as 1970-01-01 plus days and hours, possibly negative
+        assertEquals(calendarMillis(timeZone, 1970, 1, -2, -5, 10, 0, 0), cache.getEpochMillis(1970, 1, -2, -5, 10, 0, 0));
+        assertEquals(calendarMillis(timeZone, 1970, 1, 35, 838, 59, 59, 0), cache.getEpochMillis(1970, 1, 35, 838, 59, 59, 0));
+        assertEquals(calendarMillis(timeZone, 2016, 2, 30, 0, 0, 0, 0), cache.getEpochMillis(2016, 2, 30, 0, 0, 0, 0));
+        assertEquals(calendarMillis(timeZone, 2016, 13, 1, 0, 0, 0, 0), cache.getEpochMillis(2016, 13, 1, 0, 0, 0, 0));
+    }
+
+    @Test
+    public void threadInstance() {
+        TimeZone timeZone = TimeZone.getTimeZone("Europe/Paris");
+        TimeZoneOffsetCache cache = TimeZoneOffsetCache.getInstance(timeZone);
+        assertSame(cache, TimeZoneOffsetCache.getInstance(TimeZone.getTimeZone("Europe/Paris")));
+        assertNotSame(cache, TimeZoneOffsetCache.getInstance(TimeZone.getTimeZone("UTC")));
+        assertSame(cache, TimeZoneOffsetCache.getInstance(timeZone));
+    }
+}
@@ -0,0 +1,82 @@
+package org.mariadb.jdbc.internal.util.buffer;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+import org.mariadb.jdbc.internal.packet.read.ReadPacketFetcher;
+import org.mariadb.jdbc.internal.packet.result.TextRowPacket;
+import org.mariadb.jdbc.internal.queryresults.RowView;
+
+public class ReaderTest {
+    private static final int MAX_PACKET_LENGTH = 0x00ffffff;
+
+    @Test
+    public void appendPacketKeepDatas() throws IOException {
+        Reader reader = new Reader(ByteBuffer.wrap(new byte[]{1, 2, 3}));
+        reader.skipByte();
+        ReadPacketFetcher fetcher = new ReadPacketFetcher(new ByteArrayInputStream(packets(new byte[]{4, 5})));
+        fetcher.appendPacket(reader);
+        assertEquals(1, reader.byteBuffer.position());
+        assertEquals(4, reader.getRemainingSize());
+        for (int i = 2; i <= 5; i++) {
+            assertEquals(i, reader.readByte());
+        }
+    }
+
+    /**
+     * Values split over many packets must be assembled with a single allocation : buffer is pre-sized when value
+     * length is known, and appended packets are read directly in it.
+     *
+     * @throws IOException exception
+     */
+    @Test
+    public void multiPacketValueSingleAllocation() throws IOException {
+        for (int size : new int[]{MAX_PACKET_LENGTH + 10, 2 * MAX_PACKET_LENGTH + 10, 3 * MAX_PACKET_LENGTH + 10}) {
+            byte[] payload = new byte[size + 9];
+            payload[0] = (byte) 0xfe;
+            for (int i = 0; i < 8; i++) {
+                payload[i + 1] = (byte) (((long) size) >> (8 * i));
+            }
+            for (int i = 9; i < payload.length; i++) {
+                payload[i] = (byte) i;
+            }
+
+            ReadPacketFetcher fetcher = new ReadPacketFetcher(new ByteArrayInputStream(packets(payload)));
+            RowView row = new RowView(1);
+            new TextRowPacket(1).readRow(fetcher, fetcher.getReusableBuffer(), row);
+
+            assertEquals(9, row.getOffset(0));
+            assertEquals(size, row.getLength(0));
+            //only one allocation, sized to first packet plus full following packets (geometric growth would differ)
+            long missing = size - (MAX_PACKET_LENGTH - 9);
+            long followingPackets = (missing + MAX_PACKET_LENGTH - 1) / MAX_PACKET_LENGTH;
+            assertEquals(MAX_PACKET_LENGTH * (1 + followingPackets), row.getBuffer().length);
+            for (int i = 9; i < payload.length; i += 4099) {
+                assertEquals(payload[i], row.getBuffer()[i]);
+            }
+            assertEquals(payload[payload.length - 1], row.getBuffer()[payload.length - 1]);
+        }
+    }
+
+    private static byte[] packets(byte[] payload) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length + 64);
+        int offset = 0;
+        int seq = 0;
+        int length;
+        do {
+            length = Math.min(MAX_PACKET_LENGTH, payload.length - offset);
+            out.write(length & 0xff);
+            out.write((length >> 8) & 0xff);
+            out.write((length >> 16) & 0xff);
+            out.write(seq++);
+            out.write(payload, offset, length);
+            offset += length;
+        } while (length == MAX_PACKET_LENGTH);
+        return out.toByteArray();
+    }
+}